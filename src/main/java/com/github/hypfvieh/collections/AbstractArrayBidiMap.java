@@ -0,0 +1,289 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Base of the bidirectional maps storing their pairs in arrays instead of entry objects.
+ * <p>
+ * All pairs are stored densely in parallel arrays managed by the subclass (slot 0 to size - 1).
+ * Two open addressing (linear probing) index tables map the hash of a key respectively a value to
+ * the slot of the pair. Index tables only contain slot numbers (slot + 1, 0 marks a free position),
+ * so no entry objects and no boxing is required.<br>
+ * The upper bits of an index entry (not required for the slot number, as slot &lt; table size) contain the upper bits
+ * of the hash, so lookups only have to read the slot arrays if these bits match.<br>
+ * Removing a pair moves the last pair into the free slot, so the slot arrays never contain gaps.
+ * </p>
+ * <p>
+ * Lookups are implemented by the subclasses (they have to compare the primitive or object keys and values).
+ * This class only handles the index tables which only requires the hash of a slot.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+abstract class AbstractArrayBidiMap {
+    static final int   DEFAULT_EXPECTED_SIZE = 16;
+    static final float LOAD_FACTOR           = 0.75f;
+
+    int[]              keyIndex;
+    int[]              valueIndex;
+    int                mask;
+    int                size;
+    int                modCount;
+
+    AbstractArrayBidiMap(int _expectedSize) {
+        if (_expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        int tableSize = tableSize(_expectedSize);
+        keyIndex = new int[tableSize];
+        valueIndex = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Hash of the key stored in the given slot (must be equal to the hash used for lookups).
+     */
+    abstract int keyHash(int _slot);
+
+    /**
+     * Hash of the value stored in the given slot (must be equal to the hash used for lookups).
+     */
+    abstract int valueHash(int _slot);
+
+    /**
+     * Copies key and value from one slot to another.
+     */
+    abstract void moveSlot(int _from, int _to);
+
+    /**
+     * Releases the content of the given slot (e.g. set object references to null).
+     */
+    abstract void clearSlot(int _slot);
+
+    /**
+     * Resize the slot arrays to the given capacity, keeping all content.
+     */
+    abstract void resizeSlots(int _capacity);
+
+    /**
+     * Appends key and value of the given slot to the given StringBuilder (used by {@link #toString()}).
+     */
+    abstract void appendSlot(StringBuilder _sb, int _slot);
+
+    /**
+     * Returns the number of pairs in this map.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this map does not contain any pair.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all pairs from this map.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            clearSlot(i);
+        }
+        Arrays.fill(keyIndex, 0);
+        Arrays.fill(valueIndex, 0);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Number of pairs which can be stored in the slot arrays before the index tables have to grow.
+     */
+    final int slotCapacity() {
+        return (int) (keyIndex.length * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot to use for a new pair, grows all tables if required.
+     * The new pair has to be written to the returned slot and {@link #link(int)} has to be called afterwards.
+     */
+    final int nextSlot() {
+        if (size >= slotCapacity()) {
+            rehash(keyIndex.length << 1);
+        }
+        return size;
+    }
+
+    /**
+     * Adds the pair written to the given slot (returned by {@link #nextSlot()}) to both index tables.
+     */
+    final void link(int _slot) {
+        insert(keyIndex, keyHash(_slot), _slot);
+        insert(valueIndex, valueHash(_slot), _slot);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the pair of the given slot and moves the last pair to the free slot.
+     */
+    final void unlink(int _slot) {
+        delete(keyIndex, position(keyIndex, keyHash(_slot), _slot), true);
+        delete(valueIndex, position(valueIndex, valueHash(_slot), _slot), false);
+
+        int last = size - 1;
+        if (_slot != last) {
+            int keyPos = position(keyIndex, keyHash(last), last);
+            keyIndex[keyPos] = (keyIndex[keyPos] & ~mask) | (_slot + 1);
+            int valuePos = position(valueIndex, valueHash(last), last);
+            valueIndex[valuePos] = (valueIndex[valuePos] & ~mask) | (_slot + 1);
+            moveSlot(last, _slot);
+        }
+        clearSlot(last);
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int _tableSize) {
+        if (_tableSize <= 0) {
+            throw new IllegalStateException("Maximum capacity of map reached");
+        }
+        keyIndex = new int[_tableSize];
+        valueIndex = new int[_tableSize];
+        mask = _tableSize - 1;
+        resizeSlots(slotCapacity());
+        for (int slot = 0; slot < size; slot++) {
+            insert(keyIndex, keyHash(slot), slot);
+            insert(valueIndex, valueHash(slot), slot);
+        }
+    }
+
+    private void insert(int[] _index, int _hash, int _slot) {
+        int pos = _hash & mask;
+        while (_index[pos] != 0) {
+            pos = (pos + 1) & mask;
+        }
+        _index[pos] = (_hash & ~mask) | (_slot + 1);
+    }
+
+    /**
+     * Finds the position of the given slot in the given index table.
+     */
+    private int position(int[] _index, int _hash, int _slot) {
+        int pos = _hash & mask;
+        while ((_index[pos] & mask) != _slot + 1) {
+            pos = (pos + 1) & mask;
+        }
+        return pos;
+    }
+
+    /**
+     * Removes the entry at the given position and shifts following entries of the same probe sequence backwards
+     * (no tombstones required).
+     */
+    private void delete(int[] _index, int _pos, boolean _keys) {
+        int pos = _pos;
+        while (true) {
+            int last = pos;
+            int entry;
+            while (true) {
+                pos = (pos + 1) & mask;
+                if ((entry = _index[pos]) == 0) {
+                    _index[last] = 0;
+                    return;
+                }
+                int slot = (entry & mask) - 1;
+                int home = (_keys ? keyHash(slot) : valueHash(slot)) & mask;
+                // entry may be moved if its home position is not between last (exclusive) and pos (inclusive)
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) {
+                    break;
+                }
+            }
+            _index[last] = entry;
+        }
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder(getClass().getName()).append("[{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            appendSlot(sb, i);
+        }
+        return sb.append("}]").toString();
+    }
+
+    static IllegalArgumentException notUnique(boolean _isKey, Object _unique, Object _key, Object _val) {
+        return new IllegalArgumentException((_isKey ? "Key [" : "Value [") + _unique
+            + "] not unique in bidirectional map, cannot put(" + _key + ", " + _val + ").");
+    }
+
+    static int tableSize(int _expectedSize) {
+        long required = Math.max(2, (long) Math.ceil(_expectedSize / (double) LOAD_FACTOR));
+        if (required > 1 << 30) {
+            throw new IllegalArgumentException("Expected size too large: " + _expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    static int mix(int _value) {
+        int h = _value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long _value) {
+        // multiply before folding, otherwise keys with equal upper and lower half would all collide
+        long h = _value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int mix(Object _value) {
+        return mix(_value.hashCode());
+    }
+
+    /**
+     * Cursor iterating over all pairs of the map in slot order.
+     * The map must not be modified while using the cursor.
+     */
+    abstract class SlotCursor {
+        private final int expectedModCount = modCount;
+        int               slot             = -1;
+
+        /**
+         * Moves the cursor to the next pair.
+         *
+         * @return false if there are no more pairs
+         * @throws ConcurrentModificationException if the map was modified after the cursor was created
+         */
+        public boolean next() {
+            checkModification();
+            if (slot < size) {
+                slot++;
+            }
+            return slot < size;
+        }
+
+        final void checkPosition() {
+            checkModification();
+            if (slot < 0 || slot >= size) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private void checkModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.github.hypfvieh.collections;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * A memory efficient bidirectional map.
+ * <p>
+ * Like {@link BidiMap}, every key and every value must be unique and null is not accepted as key or value
+ * ({@link IllegalArgumentException} is thrown in these cases).
+ * </p>
+ * <p>
+ * {@link BidiMap} stores each pair twice (in the map and in the inverse map), each time using a separate entry object.
+ * This map stores each pair only once in two parallel arrays. Both directions are indexed by open addressing tables
+ * which only contain slot numbers. Depending on the fill level this needs about 19 to 37 bytes per pair
+ * (plus the key and value objects themselves).
+ * </p>
+ * <p>
+ * For read-only data, {@link #freeze()} creates an immutable copy which needs even less memory.
+ * </p>
+ * <p>
+ * The views returned by {@link #keySet()}, {@link #values()} and {@link #entrySet()} cannot be modified.
+ * Iteration order is insertion order as long as no pair is removed (removing a pair moves the last pair to its position).
+ * </p>
+ * The map requires external synchronization.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public class CompactBidiMap<K, V> extends AbstractArrayBidiMap implements Map<K, V> {
+
+    private Object[] keys;
+    private Object[] values;
+
+    public CompactBidiMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     */
+    public CompactBidiMap(int _expectedSize) {
+        super(_expectedSize);
+        keys = new Object[slotCapacity()];
+        values = new Object[slotCapacity()];
+    }
+
+    /**
+     * Create a new map containing all mappings of the given map.
+     *
+     * @param _map map to copy
+     */
+    public CompactBidiMap(Map<? extends K, ? extends V> _map) {
+        this(_map.size());
+        putAll(_map);
+    }
+
+    @Override
+    public V get(Object _key) {
+        BidiMap.checkParms(_key);
+        int slot = keySlot(_key);
+        return slot < 0 ? null : value(slot);
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or null if value is not mapped
+     */
+    public K getKey(V _val) {
+        BidiMap.checkParms(_val);
+        int slot = valueSlot(_val);
+        return slot < 0 ? null : key(slot);
+    }
+
+    @Override
+    public boolean containsKey(Object _key) {
+        BidiMap.checkParms(_key);
+        return keySlot(_key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object _val) {
+        BidiMap.checkParms(_val);
+        return valueSlot(_val) >= 0;
+    }
+
+    /**
+     * Adds the given mapping.
+     * Putting a mapping which already exists has no effect.
+     *
+     * @throws IllegalArgumentException if key or value is null, key is already mapped to a different value or value is already mapped to a different key
+     */
+    @Override
+    public V put(K _key, V _val) {
+        BidiMap.checkParms(_key, _val);
+        int keySlot = keySlot(_key);
+        int valueSlot = valueSlot(_val);
+        if (valueSlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(false, _val, _key, _val);
+        } else if (keySlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(true, _key, _key, _val);
+        } else if (keySlot >= 0) {
+            return value(keySlot);
+        }
+
+        int slot = nextSlot();
+        keys[slot] = _key;
+        values[slot] = _val;
+        link(slot);
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> _map) {
+        for (Map.Entry<? extends K, ? extends V> entry : _map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object _key) {
+        BidiMap.checkParms(_key);
+        int slot = keySlot(_key);
+        if (slot < 0) {
+            return null;
+        }
+        V val = value(slot);
+        unlink(slot);
+        return val;
+    }
+
+    /**
+     * Removes the mapping for a value from this map if it is present.
+     *
+     * @param _val value whose mapping is to be removed from the map
+     * @return the previous key associated with <tt>value</tt>.
+     */
+    public K removeValue(V _val) {
+        BidiMap.checkParms(_val);
+        int slot = valueSlot(_val);
+        if (slot < 0) {
+            return null;
+        }
+        K key = key(slot);
+        unlink(slot);
+        return key;
+    }
+
+    /**
+     * Creates an immutable copy of this map.
+     * The copy does not use any spare capacity and is not affected by later changes of this map.
+     *
+     * @return {@link FrozenBidiMap}
+     */
+    public FrozenBidiMap<K, V> freeze() {
+        return new FrozenBidiMap<>(keys, values, size);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new SlotIterator<>(CompactBidiMap.this::key);
+            }
+
+            @Override
+            public boolean contains(Object _key) {
+                return _key != null && containsKey(_key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>(CompactBidiMap.this::value);
+            }
+
+            @Override
+            public boolean contains(Object _val) {
+                return _val != null && containsValue(_val);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new SlotIterator<>(slot -> new SimpleImmutableEntry<>(key(slot), value(slot)));
+            }
+
+            @Override
+            public boolean contains(Object _entry) {
+                if (!(_entry instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) _entry;
+                if (entry.getKey() == null || entry.getValue() == null) {
+                    return false;
+                }
+                int slot = keySlot(entry.getKey());
+                return slot >= 0 && values[slot].equals(entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object _obj) {
+        if (_obj == this) {
+            return true;
+        } else if (!(_obj instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> other = (Map<?, ?>) _obj;
+        if (other.size() != size) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < size; i++) {
+                if (!values[i].equals(other.get(keys[i]))) {
+                    return false;
+                }
+            }
+        } catch (ClassCastException | NullPointerException _ex) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += keys[i].hashCode() ^ values[i].hashCode();
+        }
+        return hash;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int _slot) {
+        return (K) keys[_slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int _slot) {
+        return (V) values[_slot];
+    }
+
+    private int keySlot(Object _key) {
+        int[] index = keyIndex;
+        int hash = mix(_key);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                Object key = keys[slot];
+                if (key == _key || _key.equals(key)) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int valueSlot(Object _val) {
+        int[] index = valueIndex;
+        int hash = mix(_val);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                Object val = values[slot];
+                if (val == _val || _val.equals(val)) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    int keyHash(int _slot) {
+        return mix(keys[_slot]);
+    }
+
+    @Override
+    int valueHash(int _slot) {
+        return mix(values[_slot]);
+    }
+
+    @Override
+    void moveSlot(int _from, int _to) {
+        keys[_to] = keys[_from];
+        values[_to] = values[_from];
+    }
+
+    @Override
+    void clearSlot(int _slot) {
+        keys[_slot] = null;
+        values[_slot] = null;
+    }
+
+    @Override
+    void resizeSlots(int _capacity) {
+        keys = Arrays.copyOf(keys, _capacity);
+        values = Arrays.copyOf(values, _capacity);
+    }
+
+    @Override
+    void appendSlot(StringBuilder _sb, int _slot) {
+        _sb.append(keys[_slot]).append('=').append(values[_slot]);
+    }
+
+    /**
+     * Read-only iterator over all slots, creating the returned element using the given function.
+     */
+    private final class SlotIterator<T> implements Iterator<T> {
+        private final IntFunction<T> elementFunction;
+        private final int            expectedModCount = modCount;
+        private int                  slot;
+
+        SlotIterator(IntFunction<T> _elementFunction) {
+            elementFunction = _elementFunction;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            } else if (slot >= size) {
+                throw new NoSuchElementException();
+            }
+            return elementFunction.apply(slot++);
+        }
+    }
+}
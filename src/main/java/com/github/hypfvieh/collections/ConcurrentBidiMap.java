@@ -0,0 +1,449 @@
+package com.github.hypfvieh.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread safe bidirectional map.
+ * <p>
+ * Like {@link BidiMap}, every key and every value must be unique and null is not accepted as key or value
+ * ({@link IllegalArgumentException} is thrown in these cases).
+ * </p>
+ * <p>
+ * Reads ({@link #get(Object)}, {@link #getKey(Object)}, {@link #containsKey(Object)}, {@link #containsValue(Object)})
+ * do not lock. Each key-value pair is stored as a single object referenced by both directions, so a lookup
+ * always returns a pair which was put together.<br>
+ * Writes lock the stripes of all involved keys and values (in ascending order), so writes working on different
+ * keys and values usually do not block each other. Both directions are always updated together.
+ * </p>
+ * <p>
+ * The atomic operations of {@link ConcurrentMap} ({@link #putIfAbsent(Object, Object)}, {@link #replace(Object, Object, Object)},
+ * {@link #remove(Object, Object)}, {@code computeIfAbsent}, {@code merge} ...) are supported.
+ * The compute-style operations are implemented on top of the atomic operations, so the given function may be called
+ * more than once if another thread changes the same key concurrently.
+ * </p>
+ * <p>
+ * The views returned by {@link #keySet()}, {@link #values()} and {@link #entrySet()} cannot be modified
+ * and are weakly consistent (like the views of {@link ConcurrentHashMap}).
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public class ConcurrentBidiMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    private static final int                    DEFAULT_STRIPES = 64;
+
+    private final ConcurrentHashMap<K, Pair<K, V>> map        = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<V, Pair<K, V>> inverseMap = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[]               locks;
+    private final int                           lockMask;
+
+    private final Set<Map.Entry<K, V>>          entrySet   = new EntrySetView();
+
+    public ConcurrentBidiMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _stripes number of locks used for writing (rounded up to a power of two)
+     */
+    public ConcurrentBidiMap(int _stripes) {
+        if (_stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be greater than 0");
+        }
+        int size = Integer.highestOneBit(_stripes);
+        size = size < _stripes ? size << 1 : size;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        lockMask = size - 1;
+    }
+
+    /**
+     * Create a new map containing all mappings of the given map.
+     *
+     * @param _map map to copy
+     */
+    public ConcurrentBidiMap(Map<? extends K, ? extends V> _map) {
+        this(DEFAULT_STRIPES);
+        putAll(_map);
+    }
+
+    @Override
+    public V get(Object _key) {
+        BidiMap.checkParms(_key);
+        Pair<K, V> pair = map.get(_key);
+        return pair == null ? null : pair.value;
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or null if value is not mapped
+     */
+    public K getKey(V _val) {
+        BidiMap.checkParms(_val);
+        Pair<K, V> pair = inverseMap.get(_val);
+        return pair == null ? null : pair.key;
+    }
+
+    @Override
+    public boolean containsKey(Object _key) {
+        BidiMap.checkParms(_key);
+        return map.containsKey(_key);
+    }
+
+    @Override
+    public boolean containsValue(Object _val) {
+        BidiMap.checkParms(_val);
+        return inverseMap.containsKey(_val);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        // values are unique, so the key set of the inverse map contains all values
+        return Collections.unmodifiableSet(inverseMap.keySet());
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    /**
+     * Adds the given mapping.
+     * Putting a mapping which already exists has no effect.
+     *
+     * @throws IllegalArgumentException if key is already mapped to a different value or value is already mapped to a different key
+     */
+    @Override
+    public V put(K _key, V _val) {
+        BidiMap.checkParms(_key, _val);
+        int[] stripes = lock(_key, _val);
+        try {
+            Pair<K, V> existing = map.get(_key);
+            if (existing != null) {
+                if (existing.value.equals(_val)) {
+                    return existing.value;
+                }
+                throw new IllegalArgumentException("Key [" + _key + "] not unique in bidirectional map, cannot put(" + _key + ", " + _val + ").");
+            }
+            checkValueUnused(_key, _val);
+            insert(_key, _val);
+            return null;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * Adds the given mapping if the key is not mapped yet.
+     *
+     * @return value currently mapped to the key or null if the mapping was added
+     * @throws IllegalArgumentException if the key is not mapped but the value is already mapped to a different key
+     */
+    @Override
+    public V putIfAbsent(K _key, V _val) {
+        BidiMap.checkParms(_key, _val);
+        Pair<K, V> current = map.get(_key);
+        if (current != null) {
+            return current.value;
+        }
+
+        int[] stripes = lock(_key, _val);
+        try {
+            Pair<K, V> existing = map.get(_key);
+            if (existing != null) {
+                return existing.value;
+            }
+            checkValueUnused(_key, _val);
+            insert(_key, _val);
+            return null;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    @Override
+    public V remove(Object _key) {
+        BidiMap.checkParms(_key);
+        while (true) {
+            Pair<K, V> pair = map.get(_key);
+            if (pair == null) {
+                return null;
+            }
+            int[] stripes = lock(pair.key, pair.value);
+            try {
+                if (map.get(_key) == pair) {
+                    delete(pair);
+                    return pair.value;
+                }
+            } finally {
+                unlock(stripes);
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for a value from this map if it is present.
+     *
+     * @param _val value whose mapping is to be removed from the map
+     * @return the previous key associated with <tt>value</tt>.
+     */
+    public K removeValue(V _val) {
+        BidiMap.checkParms(_val);
+        while (true) {
+            Pair<K, V> pair = inverseMap.get(_val);
+            if (pair == null) {
+                return null;
+            }
+            int[] stripes = lock(pair.key, pair.value);
+            try {
+                if (inverseMap.get(_val) == pair) {
+                    delete(pair);
+                    return pair.key;
+                }
+            } finally {
+                unlock(stripes);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object _key, Object _val) {
+        BidiMap.checkParms(_key, _val);
+        Pair<K, V> pair = map.get(_key);
+        if (pair == null || !pair.value.equals(_val)) {
+            return false;
+        }
+        int[] stripes = lock(pair.key, pair.value);
+        try {
+            if (map.get(_key) == pair) {
+                delete(pair);
+                return true;
+            }
+            return false;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * Replaces the value of the given key if it is currently mapped to the given old value.
+     *
+     * @throws IllegalArgumentException if new value is already mapped to a different key
+     */
+    @Override
+    public boolean replace(K _key, V _oldVal, V _newVal) {
+        BidiMap.checkParms(_key, _oldVal, _newVal);
+        Pair<K, V> pair = map.get(_key);
+        if (pair == null || !pair.value.equals(_oldVal)) {
+            return false;
+        }
+        int[] stripes = lock(_key, pair.value, _newVal);
+        try {
+            if (map.get(_key) != pair) {
+                return false;
+            }
+            replacePair(pair, _newVal);
+            return true;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * Replaces the value of the given key if the key is mapped.
+     *
+     * @throws IllegalArgumentException if new value is already mapped to a different key
+     */
+    @Override
+    public V replace(K _key, V _val) {
+        BidiMap.checkParms(_key, _val);
+        while (true) {
+            Pair<K, V> pair = map.get(_key);
+            if (pair == null) {
+                return null;
+            }
+            int[] stripes = lock(_key, pair.value, _val);
+            try {
+                if (map.get(_key) == pair) {
+                    replacePair(pair, _val);
+                    return pair.value;
+                }
+            } finally {
+                unlock(stripes);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            map.clear();
+            inverseMap.clear();
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the value of the given pair. Requires locks for key, old and new value.
+     */
+    private void replacePair(Pair<K, V> _pair, V _newVal) {
+        if (_pair.value.equals(_newVal)) {
+            return;
+        }
+        checkValueUnused(_pair.key, _newVal);
+        Pair<K, V> replacement = new Pair<>(_pair.key, _newVal);
+        inverseMap.put(_newVal, replacement);
+        map.put(_pair.key, replacement);
+        inverseMap.remove(_pair.value, _pair);
+    }
+
+    private void checkValueUnused(K _key, V _val) {
+        Pair<K, V> existing = inverseMap.get(_val);
+        if (existing != null && !existing.key.equals(_key)) {
+            throw new IllegalArgumentException("Value [" + _val + "] not unique in bidirectional map, cannot put(" + _key + ", " + _val + ").");
+        }
+    }
+
+    private void insert(K _key, V _val) {
+        Pair<K, V> pair = new Pair<>(_key, _val);
+        inverseMap.put(_val, pair);
+        map.put(_key, pair);
+    }
+
+    private void delete(Pair<K, V> _pair) {
+        map.remove(_pair.key, _pair);
+        inverseMap.remove(_pair.value, _pair);
+    }
+
+    private int stripe(Object _obj) {
+        int h = _obj.hashCode();
+        return (h ^ (h >>> 16)) & lockMask;
+    }
+
+    /**
+     * Locks the stripes of all given objects in ascending order (prevents dead locks).
+     *
+     * @return locked stripes
+     */
+    private int[] lock(Object... _objs) {
+        int[] stripes = new int[_objs.length];
+        for (int i = 0; i < _objs.length; i++) {
+            stripes[i] = stripe(_objs[i]);
+        }
+        Arrays.sort(stripes);
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                locks[stripes[i]].lock();
+            }
+        }
+        return stripes;
+    }
+
+    private void unlock(int[] _stripes) {
+        for (int i = _stripes.length - 1; i >= 0; i--) {
+            if (i == 0 || _stripes[i] != _stripes[i - 1]) {
+                locks[_stripes[i]].unlock();
+            }
+        }
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName() + "[" + super.toString() + "]";
+    }
+
+    /**
+     * Key-value pair referenced by both directions.
+     */
+    private static final class Pair<K, V> {
+        private final K key;
+        private final V value;
+
+        Pair(K _key, V _value) {
+            key = _key;
+            value = _value;
+        }
+    }
+
+    /**
+     * Unmodifiable entry set backed by the map.
+     */
+    private final class EntrySetView extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            Iterator<Pair<K, V>> it = map.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    Pair<K, V> pair = it.next();
+                    return new AbstractMap.SimpleImmutableEntry<>(pair.key, pair.value);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean contains(Object _obj) {
+            if (!(_obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) _obj;
+            if (entry.getKey() == null || entry.getValue() == null) {
+                return false;
+            }
+            Pair<K, V> pair = map.get(entry.getKey());
+            return pair != null && pair.value.equals(entry.getValue());
+        }
+    }
+}
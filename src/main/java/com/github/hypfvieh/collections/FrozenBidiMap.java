@@ -0,0 +1,263 @@
+package com.github.hypfvieh.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable bidirectional map, created by {@link CompactBidiMap#freeze()}.
+ * <p>
+ * Pairs are sorted by the upper bits of the hash of the key (bucket). A directory containing the first pair
+ * of each bucket allows finding a key by reading only the directory entry and the (on average one or two) keys of the bucket.
+ * The lower 16 bits of the hash of each key are stored as well, so keys of the bucket only have to be compared if these bits match.
+ * The inverse direction uses a second directory and the pair numbers sorted by the hash of the value
+ * (the unused upper bits of a pair number contain bits of the hash of the value).<br>
+ * There is no spare capacity and no empty slot, so this needs about 18 to 22 bytes per pair
+ * (plus the key and value objects themselves).
+ * </p>
+ * <p>
+ * Like {@link BidiMap}, null is not accepted as key or value ({@link IllegalArgumentException} is thrown).
+ * All methods modifying the map throw {@link UnsupportedOperationException}.
+ * The map is safe to be used by multiple threads.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class FrozenBidiMap<K, V> extends AbstractMap<K, V> {
+
+    private final Object[] keys;
+    private final Object[] values;
+    /** Lower 16 bits of the hash of each key. */
+    private final short[]  keyTags;
+    /** Index of the first pair of each key bucket, last element is the number of pairs. */
+    private final int[]    keyBuckets;
+    /** Pair numbers sorted by value bucket, upper bits contain the lower bits of the hash of the value. */
+    private final int[]    valueOrder;
+    /** Number of bits of the pair number in {@link #valueOrder}. */
+    private final int      pairBits;
+    /** Index in {@link #valueOrder} of the first pair of each value bucket, last element is the number of pairs. */
+    private final int[]    valueBuckets;
+    private final int      shift;
+
+    private final Set<Map.Entry<K, V>> entrySet = new EntrySetView();
+
+    /**
+     * Create a new map from the given pairs (keys and values must be unique and not null).
+     *
+     * @param _keys keys
+     * @param _values values, same order as keys
+     * @param _size number of pairs to use
+     */
+    FrozenBidiMap(Object[] _keys, Object[] _values, int _size) {
+        // about one bucket per pair, so most buckets contain only one or two pairs
+        int bucketCount = Math.max(2, Integer.highestOneBit(Math.max(1, _size)));
+        shift = Integer.SIZE - Integer.numberOfTrailingZeros(bucketCount);
+
+        keys = new Object[_size];
+        values = new Object[_size];
+        keyTags = new short[_size];
+        keyBuckets = new int[bucketCount + 1];
+        valueOrder = new int[_size];
+        pairBits = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(0, _size - 1));
+        valueBuckets = new int[bucketCount + 1];
+
+        // counting sort of all pairs by key bucket
+        int[] hashes = new int[_size];
+        for (int i = 0; i < _size; i++) {
+            hashes[i] = AbstractArrayBidiMap.mix(_keys[i]);
+            keyBuckets[(hashes[i] >>> shift) + 1]++;
+        }
+        prefixSum(keyBuckets);
+        int[] next = new int[bucketCount];
+        System.arraycopy(keyBuckets, 0, next, 0, bucketCount);
+        for (int i = 0; i < _size; i++) {
+            int target = next[hashes[i] >>> shift]++;
+            keys[target] = _keys[i];
+            values[target] = _values[i];
+            keyTags[target] = (short) hashes[i];
+        }
+
+        // counting sort of the pair numbers by value bucket
+        for (int i = 0; i < _size; i++) {
+            hashes[i] = AbstractArrayBidiMap.mix(values[i]);
+            valueBuckets[(hashes[i] >>> shift) + 1]++;
+        }
+        prefixSum(valueBuckets);
+        System.arraycopy(valueBuckets, 0, next, 0, bucketCount);
+        for (int i = 0; i < _size; i++) {
+            valueOrder[next[hashes[i] >>> shift]++] = hashes[i] << pairBits | i;
+        }
+    }
+
+    @Override
+    public V get(Object _key) {
+        BidiMap.checkParms(_key);
+        int pair = keyPair(_key);
+        return pair < 0 ? null : value(pair);
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or null if value is not mapped
+     */
+    public K getKey(V _val) {
+        BidiMap.checkParms(_val);
+        int pair = valuePair(_val);
+        return pair < 0 ? null : key(pair);
+    }
+
+    @Override
+    public boolean containsKey(Object _key) {
+        BidiMap.checkParms(_key);
+        return keyPair(_key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object _val) {
+        BidiMap.checkParms(_val);
+        return valuePair(_val) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public V put(K _key, V _val) {
+        throw new UnsupportedOperationException("Map is immutable");
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> _map) {
+        throw new UnsupportedOperationException("Map is immutable");
+    }
+
+    @Override
+    public V remove(Object _key) {
+        throw new UnsupportedOperationException("Map is immutable");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Map is immutable");
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[" + super.toString() + "]";
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int _pair) {
+        return (K) keys[_pair];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int _pair) {
+        return (V) values[_pair];
+    }
+
+    private int keyPair(Object _key) {
+        int hash = AbstractArrayBidiMap.mix(_key);
+        int bucket = hash >>> shift;
+        short tag = (short) hash;
+        for (int i = keyBuckets[bucket], end = keyBuckets[bucket + 1]; i < end; i++) {
+            if (keyTags[i] == tag) {
+                Object key = keys[i];
+                if (key == _key || _key.equals(key)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int valuePair(Object _val) {
+        int hash = AbstractArrayBidiMap.mix(_val);
+        int bucket = hash >>> shift;
+        int tag = hash << pairBits;
+        int pairMask = (int) ((1L << pairBits) - 1);
+        for (int i = valueBuckets[bucket], end = valueBuckets[bucket + 1]; i < end; i++) {
+            int entry = valueOrder[i];
+            if ((entry & ~pairMask) == tag) {
+                int pair = entry & pairMask;
+                Object val = values[pair];
+                if (val == _val || _val.equals(val)) {
+                    return pair;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void prefixSum(int[] _counts) {
+        for (int i = 1; i < _counts.length; i++) {
+            _counts[i] += _counts[i - 1];
+        }
+    }
+
+    /**
+     * Read-only view of all pairs.
+     */
+    private final class EntrySetView extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int pair;
+
+                @Override
+                public boolean hasNext() {
+                    return pair < keys.length;
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    if (pair >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<K, V> entry = new SimpleImmutableEntry<>(key(pair), value(pair));
+                    pair++;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object _entry) {
+            if (!(_entry instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) _entry;
+            if (entry.getKey() == null || entry.getValue() == null) {
+                return false;
+            }
+            int pair = keyPair(entry.getKey());
+            return pair >= 0 && values[pair].equals(entry.getValue());
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Arrays;
+
+/**
+ * A bidirectional map using primitive int keys and int values.
+ * <p>
+ * Like {@link BidiMap}, every key and every value must be unique ({@link IllegalArgumentException} is thrown otherwise).
+ * In contrast to {@code BidiMap<Integer, Integer>} no values are boxed and no entry objects are created:
+ * all pairs are stored in two int arrays, both directions are indexed by open addressing tables only containing slot numbers.
+ * </p>
+ * <p>
+ * As there is no null, lookups of missing keys respectively values return a configurable marker
+ * ({@link #getNoEntryKey()}, {@link #getNoEntryValue()}, both -1 by default).
+ * Use {@link #containsKey(int)}/{@link #containsValue(int)} if the marker is a valid key or value.
+ * </p>
+ * <p>
+ * Pairs are iterated using a {@link Cursor}:
+ * <pre>
+ * IntIntBidiMap.Cursor cursor = map.cursor();
+ * while (cursor.next()) {
+ *     process(cursor.key(), cursor.value());
+ * }
+ * </pre>
+ * The map requires external synchronization.
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public class IntIntBidiMap extends AbstractArrayBidiMap {
+
+    private final int noEntryKey;
+    private final int noEntryValue;
+
+    private int[]     keys;
+    private int[]     values;
+
+    public IntIntBidiMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     */
+    public IntIntBidiMap(int _expectedSize) {
+        this(_expectedSize, -1, -1);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     * @param _noEntryKey key returned by {@link #getKey(int)} and {@link #removeValue(int)} if value is not mapped
+     * @param _noEntryValue value returned by {@link #get(int)}, {@link #put(int, int)} and {@link #remove(int)} if key is not mapped
+     */
+    public IntIntBidiMap(int _expectedSize, int _noEntryKey, int _noEntryValue) {
+        super(_expectedSize);
+        noEntryKey = _noEntryKey;
+        noEntryValue = _noEntryValue;
+        keys = new int[slotCapacity()];
+        values = new int[slotCapacity()];
+    }
+
+    public int getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the value the given key is mapped to.
+     *
+     * @param _key key
+     * @return value or {@link #getNoEntryValue()} if key is not mapped
+     */
+    public int get(int _key) {
+        int slot = keySlot(_key);
+        return slot < 0 ? noEntryValue : values[slot];
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or {@link #getNoEntryKey()} if value is not mapped
+     */
+    public int getKey(int _val) {
+        int slot = valueSlot(_val);
+        return slot < 0 ? noEntryKey : keys[slot];
+    }
+
+    public boolean containsKey(int _key) {
+        return keySlot(_key) >= 0;
+    }
+
+    public boolean containsValue(int _val) {
+        return valueSlot(_val) >= 0;
+    }
+
+    /**
+     * Adds the given mapping.
+     * Putting a mapping which already exists has no effect.
+     *
+     * @param _key key
+     * @param _val value
+     * @return value if the mapping already existed, {@link #getNoEntryValue()} otherwise
+     * @throws IllegalArgumentException if key is already mapped to a different value or value is already mapped to a different key
+     */
+    public int put(int _key, int _val) {
+        int keySlot = keySlot(_key);
+        int valueSlot = valueSlot(_val);
+        if (valueSlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(false, _val, _key, _val);
+        } else if (keySlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(true, _key, _key, _val);
+        } else if (keySlot >= 0) {
+            return _val;
+        }
+
+        int slot = nextSlot();
+        keys[slot] = _key;
+        values[slot] = _val;
+        link(slot);
+        return noEntryValue;
+    }
+
+    /**
+     * Removes the mapping for a key from this map if it is present.
+     *
+     * @param _key key whose mapping is to be removed from the map
+     * @return the previous value associated with key or {@link #getNoEntryValue()}
+     */
+    public int remove(int _key) {
+        int slot = keySlot(_key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        int val = values[slot];
+        unlink(slot);
+        return val;
+    }
+
+    /**
+     * Removes the mapping for a value from this map if it is present.
+     *
+     * @param _val value whose mapping is to be removed from the map
+     * @return the previous key associated with value or {@link #getNoEntryKey()}
+     */
+    public int removeValue(int _val) {
+        int slot = valueSlot(_val);
+        if (slot < 0) {
+            return noEntryKey;
+        }
+        int key = keys[slot];
+        unlink(slot);
+        return key;
+    }
+
+    /**
+     * Returns a new cursor positioned before the first pair.
+     *
+     * @return {@link Cursor}
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int keySlot(int _key) {
+        int[] index = keyIndex;
+        int hash = mix(_key);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                if (keys[slot] == _key) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int valueSlot(int _val) {
+        int[] index = valueIndex;
+        int hash = mix(_val);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                if (values[slot] == _val) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    int keyHash(int _slot) {
+        return mix(keys[_slot]);
+    }
+
+    @Override
+    int valueHash(int _slot) {
+        return mix(values[_slot]);
+    }
+
+    @Override
+    void moveSlot(int _from, int _to) {
+        keys[_to] = keys[_from];
+        values[_to] = values[_from];
+    }
+
+    @Override
+    void clearSlot(int _slot) {
+        // nothing to release
+    }
+
+    @Override
+    void resizeSlots(int _capacity) {
+        keys = Arrays.copyOf(keys, _capacity);
+        values = Arrays.copyOf(values, _capacity);
+    }
+
+    @Override
+    void appendSlot(StringBuilder _sb, int _slot) {
+        _sb.append(keys[_slot]).append('=').append(values[_slot]);
+    }
+
+    /**
+     * Cursor iterating over all pairs of the map.
+     * The map must not be modified while using the cursor.
+     */
+    public final class Cursor extends SlotCursor {
+        Cursor() {
+        }
+
+        /**
+         * Key of the current pair.
+         * @return key
+         */
+        public int key() {
+            checkPosition();
+            return keys[slot];
+        }
+
+        /**
+         * Value of the current pair.
+         * @return value
+         */
+        public int value() {
+            checkPosition();
+            return values[slot];
+        }
+    }
+}
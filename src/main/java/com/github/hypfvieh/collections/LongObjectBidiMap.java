@@ -0,0 +1,273 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Arrays;
+
+/**
+ * A bidirectional map using primitive long keys and object values.
+ * <p>
+ * Like {@link BidiMap}, every key and every value must be unique ({@link IllegalArgumentException} is thrown otherwise)
+ * and null is not accepted as value.
+ * In contrast to {@code BidiMap<Long, V>} keys are not boxed and no entry objects are created:
+ * all pairs are stored in a long and an object array, both directions are indexed by open addressing tables only containing slot numbers.
+ * </p>
+ * <p>
+ * Looking up the key of a missing value returns a configurable marker ({@link #getNoEntryKey()}, -1 by default).
+ * Use {@link #containsValue(Object)} if the marker is a valid key.
+ * </p>
+ * <p>
+ * Pairs are iterated using a {@link Cursor}:
+ * <pre>
+ * LongObjectBidiMap&lt;String&gt;.Cursor cursor = map.cursor();
+ * while (cursor.next()) {
+ *     process(cursor.key(), cursor.value());
+ * }
+ * </pre>
+ * The map requires external synchronization.
+ *
+ * @param <V> value type
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public class LongObjectBidiMap<V> extends AbstractArrayBidiMap {
+
+    private final long noEntryKey;
+
+    private long[]     keys;
+    private Object[]   values;
+
+    public LongObjectBidiMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     */
+    public LongObjectBidiMap(int _expectedSize) {
+        this(_expectedSize, -1L);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     * @param _noEntryKey key returned by {@link #getKey(Object)} and {@link #removeValue(Object)} if value is not mapped
+     */
+    public LongObjectBidiMap(int _expectedSize, long _noEntryKey) {
+        super(_expectedSize);
+        noEntryKey = _noEntryKey;
+        keys = new long[slotCapacity()];
+        values = new Object[slotCapacity()];
+    }
+
+    public long getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    /**
+     * Returns the value the given key is mapped to.
+     *
+     * @param _key key
+     * @return value or null if key is not mapped
+     */
+    public V get(long _key) {
+        int slot = keySlot(_key);
+        return slot < 0 ? null : value(slot);
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or {@link #getNoEntryKey()} if value is not mapped
+     */
+    public long getKey(V _val) {
+        BidiMap.checkParms(_val);
+        int slot = valueSlot(_val);
+        return slot < 0 ? noEntryKey : keys[slot];
+    }
+
+    public boolean containsKey(long _key) {
+        return keySlot(_key) >= 0;
+    }
+
+    public boolean containsValue(V _val) {
+        BidiMap.checkParms(_val);
+        return valueSlot(_val) >= 0;
+    }
+
+    /**
+     * Adds the given mapping.
+     * Putting a mapping which already exists has no effect.
+     *
+     * @param _key key
+     * @param _val value
+     * @return value if the mapping already existed, null otherwise
+     * @throws IllegalArgumentException if value is null, key is already mapped to a different value or value is already mapped to a different key
+     */
+    public V put(long _key, V _val) {
+        BidiMap.checkParms(_val);
+        int keySlot = keySlot(_key);
+        int valueSlot = valueSlot(_val);
+        if (valueSlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(false, _val, _key, _val);
+        } else if (keySlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(true, _key, _key, _val);
+        } else if (keySlot >= 0) {
+            return value(keySlot);
+        }
+
+        int slot = nextSlot();
+        keys[slot] = _key;
+        values[slot] = _val;
+        link(slot);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for a key from this map if it is present.
+     *
+     * @param _key key whose mapping is to be removed from the map
+     * @return the previous value associated with key or null
+     */
+    public V remove(long _key) {
+        int slot = keySlot(_key);
+        if (slot < 0) {
+            return null;
+        }
+        V val = value(slot);
+        unlink(slot);
+        return val;
+    }
+
+    /**
+     * Removes the mapping for a value from this map if it is present.
+     *
+     * @param _val value whose mapping is to be removed from the map
+     * @return the previous key associated with value or {@link #getNoEntryKey()}
+     */
+    public long removeValue(V _val) {
+        BidiMap.checkParms(_val);
+        int slot = valueSlot(_val);
+        if (slot < 0) {
+            return noEntryKey;
+        }
+        long key = keys[slot];
+        unlink(slot);
+        return key;
+    }
+
+    /**
+     * Returns a new cursor positioned before the first pair.
+     *
+     * @return {@link Cursor}
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int _slot) {
+        return (V) values[_slot];
+    }
+
+    private int keySlot(long _key) {
+        int[] index = keyIndex;
+        int hash = mix(_key);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                if (keys[slot] == _key) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int valueSlot(Object _val) {
+        int[] index = valueIndex;
+        int hash = mix(_val);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                Object val = values[slot];
+                if (val == _val || _val.equals(val)) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    int keyHash(int _slot) {
+        return mix(keys[_slot]);
+    }
+
+    @Override
+    int valueHash(int _slot) {
+        return mix(values[_slot]);
+    }
+
+    @Override
+    void moveSlot(int _from, int _to) {
+        keys[_to] = keys[_from];
+        values[_to] = values[_from];
+    }
+
+    @Override
+    void clearSlot(int _slot) {
+        values[_slot] = null;
+    }
+
+    @Override
+    void resizeSlots(int _capacity) {
+        keys = Arrays.copyOf(keys, _capacity);
+        values = Arrays.copyOf(values, _capacity);
+    }
+
+    @Override
+    void appendSlot(StringBuilder _sb, int _slot) {
+        _sb.append(keys[_slot]).append('=').append(values[_slot]);
+    }
+
+    /**
+     * Cursor iterating over all pairs of the map.
+     * The map must not be modified while using the cursor.
+     */
+    public final class Cursor extends SlotCursor {
+        Cursor() {
+        }
+
+        /**
+         * Key of the current pair.
+         * @return key
+         */
+        public long key() {
+            checkPosition();
+            return keys[slot];
+        }
+
+        /**
+         * Value of the current pair.
+         * @return value
+         */
+        public V value() {
+            checkPosition();
+            return LongObjectBidiMap.this.value(slot);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Arrays;
+
+/**
+ * A bidirectional map using object keys and primitive int values (e.g. symbol to id).
+ * <p>
+ * Like {@link BidiMap}, every key and every value must be unique ({@link IllegalArgumentException} is thrown otherwise)
+ * and null is not accepted as key.
+ * In contrast to {@code BidiMap<K, Integer>} values are not boxed and no entry objects are created:
+ * all pairs are stored in an object and an int array, both directions are indexed by open addressing tables only containing slot numbers.
+ * </p>
+ * <p>
+ * Looking up the value of a missing key returns a configurable marker ({@link #getNoEntryValue()}, -1 by default).
+ * Use {@link #containsKey(Object)} if the marker is a valid value.
+ * </p>
+ * <p>
+ * Pairs are iterated using a {@link Cursor}:
+ * <pre>
+ * ObjectIntBidiMap&lt;String&gt;.Cursor cursor = map.cursor();
+ * while (cursor.next()) {
+ *     process(cursor.key(), cursor.value());
+ * }
+ * </pre>
+ * The map requires external synchronization.
+ *
+ * @param <K> key type
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public class ObjectIntBidiMap<K> extends AbstractArrayBidiMap {
+
+    private final int noEntryValue;
+
+    private Object[]  keys;
+    private int[]     values;
+
+    public ObjectIntBidiMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     */
+    public ObjectIntBidiMap(int _expectedSize) {
+        this(_expectedSize, -1);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param _expectedSize number of pairs which can be added without resizing
+     * @param _noEntryValue value returned by {@link #get(Object)}, {@link #put(Object, int)} and {@link #remove(Object)} if key is not mapped
+     */
+    public ObjectIntBidiMap(int _expectedSize, int _noEntryValue) {
+        super(_expectedSize);
+        noEntryValue = _noEntryValue;
+        keys = new Object[slotCapacity()];
+        values = new int[slotCapacity()];
+    }
+
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the value the given key is mapped to.
+     *
+     * @param _key key
+     * @return value or {@link #getNoEntryValue()} if key is not mapped
+     */
+    public int get(K _key) {
+        BidiMap.checkParms(_key);
+        int slot = keySlot(_key);
+        return slot < 0 ? noEntryValue : values[slot];
+    }
+
+    /**
+     * Returns the key the given value is mapped to.
+     *
+     * @param _val value
+     * @return key or null if value is not mapped
+     */
+    public K getKey(int _val) {
+        int slot = valueSlot(_val);
+        return slot < 0 ? null : key(slot);
+    }
+
+    public boolean containsKey(K _key) {
+        BidiMap.checkParms(_key);
+        return keySlot(_key) >= 0;
+    }
+
+    public boolean containsValue(int _val) {
+        return valueSlot(_val) >= 0;
+    }
+
+    /**
+     * Adds the given mapping.
+     * Putting a mapping which already exists has no effect.
+     *
+     * @param _key key
+     * @param _val value
+     * @return value if the mapping already existed, {@link #getNoEntryValue()} otherwise
+     * @throws IllegalArgumentException if key is null, key is already mapped to a different value or value is already mapped to a different key
+     */
+    public int put(K _key, int _val) {
+        BidiMap.checkParms(_key);
+        int keySlot = keySlot(_key);
+        int valueSlot = valueSlot(_val);
+        if (valueSlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(false, _val, _key, _val);
+        } else if (keySlot >= 0 && valueSlot != keySlot) {
+            throw notUnique(true, _key, _key, _val);
+        } else if (keySlot >= 0) {
+            return _val;
+        }
+
+        int slot = nextSlot();
+        keys[slot] = _key;
+        values[slot] = _val;
+        link(slot);
+        return noEntryValue;
+    }
+
+    /**
+     * Removes the mapping for a key from this map if it is present.
+     *
+     * @param _key key whose mapping is to be removed from the map
+     * @return the previous value associated with key or {@link #getNoEntryValue()}
+     */
+    public int remove(K _key) {
+        BidiMap.checkParms(_key);
+        int slot = keySlot(_key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        int val = values[slot];
+        unlink(slot);
+        return val;
+    }
+
+    /**
+     * Removes the mapping for a value from this map if it is present.
+     *
+     * @param _val value whose mapping is to be removed from the map
+     * @return the previous key associated with value or null
+     */
+    public K removeValue(int _val) {
+        int slot = valueSlot(_val);
+        if (slot < 0) {
+            return null;
+        }
+        K key = key(slot);
+        unlink(slot);
+        return key;
+    }
+
+    /**
+     * Returns a new cursor positioned before the first pair.
+     *
+     * @return {@link Cursor}
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int _slot) {
+        return (K) keys[_slot];
+    }
+
+    private int keySlot(Object _key) {
+        int[] index = keyIndex;
+        int hash = mix(_key);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                Object key = keys[slot];
+                if (key == _key || _key.equals(key)) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int valueSlot(int _val) {
+        int[] index = valueIndex;
+        int hash = mix(_val);
+        int tag = hash & ~mask;
+        int pos = hash & mask;
+        int entry;
+        while ((entry = index[pos]) != 0) {
+            // compare hash bits stored in the index first to avoid reading the slot arrays
+            if ((entry & ~mask) == tag) {
+                int slot = (entry & mask) - 1;
+                if (values[slot] == _val) {
+                    return slot;
+                }
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    int keyHash(int _slot) {
+        return mix(keys[_slot]);
+    }
+
+    @Override
+    int valueHash(int _slot) {
+        return mix(values[_slot]);
+    }
+
+    @Override
+    void moveSlot(int _from, int _to) {
+        keys[_to] = keys[_from];
+        values[_to] = values[_from];
+    }
+
+    @Override
+    void clearSlot(int _slot) {
+        keys[_slot] = null;
+    }
+
+    @Override
+    void resizeSlots(int _capacity) {
+        keys = Arrays.copyOf(keys, _capacity);
+        values = Arrays.copyOf(values, _capacity);
+    }
+
+    @Override
+    void appendSlot(StringBuilder _sb, int _slot) {
+        _sb.append(keys[_slot]).append('=').append(values[_slot]);
+    }
+
+    /**
+     * Cursor iterating over all pairs of the map.
+     * The map must not be modified while using the cursor.
+     */
+    public final class Cursor extends SlotCursor {
+        Cursor() {
+        }
+
+        /**
+         * Key of the current pair.
+         * @return key
+         */
+        public K key() {
+            checkPosition();
+            return ObjectIntBidiMap.this.key(slot);
+        }
+
+        /**
+         * Value of the current pair.
+         * @return value
+         */
+        public int value() {
+            checkPosition();
+            return values[slot];
+        }
+    }
+}
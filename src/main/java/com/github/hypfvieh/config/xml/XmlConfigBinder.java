@@ -0,0 +1,252 @@
+package com.github.hypfvieh.config.xml;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.github.hypfvieh.util.ReflectionUtil;
+
+/**
+ * Binds configuration values to fields annotated with {@link XmlConfigKey}.
+ * <p>
+ * The fields of each class are analyzed only once, the resulting setter handles and converters are cached.
+ * All values are read and converted when binding, all errors (missing keys, invalid values)
+ * are collected and reported by a single {@link ConfigurationException}.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class XmlConfigBinder {
+
+    private static final Map<Class<?>, Function<String, Object>> CONVERTERS = new HashMap<>();
+    private static final Map<Class<?>, ClassBinding>              BINDINGS   = new ConcurrentHashMap<>();
+
+    static {
+        CONVERTERS.put(String.class, s -> s);
+        CONVERTERS.put(int.class, s -> Integer.valueOf(s.trim()));
+        CONVERTERS.put(Integer.class, s -> Integer.valueOf(s.trim()));
+        CONVERTERS.put(long.class, s -> Long.valueOf(s.trim()));
+        CONVERTERS.put(Long.class, s -> Long.valueOf(s.trim()));
+        CONVERTERS.put(short.class, s -> Short.valueOf(s.trim()));
+        CONVERTERS.put(Short.class, s -> Short.valueOf(s.trim()));
+        CONVERTERS.put(byte.class, s -> Byte.valueOf(s.trim()));
+        CONVERTERS.put(Byte.class, s -> Byte.valueOf(s.trim()));
+        CONVERTERS.put(double.class, s -> Double.valueOf(s.trim()));
+        CONVERTERS.put(Double.class, s -> Double.valueOf(s.trim()));
+        CONVERTERS.put(float.class, s -> Float.valueOf(s.trim()));
+        CONVERTERS.put(Float.class, s -> Float.valueOf(s.trim()));
+        CONVERTERS.put(boolean.class, XmlConfigBinder::toBoolean);
+        CONVERTERS.put(Boolean.class, XmlConfigBinder::toBoolean);
+    }
+
+    private XmlConfigBinder() {
+
+    }
+
+    /**
+     * Create a new instance of the given class and fill all annotated fields.
+     *
+     * @param <T> type
+     * @param _config configuration to read values from
+     * @param _class class to create
+     * @return new instance
+     * @throws ConfigurationException if class cannot be used or any value cannot be bound
+     */
+    static <T> T bind(XmlConfiguration _config, Class<T> _class) {
+        ClassBinding binding = BINDINGS.computeIfAbsent(_class, XmlConfigBinder::analyze);
+
+        Object instance;
+        try {
+            instance = binding.constructor.newInstance();
+        } catch (ReflectiveOperationException _ex) {
+            throw new ConfigurationException("Unable to create instance of " + _class.getName(), _ex);
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (FieldBinding field : binding.fields) {
+            field.bind(_config, instance, errors);
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ConfigurationException("Unable to bind configuration to " + _class.getName() + ":"
+                + System.lineSeparator() + "  " + String.join(System.lineSeparator() + "  ", errors));
+        }
+
+        return _class.cast(instance);
+    }
+
+    private static ClassBinding analyze(Class<?> _class) {
+        Constructor<?> constructor;
+        try {
+            constructor = _class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException _ex) {
+            throw new ConfigurationException("Class " + _class.getName() + " requires an accessible no-argument constructor", _ex);
+        }
+
+        List<String> errors = new ArrayList<>();
+        List<FieldBinding> fields = new ArrayList<>();
+        for (Field field : ReflectionUtil.getAllDeclaredFieldsAnnotatedWithAny(_class, XmlConfigKey.class)) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                errors.add(field.getName() + ": static fields are not supported");
+                continue;
+            }
+
+            Function<String, Object> converter;
+            boolean collection = Collection.class.isAssignableFrom(field.getType());
+            if (collection) {
+                converter = getCollectionConverter(field);
+            } else if (field.getType().isEnum()) {
+                converter = getEnumConverter(field.getType());
+            } else {
+                converter = CONVERTERS.get(field.getType());
+            }
+
+            if (converter == null) {
+                errors.add(field.getName() + ": unsupported type " + field.getGenericType().getTypeName());
+                continue;
+            }
+
+            try {
+                field.setAccessible(true);
+                MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+                fields.add(new FieldBinding(field, field.getAnnotation(XmlConfigKey.class), setter, converter, collection));
+            } catch (IllegalAccessException | RuntimeException _ex) {
+                errors.add(field.getName() + ": not accessible (" + _ex.getMessage() + ")");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ConfigurationException("Class " + _class.getName() + " cannot be used for binding:"
+                + System.lineSeparator() + "  " + String.join(System.lineSeparator() + "  ", errors));
+        }
+
+        return new ClassBinding(constructor, fields);
+    }
+
+    /**
+     * Converts true/false, yes/no and 1/0 (case insensitive) to boolean.
+     * Unlike {@link com.github.hypfvieh.util.ConverterUtil#strToBool(String)} any other value is rejected,
+     * so a typo in the configuration is reported instead of being read as false.
+     */
+    private static Object toBoolean(String _str) {
+        switch (_str.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "no":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Invalid boolean value: " + _str);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> getEnumConverter(Class<?> _enumClass) {
+        return s -> Enum.valueOf((Class<? extends Enum>) _enumClass, s.trim());
+    }
+
+    /**
+     * Returns a converter for the elements of a List or Set field.
+     * Only {@link List}, {@link Set} and {@link Collection} fields with element type String are supported.
+     */
+    private static Function<String, Object> getCollectionConverter(Field _field) {
+        Class<?> type = _field.getType();
+        if (type != List.class && type != Set.class && type != Collection.class) {
+            return null;
+        }
+        Type genericType = _field.getGenericType();
+        if (genericType instanceof ParameterizedType && ((ParameterizedType) genericType).getActualTypeArguments()[0] == String.class) {
+            return CONVERTERS.get(String.class);
+        }
+        return null;
+    }
+
+    /**
+     * Constructor and fields of a class.
+     */
+    private static final class ClassBinding {
+        private final Constructor<?>     constructor;
+        private final List<FieldBinding> fields;
+
+        ClassBinding(Constructor<?> _constructor, List<FieldBinding> _fields) {
+            constructor = _constructor;
+            fields = _fields;
+        }
+    }
+
+    /**
+     * Setter and converter of a single field.
+     */
+    private static final class FieldBinding {
+        private final Field                    field;
+        private final XmlConfigKey             key;
+        private final MethodHandle             setter;
+        private final Function<String, Object> converter;
+        private final boolean                  collection;
+
+        FieldBinding(Field _field, XmlConfigKey _key, MethodHandle _setter, Function<String, Object> _converter, boolean _collection) {
+            field = _field;
+            key = _key;
+            setter = _setter;
+            converter = _converter;
+            collection = _collection;
+        }
+
+        void bind(XmlConfiguration _config, Object _instance, List<String> _errors) {
+            Object value;
+            if (collection) {
+                List<String> values = _config.getStringList(key.value());
+                if (values.isEmpty()) {
+                    if (key.required()) {
+                        _errors.add(field.getName() + ": key '" + key.value() + "' not found");
+                    }
+                    return;
+                }
+                value = field.getType() == Set.class
+                    ? Collections.unmodifiableSet(new LinkedHashSet<>(values))
+                    : Collections.unmodifiableList(values);
+            } else {
+                String str = _config.getString(key.value());
+                if (str == null) {
+                    if (key.required()) {
+                        _errors.add(field.getName() + ": key '" + key.value() + "' not found");
+                    }
+                    return;
+                }
+                try {
+                    value = converter.apply(str);
+                } catch (IllegalArgumentException _ex) {
+                    _errors.add(field.getName() + ": value '" + str + "' of key '" + key.value()
+                        + "' cannot be converted to " + field.getType().getSimpleName());
+                    return;
+                }
+            }
+
+            try {
+                setter.invoke(_instance, value);
+            } catch (Throwable _ex) {
+                _errors.add(field.getName() + ": unable to set value (" + _ex.getMessage() + ")");
+            }
+        }
+    }
+}
@@ -4,6 +4,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.xml.sax.ErrorHandler;
 
@@ -30,6 +34,10 @@ public class XmlConfigBuilder {
     private String delimiterKey;
     private boolean skipRoot;
     private boolean allowOverride;
+    private boolean reloadOnChange;
+    private boolean binaryCache;
+    private List<String> streamingKeyPrefixes = new ArrayList<>();
+    private long saveDelayMillis = 500;
 
     public XmlConfigBuilder() {
     }
@@ -183,6 +191,86 @@ public class XmlConfigBuilder {
         return this;
     }
 
+    /**
+     * Set this to true to reload the configuration when the input file was changed.<br>
+     * The input file is watched in background and parsed completely before the new values are used.<br>
+     * Use {@link XmlConfiguration#addChangeListener(XmlConfigChangeListener)} to get notified about changed keys
+     * and {@link XmlConfiguration#stopReloadOnChange()} to stop watching.
+     * <br><br>
+     * Requires an input file which is available on the file system (not class path).
+     * <br><br>
+     * Default is false
+     *
+     * @param _reloadOnChange true to enable reload, false otherwise
+     * @return this for chaining
+     */
+    public XmlConfigBuilder setReloadOnChange(boolean _reloadOnChange) {
+        reloadOnChange = _reloadOnChange;
+        return this;
+    }
+
+    /**
+     * Set this to true to use a binary cache file to speed up loading of the configuration.<br>
+     * The flattened keys and values are written to a binary image next to the input file (input file name + '.bin').
+     * On the next start this image is memory mapped and used instead of parsing the XML file,
+     * as long as size and modification time of the input file did not change.<br>
+     * The XML file is only parsed when required (e.g. when values are changed or saved).
+     * <br><br>
+     * Requires an input file which is available on the file system (not class path), otherwise this option is ignored.
+     * <br><br>
+     * Default is false
+     *
+     * @param _binaryCache true to enable binary cache, false otherwise
+     * @return this for chaining
+     */
+    public XmlConfigBuilder setBinaryCache(boolean _binaryCache) {
+        binaryCache = _binaryCache;
+        return this;
+    }
+
+    /**
+     * Only load the parts of the configuration below the given key prefixes.<br>
+     * The input is read using a streaming (StAX) parser and all elements which are not addressed by
+     * one of the prefixes are skipped without creating any DOM nodes.
+     * This allows reading small parts of very large configuration files using little memory.
+     * <br><br>
+     * Example: using prefix 'database' with key delimiter '/' will load 'database/url' and 'database/pool/size',
+     * but not 'server/port'.
+     * <br><br>
+     * The configuration is not validated when loaded partially and it cannot be saved.
+     * The binary cache (see {@link #setBinaryCache(boolean)}) is not used when loading partially.
+     * <br><br>
+     * Default is to load the complete configuration.
+     *
+     * @param _keyPrefixes key prefixes to load, null or empty to load everything
+     * @return this for chaining
+     */
+    public XmlConfigBuilder setStreamingKeyPrefixes(String... _keyPrefixes) {
+        streamingKeyPrefixes.clear();
+        if (_keyPrefixes != null) {
+            streamingKeyPrefixes.addAll(Arrays.asList(_keyPrefixes));
+        }
+        return this;
+    }
+
+    /**
+     * Set the delay used by {@link XmlConfiguration#saveAsync()}.<br>
+     * All calls to saveAsync() within this delay are combined to a single write.
+     * <br><br>
+     * Default is 500 milliseconds
+     *
+     * @param _delay delay, must not be negative
+     * @param _unit time unit of delay
+     * @return this for chaining
+     */
+    public XmlConfigBuilder setSaveDelay(long _delay, TimeUnit _unit) {
+        if (_delay < 0) {
+            throw new ConfigurationException("Save delay must not be negative");
+        }
+        saveDelayMillis = _unit.toMillis(_delay);
+        return this;
+    }
+
     /**
      * Build the {@link XmlConfiguration} and return it.
      * Will create a new {@link XmlConfiguration} on each call.
@@ -194,6 +282,9 @@ public class XmlConfigBuilder {
         xmlConfiguration.setKeyDelimiter(delimiterKey);
         xmlConfiguration.setXmlErrorHandler(errorHandler);
         xmlConfiguration.setAllowOverride(allowOverride);
+        xmlConfiguration.setBinaryCache(binaryCache);
+        xmlConfiguration.setStreamingKeyPrefixes(streamingKeyPrefixes);
+        xmlConfiguration.setSaveDelay(saveDelayMillis);
 
         xmlConfiguration.setInputStream(inputStream);
         xmlConfiguration.setOutputStream(outputStream);
@@ -203,6 +294,9 @@ public class XmlConfigBuilder {
 
         try {
             xmlConfiguration.readAndValidate();
+            if (reloadOnChange) {
+                xmlConfiguration.startReloadOnChange();
+            }
         } catch (IOException _ex) {
             throw new ConfigurationException(_ex);
         }
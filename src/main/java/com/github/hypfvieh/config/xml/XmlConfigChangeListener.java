@@ -0,0 +1,21 @@
+package com.github.hypfvieh.config.xml;
+
+import java.util.Set;
+
+/**
+ * Listener which will be notified when a {@link XmlConfiguration} was reloaded
+ * and at least one value has changed.
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+@FunctionalInterface
+public interface XmlConfigChangeListener {
+    /**
+     * Called after the new configuration has been activated.
+     *
+     * @param _config configuration which was reloaded
+     * @param _changedKeys keys which were added, removed or have a different value, never empty
+     */
+    void configChanged(XmlConfiguration _config, Set<String> _changedKeys);
+}
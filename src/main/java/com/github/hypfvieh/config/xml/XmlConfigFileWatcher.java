@@ -0,0 +1,94 @@
+package com.github.hypfvieh.config.xml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.hypfvieh.threads.NameableThreadFactory;
+
+/**
+ * Watches a single file for changes using a {@link WatchService}.
+ * <p>
+ * The given callback is called on the watcher thread after the file was created or modified.
+ * Multiple changes within a short time are reported only once.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class XmlConfigFileWatcher implements Closeable {
+    private static final long  SETTLE_TIME_MILLIS = 100;
+
+    private final Logger       logger             = LoggerFactory.getLogger(getClass());
+
+    private final Path         file;
+    private final Runnable     onChange;
+    private final WatchService watchService;
+    private final Thread       thread;
+
+    XmlConfigFileWatcher(Path _file, Runnable _onChange) throws IOException {
+        file = Objects.requireNonNull(_file, "File required").toAbsolutePath();
+        onChange = Objects.requireNonNull(_onChange, "Callback required");
+
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new NameableThreadFactory("XmlConfigWatcher-" + file.getFileName() + "-", true).newThread(this::watch);
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = isFileChanged(key);
+
+                if (changed) {
+                    // wait until writing has settled and drop all events caused by the same write
+                    WatchKey pending;
+                    while ((pending = watchService.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        isFileChanged(pending);
+                    }
+
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException _ex) {
+                        logger.error("Error while handling change of file {}", file, _ex);
+                    }
+                }
+            }
+        } catch (InterruptedException _ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException _ex) {
+            logger.debug("Stopped watching file {}", file);
+        }
+    }
+
+    private boolean isFileChanged(WatchKey _key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : _key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        _key.reset();
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,339 @@
+package com.github.hypfvieh.config.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.github.hypfvieh.util.FileIoUtil;
+
+/**
+ * Compact binary image of the flattened key/value model of a {@link XmlConfiguration}.
+ * <p>
+ * The image is stored next to the XML file and is memory mapped when loaded.
+ * It contains an open addressing hash table of all addressable keys, so values
+ * are read directly from the mapped file without parsing the XML file or creating any DOM objects.
+ * </p>
+ * <p>
+ * The image is only valid if size and modification time of the XML file, the key delimiter
+ * and the skip root setting are identical to the values used when the image was created.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class XmlConfigImage {
+    /** File name suffix of image files. */
+    static final String      FILE_SUFFIX         = ".bin";
+
+    private static final int MAGIC               = 0x58434647; // XCFG
+    private static final int VERSION             = 1;
+
+    private static final byte TYPE_LEAF          = 0;
+    private static final byte TYPE_ELEMENT       = 1;
+    private static final byte TYPE_ATTRIBUTE     = 2;
+
+    private final ByteBuffer buffer;
+    private final String     delimiter;
+    private final int        elementCount;
+    private final int        entryCount;
+    private final int        tableSize;
+    private final int        tableOffset;
+
+    private XmlConfigImage(ByteBuffer _buffer, String _delimiter, int _elementCount, int _entryCount, int _tableSize, int _tableOffset) {
+        buffer = _buffer;
+        delimiter = _delimiter;
+        elementCount = _elementCount;
+        entryCount = _entryCount;
+        tableSize = _tableSize;
+        tableOffset = _tableOffset;
+    }
+
+    /**
+     * Returns the image file used for the given XML file.
+     * @param _xmlFile xml file
+     * @return File
+     */
+    static File getImageFile(File _xmlFile) {
+        return new File(_xmlFile.getPath() + FILE_SUFFIX);
+    }
+
+    /**
+     * Number of elements in the XML document (see {@link XmlConfiguration#keyCount()}).
+     * @return int
+     */
+    int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Find the element addressed by the given key.
+     * Unknown key parts are skipped like {@link XmlKeyIndex#findNode(String)} does.
+     *
+     * @param _key key
+     * @return offset of the entry, -1 if not found
+     */
+    int findElement(String _key) {
+        if (_key == null) {
+            return -1;
+        }
+
+        int entry = findEntry(_key);
+        if (entry >= 0 && buffer.get(entry + 4) != TYPE_ATTRIBUTE) {
+            return entry;
+        }
+
+        String path = null;
+        entry = -1;
+        for (String part : XmlKeyIndex.splitKey(_key, delimiter)) {
+            String candidate = path == null ? part : path + delimiter + part;
+            int item = findEntry(candidate);
+            if (item >= 0 && buffer.get(item + 4) != TYPE_ATTRIBUTE) {
+                path = candidate;
+                entry = item;
+            } else {
+                entry = -1;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Find the attribute addressed by the given key.
+     *
+     * @param _key key
+     * @return offset of the entry, -1 if not found
+     */
+    int findAttribute(String _key) {
+        if (_key == null) {
+            return -1;
+        }
+        int entry = findEntry(_key);
+        return entry >= 0 && buffer.get(entry + 4) == TYPE_ATTRIBUTE ? entry : -1;
+    }
+
+    /**
+     * Checks if the entry has a value stored in this image.
+     * Elements with child elements have no value, the DOM is required to get their text content.
+     *
+     * @param _entry entry offset
+     * @return true if value is available
+     */
+    boolean hasValue(int _entry) {
+        return buffer.get(_entry + 4) != TYPE_ELEMENT;
+    }
+
+    /**
+     * Read the value of the given entry.
+     *
+     * @param _entry entry offset
+     * @return value, null if entry has no value
+     */
+    String readValue(int _entry) {
+        int keyLen = buffer.getInt(_entry + 5);
+        int valuePos = _entry + 9 + keyLen;
+        int valueLen = buffer.getInt(valuePos);
+        if (valueLen < 0) {
+            return null;
+        }
+        return readString(valuePos + 4, valueLen);
+    }
+
+    /**
+     * Creates a map of all keys to their values (see {@link XmlKeyIndex#getValues()}).
+     * @return map
+     */
+    Map<String, String> getValues() {
+        Map<String, String> values = new HashMap<>(entryCount * 2);
+        for (int i = 0; i < tableSize; i++) {
+            int entry = buffer.getInt(tableOffset + i * 4);
+            if (entry > 0 && hasValue(entry)) {
+                values.put(readString(entry + 9, buffer.getInt(entry + 5)), readValue(entry));
+            }
+        }
+        return values;
+    }
+
+    private int findEntry(String _key) {
+        byte[] key = _key.getBytes(StandardCharsets.UTF_8);
+        int hash = _key.hashCode();
+        int mask = tableSize - 1;
+
+        for (int slot = hash & mask, probes = 0; probes < tableSize; slot = (slot + 1) & mask, probes++) {
+            int entry = buffer.getInt(tableOffset + slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            if (buffer.getInt(entry) == hash && keyEquals(entry, key)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int _entry, byte[] _key) {
+        int keyLen = buffer.getInt(_entry + 5);
+        if (keyLen != _key.length) {
+            return false;
+        }
+        int pos = _entry + 9;
+        for (int i = 0; i < keyLen; i++) {
+            if (buffer.get(pos + i) != _key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readString(int _pos, int _len) {
+        byte[] data = new byte[_len];
+        ByteBuffer view = buffer.duplicate();
+        view.position(_pos);
+        view.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens the image of the given XML file.
+     *
+     * @param _xmlFile xml file
+     * @param _delimiter key delimiter
+     * @param _skipRoot skip root setting
+     * @return image or null if no valid image is available
+     */
+    static XmlConfigImage open(File _xmlFile, String _delimiter, boolean _skipRoot) {
+        File imageFile = getImageFile(_xmlFile);
+        if (!imageFile.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(imageFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION
+                || buf.getLong() != _xmlFile.length() || buf.getLong() != _xmlFile.lastModified()
+                || (buf.get() == 1) != _skipRoot) {
+                return null;
+            }
+
+            byte[] delim = new byte[buf.getInt()];
+            buf.get(delim);
+            if (!_delimiter.equals(new String(delim, StandardCharsets.UTF_8))) {
+                return null;
+            }
+
+            int elementCount = buf.getInt();
+            int entryCount = buf.getInt();
+            int tableSize = buf.getInt();
+
+            return new XmlConfigImage(buf, _delimiter, elementCount, entryCount, tableSize, buf.position());
+        } catch (IOException | RuntimeException _ex) {
+            LoggerFactory.getLogger(XmlConfigImage.class).debug("Unable to read configuration image {}", imageFile, _ex);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the image of the given index.
+     * The image is written to a temporary file which is moved to the final location afterwards.
+     *
+     * @param _xmlFile xml file the index was created from
+     * @param _index index
+     * @param _delimiter key delimiter
+     * @param _skipRoot skip root setting
+     * @throws IOException when writing fails
+     */
+    static void write(File _xmlFile, XmlKeyIndex _index, String _delimiter, boolean _skipRoot) throws IOException {
+        Map<String, Node> elements = _index.getElements();
+
+        List<String> keys = new ArrayList<>();
+        List<Byte> types = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        for (Entry<String, Node> e : elements.entrySet()) {
+            Node node = e.getValue();
+            boolean leaf = !XmlKeyIndex.hasChildElements(node);
+            keys.add(e.getKey());
+            types.add(leaf ? TYPE_LEAF : TYPE_ELEMENT);
+            values.add(leaf ? node.getTextContent() : null);
+
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; attributes != null && i < attributes.getLength(); i++) {
+                Node attr = attributes.item(i);
+                String attrKey = e.getKey() + _delimiter + attr.getNodeName();
+                if (!elements.containsKey(attrKey)) {
+                    keys.add(attrKey);
+                    types.add(TYPE_ATTRIBUTE);
+                    values.add(attr.getNodeValue());
+                }
+            }
+        }
+
+        byte[] delim = _delimiter.getBytes(StandardCharsets.UTF_8);
+        int tableSize = Integer.highestOneBit(Math.max(16, keys.size() * 2) - 1) << 1;
+        int tableOffset = 4 + 4 + 8 + 8 + 1 + 4 + delim.length + 4 + 4 + 4;
+
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+        DataOutputStream entryOut = new DataOutputStream(entryBytes);
+        int[] table = new int[tableSize];
+        int entriesOffset = tableOffset + tableSize * 4;
+
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            int entry = entriesOffset + entryOut.size();
+
+            int slot = key.hashCode() & (tableSize - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            table[slot] = entry;
+
+            byte[] keyData = key.getBytes(StandardCharsets.UTF_8);
+            entryOut.writeInt(key.hashCode());
+            entryOut.writeByte(types.get(i));
+            entryOut.writeInt(keyData.length);
+            entryOut.write(keyData);
+            if (values.get(i) == null) {
+                entryOut.writeInt(-1);
+            } else {
+                byte[] valueData = values.get(i).getBytes(StandardCharsets.UTF_8);
+                entryOut.writeInt(valueData.length);
+                entryOut.write(valueData);
+            }
+        }
+        entryOut.flush();
+
+        ByteArrayOutputStream imageBytes = new ByteArrayOutputStream(entriesOffset + entryBytes.size());
+        DataOutputStream out = new DataOutputStream(imageBytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(_xmlFile.length());
+        out.writeLong(_xmlFile.lastModified());
+        out.writeByte(_skipRoot ? 1 : 0);
+        out.writeInt(delim.length);
+        out.write(delim);
+        out.writeInt(_index.getElementCount());
+        out.writeInt(keys.size());
+        out.writeInt(tableSize);
+        for (int offset : table) {
+            out.writeInt(offset);
+        }
+        entryBytes.writeTo(out);
+        out.flush();
+
+        FileIoUtil.writeFileAtomic(getImageFile(_xmlFile).toPath(), imageBytes::writeTo);
+    }
+}
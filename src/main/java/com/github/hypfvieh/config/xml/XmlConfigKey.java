@@ -0,0 +1,32 @@
+package com.github.hypfvieh.config.xml;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field which should be filled with a configuration value when using {@link XmlConfiguration#bind(Class)}.
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface XmlConfigKey {
+
+    /**
+     * Key of the configuration value (using the key delimiter of the configuration).
+     * @return key
+     */
+    String value();
+
+    /**
+     * If true, binding fails if the key is not present in the configuration.
+     * Otherwise the field will keep the value assigned by the constructor/field initializer.
+     * @return true if required
+     */
+    boolean required() default true;
+}
@@ -1,18 +1,26 @@
 package com.github.hypfvieh.config.xml;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
@@ -23,11 +31,12 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 
+import com.github.hypfvieh.threads.NameableThreadFactory;
 import com.github.hypfvieh.util.ConverterUtil;
+import com.github.hypfvieh.util.FileIoUtil;
 import com.github.hypfvieh.util.StringUtil;
 import com.github.hypfvieh.util.TypeUtil;
 import com.github.hypfvieh.util.xml.XmlUtil;
@@ -36,21 +45,60 @@ import com.github.hypfvieh.util.xml.XmlUtil;
  * Slim replacement for commons-configuration2 XMLConfiguration.
  *
  * This class handles configurations saved as XML. It does not do DTD/XSD validation.
+ * <p>
+ * The parsed document and its key index are kept in a snapshot which is replaced as a whole
+ * when the configuration is reloaded (see {@link XmlConfigBuilder#setReloadOnChange(boolean)}).
+ * Every read operation works on a single snapshot, so it will never see a partially reloaded configuration.
+ * </p>
+ * <p>
+ * If a binary cache is used (see {@link XmlConfigBuilder#setBinaryCache(boolean)}), the snapshot may be
+ * backed by the memory mapped image only. The XML document will then be parsed when it is actually
+ * required (e.g. when calling {@link #setString(String, boolean, String)} or {@link #save()}).
+ * </p>
+ * <p>
+ * If streaming key prefixes are used (see {@link XmlConfigBuilder#setStreamingKeyPrefixes(String...)}),
+ * only the selected parts of the XML file are loaded. Such a configuration cannot be saved.
+ * </p>
+ * <p>
+ * All methods are thread safe. Reading values never blocks on other readers: a published snapshot is never modified.
+ * Changes are applied in place to a private working copy of the document, which is created by the first change
+ * after the snapshot was published. The working copy collects all following changes and is published when values
+ * are read or the configuration is saved, so a series of changes only copies the document once.
+ * Changing values, reloading and saving are serialized.
+ * </p>
  * @author hypfvieh
  * @since v1.0.1 - 2018-01-15
  */
 public class XmlConfiguration {
 
-    private Document xmlDocument;
+    private static final ScheduledExecutorService SAVE_EXECUTOR =
+        Executors.newSingleThreadScheduledExecutor(new NameableThreadFactory("XmlConfigurationSave-", true));
+
+    /** Current snapshot, only replaced while holding the monitor of this instance. */
+    private volatile ConfigSnapshot snapshot;
+    /** Copy of the current snapshot containing unpublished changes, only accessed while holding the monitor of this instance. */
+    private ConfigSnapshot workingCopy;
+    /** True if the working copy contains changes which have not been published yet. */
+    private volatile boolean unpublishedChanges;
     private OutputStream outputStream;
     private File outputFile;
 
     private String keyDelimiter = "/";
+    private String rawKeyDelimiter = "/";
     private File inputFile;
     private InputStream inputStream;
     private ErrorHandler errorHandler;
     private boolean skipRootLevel;
     private boolean allowOverride;
+    private boolean binaryCache;
+    private List<String> streamingKeyPrefixes;
+    private long saveDelayMillis = 500;
+    private CompletableFuture<Void> pendingSave;
+
+    /** Serializes reloads, so the snapshot of an older parse is never activated after a newer one. */
+    private final Object reloadLock = new Object();
+    private final List<XmlConfigChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private XmlConfigFileWatcher fileWatcher;
 
     /**
      * Constructor, only called from {@link XmlConfigBuilder}.
@@ -74,11 +122,18 @@ public class XmlConfiguration {
      * If null is given, default ('/') will be used.
      * @param _keyDelimiter delimiter to use
      */
-    public void setKeyDelimiter(String _keyDelimiter) {
-        if (_keyDelimiter == null) {
+    public synchronized void setKeyDelimiter(String _keyDelimiter) {
+        if (_keyDelimiter == null || _keyDelimiter.isEmpty()) {
             keyDelimiter = "/";
+            rawKeyDelimiter = "/";
         } else {
             keyDelimiter = Pattern.quote(_keyDelimiter);
+            rawKeyDelimiter = _keyDelimiter;
+        }
+        publishChanges();
+        ConfigSnapshot current = snapshot;
+        if (current != null) {
+            snapshot = createSnapshot(current.document != null ? current.document : parseInputFileUnchecked());
         }
     }
 
@@ -87,7 +142,8 @@ public class XmlConfiguration {
      * @return nodes in document
      */
     public int keyCount() {
-        return countNodes(getXmlDocument());
+        ConfigSnapshot current = currentSnapshot();
+        return current.index != null ? current.index.getElementCount() : current.image.getElementCount();
     }
 
     /**
@@ -113,20 +169,32 @@ public class XmlConfiguration {
     public String getString(String _key, String _default) {
         String result = getStringFromEnv(_key);
         if (result == null) {
+            ConfigSnapshot current = currentSnapshot();
+            if (current.index == null) {
+                int entry = current.image.findElement(_key);
+                if (entry < 0) {
+                    entry = current.image.findAttribute(_key);
+                }
+                if (entry < 0) {
+                    return _default;
+                }
+                if (current.image.hasValue(entry)) {
+                    result = current.image.readValue(entry);
+                    return result == null ? _default : result;
+                }
+                // text content of elements with children is not part of image
+                current = getDocumentSnapshot();
+            }
 
-            String[] split = _key.split(keyDelimiter);
-            Node node = findNode(split);
+            XmlKeyIndex keyIndex = current.index;
+            Node node = keyIndex.findNode(_key);
             if (node == null) {
-                return _default;
+                node = keyIndex.findAttribute(_key);
             }
-
-            if (node.getNodeName().equals(split[split.length -1])) {
-                result = node.getTextContent();
-            } else {
-                if (XmlUtil.isElementType(node)) {
-                    result = XmlUtil.toElement(node).getAttribute(split[split.length -1]);
-                }
+            if (node == null) {
+                return _default;
             }
+            result = node.getTextContent();
         }
         return result == null ? _default : result;
     }
@@ -203,15 +271,29 @@ public class XmlConfiguration {
      * @param _asAttribute set this as attribute instead of node
      * @param _value value to write
      */
-    public void setString(String _key, boolean _asAttribute, String _value) {
-        String[] split = _key.split(keyDelimiter);
-        Node findNode = findNode(split);
+    public synchronized void setString(String _key, boolean _asAttribute, String _value) {
+        applyValue(getWorkingCopy(), _key, _asAttribute, _value);
+        unpublishedChanges = true;
+    }
+
+    /**
+     * Write the value to the document of the given working copy and update its index.
+     */
+    private void applyValue(ConfigSnapshot _workingCopy, String _key, boolean _asAttribute, String _value) {
+        XmlKeyIndex index = _workingCopy.index;
+        String path = index.findPath(_key);
+        Node findNode = path == null ? null : index.findNode(path);
 
         if (_asAttribute) {
             if (XmlUtil.isElementType(findNode)) {
+                String[] split = XmlKeyIndex.splitKey(_key, rawKeyDelimiter);
                 XmlUtil.toElement(findNode).setAttribute(split[split.length -1], _value);
             }
         } else {
+            if (XmlKeyIndex.hasChildElements(findNode)) {
+                // child elements will be replaced by text
+                index.removeChildElements(path);
+            }
             findNode.setTextContent(_value);
         }
     }
@@ -222,28 +304,28 @@ public class XmlConfiguration {
      * @return list maybe empty, never null
      */
     private List<String> getList(String _key) {
-        Node findNode = findNode(_key.split(keyDelimiter));
+        Node findNode = getDocumentSnapshot().index.findNode(_key);
 
         if (findNode == null) {
             return new ArrayList<>();
         }
 
         String[] keys = null;
-        if (!findNode.hasChildNodes() || findNode.getChildNodes().getLength() <= 1) {
+        if (!findNode.hasChildNodes() || findNode.getFirstChild().getNextSibling() == null) {
             findNode = findNode.getParentNode();
-            keys = _key.split(keyDelimiter);
+            keys = XmlKeyIndex.splitKey(_key, rawKeyDelimiter);
         }
 
+        // sibling walk instead of NodeList: NodeList access uses a per-document cache which is not thread safe
         List<String> values = new ArrayList<>();
-        NodeList childNodes = findNode.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++) {
+        for (Node child = findNode.getFirstChild(); child != null; child = child.getNextSibling()) {
             if (keys != null) {
-                if (childNodes.item(i).getNodeName().equals(keys[keys.length -1])) {
-                    values.add(childNodes.item(i).getTextContent());
+                if (child.getNodeName().equals(keys[keys.length -1])) {
+                    values.add(child.getTextContent());
                 }
             } else {
-                if (XmlUtil.isElementType(childNodes.item(i))) {
-                    values.add(childNodes.item(i).getTextContent());
+                if (XmlUtil.isElementType(child)) {
+                    values.add(child.getTextContent());
                 }
             }
         }
@@ -304,16 +386,43 @@ public class XmlConfiguration {
         }
     }
 
+    /**
+     * Create a new instance of the given class and fill all fields annotated with {@link XmlConfigKey}
+     * with the current configuration values.
+     * <p>
+     * All values are converted when binding, so reading the resulting object does not require any
+     * lookups or conversions. Supported field types are String, all primitives and their wrappers,
+     * enums and List/Set/Collection of String. Boolean values have to be true/false, yes/no or 1/0 (case insensitive).<br>
+     * The class requires a no-argument constructor (may be private). To keep the result immutable,
+     * use private fields without setters. Final fields are supported as long as they are not initialized
+     * with compile time constants (the compiler would inline those).
+     * </p>
+     * <p>
+     * If the class is located in another module, its package has to be opened to this module.
+     * </p>
+     *
+     * @param <T> type
+     * @param _class class to create
+     * @return new instance with bound values
+     * @throws ConfigurationException containing all errors (missing keys, invalid values) if binding fails
+     */
+    public <T> T bind(Class<T> _class) {
+        return XmlConfigBinder.bind(this, Objects.requireNonNull(_class, "Class required"));
+    }
+
     /**
      * Set keys found in map to value found in map.
+     * All values are applied at once, no other thread will see a partially applied map.
      *
      * @param _values values to write
      * @param _asAttributes write values as attributes instead of nodes
      */
-    public void setValues(Map<String, String> _values, boolean _asAttributes) {
+    public synchronized void setValues(Map<String, String> _values, boolean _asAttributes) {
+        ConfigSnapshot workingCopy = getWorkingCopy();
         for (Entry<String, String> entry : _values.entrySet()) {
-            setString(entry.getKey(), _asAttributes, entry.getValue());
+            applyValue(workingCopy, entry.getKey(), _asAttributes, entry.getValue());
         }
+        unpublishedChanges = true;
     }
 
     /**
@@ -322,43 +431,84 @@ public class XmlConfiguration {
      * @throws IOException if file writing fails
      */
     public void save() throws IOException {
-        List<IOException> exception = new ArrayList<>();
-
-        // this is a bit messy, but we want to stay compatible with XmlUtil.printDocument
-        // so we save the (maybe) thrown exception in a list to throw it afterwards
         save((t, u) -> {
             try {
                 XmlUtil.printDocument(t, u);
             } catch (IOException _ex) {
-                exception.add(_ex);
+                throw new UncheckedIOException(_ex);
             }
         });
-
-        if (!exception.isEmpty()) {
-            throw exception.get(0);
-        }
     }
 
     /**
      * Save config using {@link BiConsumer}.
      * This allows transforming/formatting of output before it is saved to the configured output stream.
+     * <p>
+     * When saving to a file, the output is written to a temporary file in the same directory
+     * which replaces the output file afterwards (see {@link FileIoUtil#writeFileAtomic}).
+     * The output file is never left partially written, its permissions are kept and symbolic links are followed.
+     * An {@link UncheckedIOException} thrown by the generator will abort saving and its cause is re-thrown.
+     * </p>
      *
      * @param _outputGenerator lambda to modify output with before writing
      * @throws IOException if writing fails
      */
     public void save(BiConsumer<Document, OutputStream> _outputGenerator) throws IOException {
-        OutputStream output = null;
-        if (outputStream != null) {
-            output = outputStream;
-        } else if (outputFile != null) {
-            output = new FileOutputStream(outputFile, false);
+        if (streamingKeyPrefixes != null) {
+            throw new IOException("Configuration was loaded partially using streaming key prefixes. Cannot save changes");
         }
 
-        if (output == null) {
+        if (outputStream == null && outputFile == null) {
             throw new IOException("No output stream or file given. Cannot save changes");
         }
 
-        _outputGenerator.accept(xmlDocument, output);
+        try {
+            synchronized (this) {
+                Document document = getDocumentSnapshot().document;
+                if (outputStream != null) {
+                    _outputGenerator.accept(document, outputStream);
+                } else {
+                    FileIoUtil.writeFileAtomic(outputFile.toPath(), output -> _outputGenerator.accept(document, output));
+                }
+            }
+        } catch (UncheckedIOException _ex) {
+            throw _ex.getCause();
+        }
+    }
+
+    /**
+     * Save the configuration in background.
+     * <p>
+     * The configuration is saved after the configured delay (see {@link XmlConfigBuilder#setSaveDelay(long, TimeUnit)}).
+     * All calls received until the configuration is actually written are combined to a single write,
+     * so this can be called after each change without causing lots of I/O.
+     * </p>
+     *
+     * @return future which is completed when the configuration has been written (or failed)
+     */
+    public synchronized CompletableFuture<Void> saveAsync() {
+        if (pendingSave != null) {
+            return pendingSave;
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingSave = future;
+
+        SAVE_EXECUTOR.schedule(() -> {
+            synchronized (this) {
+                // later calls to saveAsync() need a new save as they may contain new changes
+                pendingSave = null;
+            }
+            try {
+                save();
+                future.complete(null);
+            } catch (IOException | RuntimeException _ex) {
+                LoggerFactory.getLogger(getClass()).error("Unable to save configuration", _ex);
+                future.completeExceptionally(_ex);
+            }
+        }, saveDelayMillis, TimeUnit.MILLISECONDS);
+
+        return future;
     }
 
     /**
@@ -417,92 +567,309 @@ public class XmlConfiguration {
         allowOverride = _allowOverride;
     }
 
+    /**
+     * Add a listener which is notified when the configuration was reloaded and values have changed.
+     * @param _listener listener to add
+     */
+    public void addChangeListener(XmlConfigChangeListener _listener) {
+        changeListeners.add(Objects.requireNonNull(_listener, "Listener required"));
+    }
+
+    /**
+     * Remove a previously added listener.
+     * @param _listener listener to remove
+     */
+    public void removeChangeListener(XmlConfigChangeListener _listener) {
+        changeListeners.remove(_listener);
+    }
+
+    /**
+     * Re-read the configuration from the input file.
+     * <p>
+     * The file is parsed completely before the new configuration is activated.
+     * If parsing fails, the current configuration stays active.
+     * All changes done with {@link #setString(String, boolean, String)} or {@link #setValues(Map, boolean)}
+     * which have not been saved to the input file are lost.
+     * </p>
+     * <p>
+     * Registered {@link XmlConfigChangeListener}s are notified if any value has changed.
+     * Concurrent reloads (e.g. manual reload and reload on change) are executed one after another,
+     * so the last reload always activates the latest file content and listeners are notified in order.
+     * Reading and changing values is not blocked while the file is parsed.
+     * </p>
+     *
+     * @return keys which have been changed, maybe empty
+     * @throws IOException if input file is not available or parsing fails
+     */
+    public Set<String> reload() throws IOException {
+        synchronized (reloadLock) {
+            return reloadSerialized();
+        }
+    }
+
+    /**
+     * Parses the input file and activates the new snapshot.
+     * Must be called while holding the reload lock.
+     */
+    private Set<String> reloadSerialized() throws IOException {
+        Document document = parseInputFile();
+
+        Set<String> changedKeys;
+        synchronized (this) {
+            publishChanges();
+            ConfigSnapshot oldSnapshot = snapshot;
+            ConfigSnapshot newSnapshot = createSnapshot(document);
+
+            Map<String, String> oldValues = oldSnapshot.index != null ? oldSnapshot.index.getValues() : oldSnapshot.image.getValues();
+            changedKeys = findChangedKeys(oldValues, newSnapshot.index.getValues());
+            snapshot = newSnapshot;
+        }
+
+        if (!changedKeys.isEmpty()) {
+            LoggerFactory.getLogger(getClass()).debug("Configuration {} reloaded, changed keys: {}", inputFile, changedKeys);
+            Set<String> unmodifiableKeys = Collections.unmodifiableSet(changedKeys);
+            for (XmlConfigChangeListener listener : changeListeners) {
+                try {
+                    listener.configChanged(this, unmodifiableKeys);
+                } catch (RuntimeException _ex) {
+                    LoggerFactory.getLogger(getClass()).error("Error in change listener {}", listener, _ex);
+                }
+            }
+        }
+
+        return changedKeys;
+    }
+
+    /**
+     * Stop watching the input file for changes.
+     * Does nothing if reloading on change was not enabled.
+     */
+    public synchronized void stopReloadOnChange() {
+        if (fileWatcher != null) {
+            try {
+                fileWatcher.close();
+            } catch (IOException _ex) {
+                LoggerFactory.getLogger(getClass()).debug("Error while closing file watcher", _ex);
+            }
+            fileWatcher = null;
+        }
+    }
+
+    /**
+     * Start watching the input file and reload the configuration when the file was changed.
+     * @throws IOException if input file is not available or watching fails
+     */
+    synchronized void startReloadOnChange() throws IOException {
+        if (fileWatcher != null) {
+            return;
+        }
+        if (inputFile == null || !inputFile.isFile()) {
+            throw new IOException("Reload on change requires an existing input file, got: " + inputFile);
+        }
+
+        fileWatcher = new XmlConfigFileWatcher(inputFile.toPath(), () -> {
+            try {
+                reload();
+            } catch (IOException _ex) {
+                LoggerFactory.getLogger(getClass()).warn("Unable to reload configuration {}, keeping current configuration", inputFile, _ex);
+            }
+        });
+    }
+
+    /**
+     * Sets the delay used by {@link #saveAsync()}.
+     * @param _saveDelayMillis delay in milliseconds
+     */
+    void setSaveDelay(long _saveDelayMillis) {
+        saveDelayMillis = _saveDelayMillis;
+    }
+
+    /**
+     * Enable/disable usage of binary cache file.
+     * @param _binaryCache
+     */
+    void setBinaryCache(boolean _binaryCache) {
+        binaryCache = _binaryCache;
+    }
+
+    /**
+     * Only load the parts of the config addressed by the given key prefixes.
+     * Null or empty list will load the complete config.
+     * @param _keyPrefixes
+     */
+    void setStreamingKeyPrefixes(List<String> _keyPrefixes) {
+        streamingKeyPrefixes = _keyPrefixes == null || _keyPrefixes.isEmpty() ? null : new ArrayList<>(_keyPrefixes);
+    }
+
     /**
      * Read the config file, do validation if configured.
+     * If binary cache is enabled and a valid image exists, the image is used instead of parsing the config file.
      * @throws IOException
      */
     void readAndValidate() throws IOException {
         Objects.requireNonNull(inputStream, "InputStream cannot be null");
 
-        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
-        dbFac.setNamespaceAware(false);
+        // image always contains the complete config, so it cannot be used when loading partially
+        boolean useCache = binaryCache && streamingKeyPrefixes == null && inputFile != null && inputFile.isFile();
+        if (useCache) {
+            XmlConfigImage image = XmlConfigImage.open(inputFile, rawKeyDelimiter, skipRootLevel);
+            if (image != null) {
+                LoggerFactory.getLogger(getClass()).debug("Using binary image of configuration {}", inputFile);
+                inputStream.close();
+                snapshot = new ConfigSnapshot(null, null, image);
+                return;
+            }
+        }
 
-        if (errorHandler != null) {
-            dbFac.setValidating(true);
+        snapshot = createSnapshot(parse(inputStream));
+
+        if (useCache) {
+            try {
+                XmlConfigImage.write(inputFile, snapshot.index, rawKeyDelimiter, skipRootLevel);
+            } catch (IOException _ex) {
+                LoggerFactory.getLogger(getClass()).warn("Unable to write binary image of configuration {}", inputFile, _ex);
+            }
         }
+    }
 
-        try {
-            DocumentBuilder builder = dbFac.newDocumentBuilder();
-            builder.setErrorHandler(errorHandler);
-            xmlDocument = builder.parse(inputStream);
-        } catch (SAXException | ParserConfigurationException | IOException _ex) {
-            throw new IOException(_ex);
+    /**
+     * Returns the current snapshot, publishes pending changes first.
+     * @return snapshot
+     */
+    private ConfigSnapshot currentSnapshot() {
+        if (unpublishedChanges) {
+            synchronized (this) {
+                publishChanges();
+            }
         }
+        return snapshot;
     }
 
     /**
-     * Returns the xmlDocument as Node or returns the first node level.
-     * @return
+     * Publishes the working copy containing the pending changes as current snapshot.
+     * The working copy must not be changed afterwards, the next change will create a new copy.
+     * Must be called while holding the monitor of this instance.
      */
-    private Node getXmlDocument() {
-        if (skipRootLevel) {
-            return xmlDocument.getDocumentElement();
-        } else {
-            return xmlDocument;
+    private void publishChanges() {
+        if (workingCopy != null) {
+            snapshot = workingCopy;
+            workingCopy = null;
         }
+        unpublishedChanges = false;
     }
 
     /**
-     * Find a node by name.
-     * @param split
-     * @return
+     * Returns the current snapshot, ensures that the XML document has been parsed.
+     * @return snapshot containing document
      */
-    private Node findNode(String[] split) {
+    private ConfigSnapshot getDocumentSnapshot() {
+        ConfigSnapshot current = currentSnapshot();
+        if (current.document != null) {
+            return current;
+        }
+        synchronized (this) {
+            // snapshot may have been replaced (e.g. by reload) while waiting
+            current = snapshot;
+            if (current.document == null) {
+                current = createSnapshot(parseInputFileUnchecked());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
 
-        if (split == null) {
-            return null;
+    /**
+     * Returns the working copy which collects changes until they are published.
+     * If there is no working copy, a deep copy of the current document is created.
+     * The current snapshot is never modified, as it may be used by readers at the same time.
+     * Must be called while holding the monitor of this instance.
+     * @return working copy
+     */
+    private ConfigSnapshot getWorkingCopy() {
+        if (workingCopy == null) {
+            workingCopy = createSnapshot((Document) getDocumentSnapshot().document.cloneNode(true));
         }
+        return workingCopy;
+    }
 
-        Node node = getXmlDocument();
-        boolean found = false;
-        for (String k : split) {
-            found = false;
-            for (int i = 0; i < node.getChildNodes().getLength(); i++) {
-                Node item = node.getChildNodes().item(i);
-                if (item.getNodeName().equals(k)) {
-                    node = item;
-                    found = true;
-                    break;
-                }
-            }
+    /**
+     * Parse the input file.
+     * @return Document
+     * @throws IOException if input file is not available or parsing fails
+     */
+    private Document parseInputFile() throws IOException {
+        if (inputFile == null || !inputFile.isFile()) {
+            throw new IOException("Input file not available: " + inputFile);
         }
 
-        // only return the node if it was found in the loop and is not the same as the initial value
-        return found ? node : null;
+        try (InputStream fis = new FileInputStream(inputFile)) {
+            return parse(fis);
+        }
+    }
+
+    private Document parseInputFileUnchecked() {
+        try {
+            return parseInputFile();
+        } catch (IOException _ex) {
+            throw new ConfigurationException("Unable to read configuration " + inputFile, _ex);
+        }
     }
 
     /**
-     * Recursively count all nodes.
-     *
-     * @param _node
-     * @return
-     */
-    private int countNodes(Node _node) {
-        if (_node == null) {
-            return 0;
-        }
-        Node node = _node;
-        int count = 0;
-        for (int i = 0; i < node.getChildNodes().getLength(); i++) {
-            Node item = node.getChildNodes().item(i);
-            if (XmlUtil.isElementType(item)) {
-                count++;
-                if (item.hasChildNodes()) {
-                    count += countNodes(item);
-                }
+     * Parse the given input, do validation if configured.
+     * If streaming key prefixes are configured, only the selected parts are loaded (without validation).
+     * @param _input input to read
+     * @return Document
+     * @throws IOException
+     */
+    private Document parse(InputStream _input) throws IOException {
+        if (streamingKeyPrefixes != null) {
+            return new XmlStreamingLoader(streamingKeyPrefixes, rawKeyDelimiter, skipRootLevel).load(_input);
+        }
+
+        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
+        dbFac.setNamespaceAware(false);
+        try {
+            // deferred nodes are expanded on first access, which would modify the document while it is read concurrently
+            dbFac.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+        } catch (ParserConfigurationException _ex) {
+            LoggerFactory.getLogger(getClass()).trace("DOM implementation does not support deferred node expansion", _ex);
+        }
+
+        if (errorHandler != null) {
+            dbFac.setValidating(true);
+        }
+
+        try {
+            DocumentBuilder builder = dbFac.newDocumentBuilder();
+            builder.setErrorHandler(errorHandler);
+            return builder.parse(_input);
+        } catch (SAXException | ParserConfigurationException | IOException _ex) {
+            throw new IOException(_ex);
+        }
+    }
+
+    /**
+     * Creates a new snapshot of the given document using the current settings.
+     * @param _document document
+     * @return snapshot
+     */
+    private ConfigSnapshot createSnapshot(Document _document) {
+        Node root = skipRootLevel ? _document.getDocumentElement() : _document;
+        return new ConfigSnapshot(_document, new XmlKeyIndex(root, rawKeyDelimiter), null);
+    }
+
+    private static Set<String> findChangedKeys(Map<String, String> _oldValues, Map<String, String> _newValues) {
+        Set<String> changed = new TreeSet<>();
+        for (Entry<String, String> entry : _oldValues.entrySet()) {
+            if (!Objects.equals(entry.getValue(), _newValues.get(entry.getKey()))) {
+                changed.add(entry.getKey());
             }
         }
-        return count;
+        Set<String> added = new HashSet<>(_newValues.keySet());
+        added.removeAll(_oldValues.keySet());
+        changed.addAll(added);
+        return changed;
     }
 
     private String getStringFromEnv(String _key) {
@@ -518,4 +885,19 @@ public class XmlConfiguration {
         return null;
     }
 
+    /**
+     * Parsed document and its key index or the binary image of the document.
+     */
+    private static final class ConfigSnapshot {
+        private final Document       document;
+        private final XmlKeyIndex    index;
+        private final XmlConfigImage image;
+
+        ConfigSnapshot(Document _document, XmlKeyIndex _index, XmlConfigImage _image) {
+            document = _document;
+            index = _index;
+            image = _image;
+        }
+    }
+
 }
@@ -0,0 +1,242 @@
+package com.github.hypfvieh.config.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.github.hypfvieh.util.xml.XmlUtil;
+
+/**
+ * Index of all addressable element nodes of a XML document.
+ * <p>
+ * The document is flattened once into a map of full key path (using the configured key delimiter) to node.
+ * Like the DOM walk used before, only the first child element of each name is addressable.
+ * Elements whose name contains the key delimiter can never be addressed by a key and are not indexed.
+ * </p>
+ * <p>
+ * The index is not thread safe. It must not be changed once it is used by multiple threads.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class XmlKeyIndex {
+
+    private final String            delimiter;
+    private final Map<String, Node> elements = new HashMap<>();
+    private int                     elementCount;
+
+    XmlKeyIndex(Node _root, String _delimiter) {
+        delimiter = _delimiter;
+        elementCount = _root == null ? 0 : indexChildren(_root, null, true);
+    }
+
+    /**
+     * Returns the number of all elements below the root node.
+     * @return int
+     */
+    int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Returns all addressable elements.
+     * @return unmodifiable map of key to element
+     */
+    Map<String, Node> getElements() {
+        return Collections.unmodifiableMap(elements);
+    }
+
+    /**
+     * Find the element node addressed by the given key.
+     * <p>
+     * Key parts which cannot be found are skipped, the lookup will continue
+     * with the next part on the same level (compatible to previous DOM walk).
+     * </p>
+     *
+     * @param _key key
+     * @return Node or null if not found
+     */
+    Node findNode(String _key) {
+        String path = findPath(_key);
+        return path == null ? null : elements.get(path);
+    }
+
+    /**
+     * Find the indexed path of the element node addressed by the given key.
+     * Unknown key parts are skipped like in {@link #findNode(String)}.
+     *
+     * @param _key key
+     * @return path of the element or null if not found
+     */
+    String findPath(String _key) {
+        if (_key == null) {
+            return null;
+        }
+
+        if (elements.containsKey(_key)) {
+            return _key;
+        }
+
+        String path = null;
+        boolean found = false;
+        for (String part : splitKey(_key, delimiter)) {
+            String candidate = path == null ? part : path + delimiter + part;
+            if (elements.containsKey(candidate)) {
+                path = candidate;
+                found = true;
+            } else {
+                found = false;
+            }
+        }
+
+        return found ? path : null;
+    }
+
+    /**
+     * Removes all child elements of the element with the given path from the index.
+     * Has to be called before the child elements are removed from the document.
+     *
+     * @param _path path of the element as returned by {@link #findPath(String)}
+     */
+    void removeChildElements(String _path) {
+        Node node = elements.get(_path);
+        if (node != null) {
+            elementCount -= removeChildren(node, _path);
+        }
+    }
+
+    /**
+     * Find the attribute addressed by the given key.
+     * The last part of the key is the attribute name, all other parts are the path to the element.
+     *
+     * @param _key key
+     * @return Attr or null if not found
+     */
+    Attr findAttribute(String _key) {
+        if (_key == null) {
+            return null;
+        }
+        int idx = _key.lastIndexOf(delimiter);
+        if (idx <= 0) {
+            return null;
+        }
+
+        Node node = elements.get(_key.substring(0, idx));
+        if (!XmlUtil.isElementType(node)) {
+            return null;
+        }
+        return XmlUtil.toElement(node).getAttributeNode(_key.substring(idx + delimiter.length()));
+    }
+
+    /**
+     * Creates a map of all addressable keys to their values.
+     * Contains the text of all elements without child elements and all attributes of addressable elements.
+     *
+     * @return map of key to value
+     */
+    Map<String, String> getValues() {
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, Node> entry : elements.entrySet()) {
+            Node node = entry.getValue();
+            if (!hasChildElements(node)) {
+                values.put(entry.getKey(), node.getTextContent());
+            }
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; attributes != null && i < attributes.getLength(); i++) {
+                Node attr = attributes.item(i);
+                values.putIfAbsent(entry.getKey() + delimiter + attr.getNodeName(), attr.getNodeValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Checks if the given node has at least one child element.
+     *
+     * @param _node node
+     * @return true if any child is an element
+     */
+    static boolean hasChildElements(Node _node) {
+        // sibling walk instead of NodeList: NodeList access uses a per-document cache which is not thread safe
+        for (Node child = _node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (XmlUtil.isElementType(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int removeChildren(Node _parent, String _parentPath) {
+        int count = 0;
+        for (Node child = _parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!XmlUtil.isElementType(child)) {
+                continue;
+            }
+            count++;
+
+            String path = _parentPath + delimiter + child.getNodeName();
+            // only remove the entry if it belongs to this element (first element of each name)
+            elements.remove(path, child);
+            count += removeChildren(child, path);
+        }
+        return count;
+    }
+
+    private int indexChildren(Node _parent, String _parentPath, boolean _addressable) {
+        int count = 0;
+        NodeList childNodes = _parent.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node item = childNodes.item(i);
+            if (!XmlUtil.isElementType(item)) {
+                continue;
+            }
+            count++;
+
+            String name = item.getNodeName();
+            String path = _parentPath == null ? name : _parentPath + delimiter + name;
+
+            boolean addressable = _addressable && !name.contains(delimiter) && !elements.containsKey(path);
+            if (addressable) {
+                elements.put(path, item);
+            }
+
+            if (item.hasChildNodes()) {
+                count += indexChildren(item, path, addressable);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Split the key by the given delimiter without using regular expressions.
+     * Trailing empty parts are removed (like {@link String#split(String)} does).
+     *
+     * @param _key key to split
+     * @param _delimiter delimiter
+     * @return array of key parts
+     */
+    static String[] splitKey(String _key, String _delimiter) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int idx;
+        while ((idx = _key.indexOf(_delimiter, start)) >= 0) {
+            parts.add(_key.substring(start, idx));
+            start = idx + _delimiter.length();
+        }
+        parts.add(_key.substring(start));
+
+        int size = parts.size();
+        while (size > 1 && parts.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return parts.subList(0, size).toArray(new String[size]);
+    }
+}
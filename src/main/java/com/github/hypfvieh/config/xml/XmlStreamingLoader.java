@@ -0,0 +1,212 @@
+package com.github.hypfvieh.config.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Loads selected parts of a XML configuration using a StAX parser.
+ * <p>
+ * Only the subtrees addressed by one of the given key prefixes are created as DOM nodes
+ * (including all attributes, text, comments and duplicate elements of the same name).
+ * The elements on the path to those subtrees are created without attributes and text.
+ * Everything else is skipped while reading, so the memory used is proportional to the selected parts only.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class XmlStreamingLoader {
+
+    private final List<String> keyPrefixes;
+    private final String       delimiter;
+    private final boolean      skipRoot;
+
+    XmlStreamingLoader(List<String> _keyPrefixes, String _delimiter, boolean _skipRoot) {
+        delimiter = _delimiter;
+        skipRoot = _skipRoot;
+        keyPrefixes = new ArrayList<>();
+        for (String prefix : _keyPrefixes) {
+            // remove trailing delimiters, so prefix 'foo/' and 'foo' are the same
+            String[] parts = XmlKeyIndex.splitKey(prefix, _delimiter);
+            keyPrefixes.add(String.join(_delimiter, parts));
+        }
+    }
+
+    /**
+     * Read the given input and create a document containing the selected parts.
+     *
+     * @param _input input stream
+     * @return Document
+     * @throws IOException when reading or parsing fails
+     */
+    Document load(InputStream _input) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        XMLStreamReader reader = null;
+        try {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            reader = factory.createXMLStreamReader(_input);
+
+            Deque<OpenElement> stack = new ArrayDeque<>();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                OpenElement parent = stack.peek();
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        OpenElement child = startElement(document, reader, parent);
+                        if (child == null) {
+                            skipElement(reader);
+                        } else {
+                            stack.push(child);
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        stack.pop();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                    case XMLStreamConstants.CDATA:
+                        if (parent != null && parent.selected) {
+                            parent.element.appendChild(document.createTextNode(reader.getText()));
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        if (parent != null && parent.selected) {
+                            parent.element.appendChild(document.createComment(reader.getText()));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            return document;
+        } catch (XMLStreamException | ParserConfigurationException _ex) {
+            throw new IOException(_ex);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException _ex) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the element the reader is currently positioned on, if it is selected or on the path to a selected element.
+     *
+     * @return new element or null if the element should be skipped
+     */
+    private OpenElement startElement(Document _document, XMLStreamReader _reader, OpenElement _parent) {
+        String name = _reader.getLocalName();
+
+        String path;
+        if (_parent == null) {
+            // root element
+            path = skipRoot ? null : name;
+        } else if (_parent.path == null) {
+            path = name;
+        } else {
+            path = _parent.path + delimiter + name;
+        }
+
+        boolean selected = _parent != null && _parent.selected || isSelected(path);
+        if (!selected && !isOnPath(path)) {
+            return null;
+        }
+        // only the first element of a name is addressable, so duplicates on the path are not required
+        if (!selected && _parent != null && !_parent.childNames.add(name)) {
+            return null;
+        }
+
+        Element element = _document.createElement(name);
+        if (selected) {
+            for (int i = 0; i < _reader.getAttributeCount(); i++) {
+                element.setAttribute(_reader.getAttributeLocalName(i), _reader.getAttributeValue(i));
+            }
+        }
+
+        Node parentNode = _parent == null ? _document : _parent.element;
+        parentNode.appendChild(element);
+
+        return new OpenElement(element, path, selected);
+    }
+
+    private boolean isSelected(String _path) {
+        if (_path == null) {
+            return false;
+        }
+        for (String prefix : keyPrefixes) {
+            if (_path.equals(prefix) || _path.startsWith(prefix + delimiter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isOnPath(String _path) {
+        if (_path == null) {
+            return true;
+        }
+        for (String prefix : keyPrefixes) {
+            if (prefix.startsWith(_path + delimiter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skip the current element including all children.
+     */
+    private static void skipElement(XMLStreamReader _reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && _reader.hasNext()) {
+            int event = _reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Element which is currently read.
+     */
+    private static final class OpenElement {
+        private final Element     element;
+        private final String      path;
+        private final boolean     selected;
+        private final Set<String> childNames = new HashSet<>();
+
+        OpenElement(Element _element, String _path, boolean _selected) {
+            element = _element;
+            path = _path;
+            selected = _selected;
+        }
+    }
+}
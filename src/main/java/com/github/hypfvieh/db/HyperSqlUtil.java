@@ -2,6 +2,7 @@ package com.github.hypfvieh.db;
 
 import static java.lang.StackWalker.Option.RETAIN_CLASS_REFERENCE;
 
+import com.github.hypfvieh.threads.NameableThreadFactory;
 import com.github.hypfvieh.util.StringUtil;
 import com.github.hypfvieh.util.SystemUtil;
 import org.slf4j.Logger;
@@ -11,19 +12,46 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HyperSQL utility is intended to support database-backed tests by copying HyperSQL test databases
  * from the classpath to another location (such as the system's temp directory) and performing
  * clean-up work afterward.
+ * <p>
+ * Database files are extracted from the classpath only once per JVM into a shared template directory.
+ * Every instance is then created from these templates, which is much cheaper than streaming the
+ * classpath resources again.
+ * </p>
  */
 public final class HyperSqlUtil {
 	private static final List<String> HYPERSQL_EXTENSIONS =
 		Arrays.asList(".script", ".properties", ".data", ".log", ".tmp", ".lck", ".lobs");
 
+	/**
+	 * Extensions of files which are never modified in place by HyperSQL (it writes a new file and renames it),
+	 * so these can be hard linked to the template instead of being copied.
+	 */
+	private static final Set<String>  LINKABLE_EXTENSIONS = Set.of(".script");
+
+	/** Template files extracted from classpath, key is the classpath resource name. */
+	private static final Map<String, Optional<File>> TEMPLATES = new ConcurrentHashMap<>();
+	private static final AtomicInteger TEMPLATE_COUNTER    = new AtomicInteger();
+	private static File               templateDir;
+
+	private static final ExecutorService CLEANUP_EXECUTOR =
+		Executors.newSingleThreadExecutor(new NameableThreadFactory("HyperSqlUtil-cleanup-", true));
+
 	private final Logger              logger              = LoggerFactory.getLogger(getClass());
 
 	private final Set<String>         copiedHsqlBasenames = new TreeSet<>();
@@ -122,32 +150,31 @@ public final class HyperSqlUtil {
 		for (String ext : dbExtensions) {
 			String srcFileName = dbBaseName + ext;
 			String pkgSrcFileName = (searchPath == null ? "" : searchPath + "/") + srcFileName;
-			try (InputStream is = HyperSqlUtil.class.getClassLoader().getResourceAsStream(pkgSrcFileName)) {
-				if (is == null) {
-					// the .script file is always required, throw if not available
-					if (".script".equalsIgnoreCase(ext)) {
-						throw new RuntimeException("Required database file '" + pkgSrcFileName + "' does not exist");
-					}
-
-					logger.warn("Skipping non-existing file '{}'", pkgSrcFileName);
-					continue;
-				}
-				copiedHsqlBasenames.add(dbBaseName);
-				Objects.requireNonNull(is, "Could not get input " + srcFileName);
-				destFile = new File(targetDir, extractFileName(srcFileName));
-				if (deleteOnExit) {
-					destFile.deleteOnExit();
+			File templateFile = getTemplateFile(pkgSrcFileName).orElse(null);
+			if (templateFile == null) {
+				// the .script file is always required, throw if not available
+				if (".script".equalsIgnoreCase(ext)) {
+					throw new RuntimeException("Required database file '" + pkgSrcFileName + "' does not exist");
 				}
-				if (destFile.exists() && !overwrite) {
-					logger.info("Not copying file '{}' to existing file '{}'", srcFileName, destFile);
-				} else {
-					logger.debug("Copying file '{}' to '{}'", srcFileName, destFile);
-					Files.copy(is, destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+				logger.warn("Skipping non-existing file '{}'", pkgSrcFileName);
+				continue;
+			}
+			copiedHsqlBasenames.add(dbBaseName);
+			destFile = new File(targetDir, extractFileName(srcFileName));
+			if (deleteOnExit) {
+				destFile.deleteOnExit();
+			}
+			if (destFile.exists() && !overwrite) {
+				logger.info("Not copying file '{}' to existing file '{}'", srcFileName, destFile);
+			} else {
+				logger.debug("Copying file '{}' to '{}'", srcFileName, destFile);
+				try {
+					copyFromTemplate(templateFile.toPath(), destFile.toPath(), LINKABLE_EXTENSIONS.contains(ext.toLowerCase()));
+				} catch (IOException ex) {
+					throw new UncheckedIOException("Failed to copy " + srcFileName + " to " + destFile, ex);
 				}
-			} catch (IOException ex) {
-				throw new UncheckedIOException("Failed to copy " + srcFileName + " to " + destFile, ex);
 			}
-
 		}
 		return this;
 	}
@@ -166,6 +193,87 @@ public final class HyperSqlUtil {
 		return copyHsqlDbFiles(null, true);
 	}
 
+	/**
+	 * Creates the given destination file from a template file.
+	 * Will use a hard link if allowed and supported by the file system, otherwise the file is copied.
+	 *
+	 * @param _template template file
+	 * @param _dest destination file
+	 * @param _linkable true if template may be hard linked
+	 * @throws IOException when copying fails
+	 */
+	private void copyFromTemplate(Path _template, Path _dest, boolean _linkable) throws IOException {
+		Files.deleteIfExists(_dest);
+		if (_linkable) {
+			try {
+				Files.createLink(_dest, _template);
+				return;
+			} catch (IOException | UnsupportedOperationException _ex) {
+				logger.trace("Unable to create link '{}' to '{}', falling back to copy", _dest, _template, _ex);
+			}
+		}
+
+		try (FileChannel src = FileChannel.open(_template, StandardOpenOption.READ);
+			FileChannel dest = FileChannel.open(_dest, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+			long size = src.size();
+			long pos = 0;
+			while (pos < size) {
+				pos += src.transferTo(pos, size - pos, dest);
+			}
+		}
+	}
+
+	/**
+	 * Returns the template file for the given classpath resource.
+	 * The resource is extracted to the template directory on first access,
+	 * subsequent calls will return the previously extracted file.
+	 *
+	 * @param _resourceName classpath resource
+	 * @return Optional of File, empty if resource does not exist
+	 */
+	private static Optional<File> getTemplateFile(String _resourceName) {
+		return TEMPLATES.computeIfAbsent(_resourceName, HyperSqlUtil::extractTemplate);
+	}
+
+	private static Optional<File> extractTemplate(String _resourceName) {
+		try (InputStream is = HyperSqlUtil.class.getClassLoader().getResourceAsStream(_resourceName)) {
+			if (is == null) {
+				return Optional.empty();
+			}
+
+			File dir = new File(getTemplateDir(), String.valueOf(TEMPLATE_COUNTER.incrementAndGet()));
+			if (!dir.mkdirs()) {
+				throw new RuntimeException("Unable to create template directory " + dir);
+			}
+			dir.deleteOnExit();
+
+			File templateFile = new File(dir, new File(_resourceName).getName());
+			templateFile.deleteOnExit();
+			Files.copy(is, templateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return Optional.of(templateFile);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to extract template " + _resourceName, ex);
+		}
+	}
+
+	private static synchronized File getTemplateDir() throws IOException {
+		if (templateDir == null) {
+			templateDir = Files.createTempDirectory(HyperSqlUtil.class.getSimpleName() + "-templates-").toFile();
+			templateDir.deleteOnExit();
+		}
+		return templateDir;
+	}
+
+	/**
+	 * Cleans and removes the target directory in background.
+	 *
+	 * @return {@link CompletableFuture} which completes when cleanup is done
+	 * @see #cleanupTargetDir()
+	 */
+	public CompletableFuture<Void> cleanupTargetDirAsync() {
+		return CompletableFuture.runAsync(this::cleanupTargetDir, CLEANUP_EXECUTOR);
+	}
+
 	/**
 	 * Cleans and removes the target directory.
 	 */
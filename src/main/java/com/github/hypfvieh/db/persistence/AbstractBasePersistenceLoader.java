@@ -1,5 +1,6 @@
 package com.github.hypfvieh.db.persistence;
 
+import com.github.hypfvieh.db.persistence.EntityManagerFactoryRegistry.FactoryKey;
 import com.github.hypfvieh.util.StringUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
@@ -8,6 +9,9 @@ import jakarta.persistence.Persistence;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base class to create persistence.xml files on the fly.
@@ -23,7 +27,8 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
     private String                                    dbPass;
     private String                                    jdbcDriver;
     private String                                    persistenceUnitName;
-    private Map<String, String>                       additionalDbProps;
+    private Map<String, String>                       additionalDbProps = new LinkedHashMap<>();
+    private boolean                                   sharedEntityManagerFactory;
 
     private final Class<T> self;
 
@@ -132,6 +137,23 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
         return self();
     }
 
+    /**
+     * Share the {@link EntityManagerFactory} with all other contexts using the identical configuration.
+     * <p>
+     * When enabled, the {@link EntityManagerFactory} is taken from a process wide registry.
+     * It is only created once for each configuration (driver, URL, persistence unit, properties and persistence.xml)
+     * and closed when the last context using it is closed.
+     * </p>
+     *
+     * @param _shared true to share factory
+     *
+     * @return this
+     */
+    public T withSharedEntityManagerFactory(boolean _shared) {
+        sharedEntityManagerFactory = _shared;
+        return self();
+    }
+
     /**
      * Creates a new configured instance which manages the created EntityManagers.
      * If {@link #build()} was already called, the same instance will be returned.
@@ -181,6 +203,10 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
         return dbUrl;
     }
 
+    protected boolean isSharedEntityManagerFactory() {
+        return sharedEntityManagerFactory;
+    }
+
     public enum PersistenceXmlRootProp {
         XMLNS("xmlns", "https://jakarta.ee/xml/ns/persistence"),
         XMLNS_XSI("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance"),
@@ -212,9 +238,11 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
      * and the {@link EntityManagerFactory} when {@link #close()} is called.
      */
     public static final class PersistenceLoaderContext implements Closeable {
-        private final Set<EntityManager> entityManagers = new HashSet<>();
-        private final AbstractBasePersistenceLoader<?>  loader;
-        private EntityManagerFactory     entityManagerFactory;
+        private final Set<EntityManager>               entityManagers     = ConcurrentHashMap.newKeySet();
+        private final List<EntityManagerPool>          entityManagerPools = new ArrayList<>();
+        private final AbstractBasePersistenceLoader<?> loader;
+        private EntityManagerFactory                   entityManagerFactory;
+        private FactoryKey                             sharedFactoryKey;
 
         PersistenceLoaderContext(AbstractBasePersistenceLoader<?> _loader) {
             StringUtil.requireNonBlank(_loader.getPersistenceUnitName(), "PersistenceUnitName required");
@@ -241,12 +269,8 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
          *
          * @throws IOException when creating {@link EntityManagerFactory} fails
          */
-        public EntityManager createEntityManager() throws IOException {
-            if (entityManagerFactory == null) {
-                entityManagerFactory = createEntityManagerFactory();
-            }
-
-            EntityManager entityManager = entityManagerFactory.createEntityManager();
+        public synchronized EntityManager createEntityManager() throws IOException {
+            EntityManager entityManager = getOrCreateEntityManagerFactory().createEntityManager();
             entityManagers.add(entityManager);
 
             return entityManager;
@@ -267,41 +291,71 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
          *
          * @throws IOException when creation of {@link EntityManagerFactory} fails
          */
-        public EntityManager getOrCreateEntityManager() throws IOException {
-            if (entityManagers.isEmpty()) {
-                return createEntityManager();
-            } else {
-                entityManagers.removeIf(em -> !em.isOpen());
-
-                return entityManagers.stream()
-                    .filter(EntityManager::isOpen)
-                    .findFirst()
-                    .orElse(createEntityManager());
+        public synchronized EntityManager getOrCreateEntityManager() throws IOException {
+            entityManagers.removeIf(em -> !em.isOpen());
+
+            for (EntityManager em : entityManagers) {
+                if (em.isOpen()) {
+                    return em;
+                }
             }
+            return createEntityManager();
+        }
+
+        /**
+         * Creates a new bounded pool of {@link EntityManager}s.
+         * <p>
+         * {@link EntityManager}s are not thread safe. When multiple threads need to access the database,
+         * every thread should checkout its own {@link EntityManager} from the pool instead of
+         * sharing the one returned by {@link #getOrCreateEntityManager()}.
+         * </p>
+         * <p>
+         * The pool and all {@link EntityManager}s created by the pool will be closed when {@link #close()} is called.
+         * </p>
+         *
+         * @param _maxSize maximum number of {@link EntityManager}s handed out at the same time
+         *
+         * @return {@link EntityManagerPool}
+         */
+        public synchronized EntityManagerPool createEntityManagerPool(int _maxSize) {
+            EntityManagerPool pool = new EntityManagerPool(() -> getOrCreateEntityManagerFactory().createEntityManager(), _maxSize);
+            entityManagerPools.add(pool);
+            return pool;
+        }
+
+        /**
+         * Creates a new {@link BulkPersister} to persist a large number of entities.
+         * <p>
+         * The {@link EntityManager}s used by the {@link BulkPersister} are created using the {@link EntityManagerFactory}
+         * of this context and closed when persisting is done.
+         * </p>
+         *
+         * @return {@link BulkPersister}
+         */
+        public BulkPersister createBulkPersister() {
+            return new BulkPersister(() -> getOrCreateEntityManagerFactory().createEntityManager());
         }
 
         /**
          * Creates a new {@link EntityManagerFactory} using the configured settings.
          * <p>
          * <b>Please note:</b><br>
-         * The created {@link EntityManagerFactory} must be closed by the caller!
+         * The created {@link EntityManagerFactory} must be closed by the caller!<br>
+         * This does not apply if a shared factory is used (see {@link AbstractBasePersistenceLoader#withSharedEntityManagerFactory(boolean)}).
+         * The shared factory is owned by this context and released when {@link #close()} is called.
          * </p>
          *
          * @return {@link EntityManagerFactory}
          *
          * @throws IOException when creating temporary persistence.xml failed
          */
-        public EntityManagerFactory createEntityManagerFactory() throws IOException {
+        public synchronized EntityManagerFactory createEntityManagerFactory() throws IOException {
             if (entityManagerFactory != null) {
                 return entityManagerFactory;
             }
 
             byte[] inMemoryData = loader.createPersistenceXml();
 
-            JpaEnhancedClassLoader myClassLoader = new JpaEnhancedClassLoader(getClass().getClassLoader(),
-                inMemoryData);
-            Thread.currentThread().setContextClassLoader(myClassLoader);
-
             String url = String.format(loader.getDriverType().getUrlTemplate(), loader.getDbUrl());
 
             Map<String, String> properties = new HashMap<>();
@@ -314,19 +368,72 @@ public abstract class AbstractBasePersistenceLoader<T extends AbstractBasePersis
             properties.put("jakarta.persistence.jdbc.user", StringUtil.trimToEmpty(loader.getDbUser()));
             properties.put("jakarta.persistence.jdbc.password", StringUtil.trimToEmpty(loader.getDbPass()));
 
-            return Persistence.createEntityManagerFactory(loader.getPersistenceUnitName(), properties);
+            if (!loader.isSharedEntityManagerFactory()) {
+                return createEntityManagerFactory(inMemoryData, properties);
+            }
+
+            FactoryKey key = new FactoryKey(loader.getJdbcDriver(), url, loader.getPersistenceUnitName(), properties, inMemoryData);
+            entityManagerFactory = EntityManagerFactoryRegistry.acquire(key, () -> createEntityManagerFactory(inMemoryData, properties));
+            sharedFactoryKey = key;
+
+            return entityManagerFactory;
+        }
+
+        /**
+         * Creates the {@link EntityManagerFactory} in background.
+         * <p>
+         * This can be used to eagerly create the (shared) {@link EntityManagerFactory} on startup,
+         * so the first call to {@link #createEntityManager()} will not block until the factory was created.
+         * </p>
+         *
+         * @return {@link CompletableFuture} which completes with the created {@link EntityManagerFactory}
+         */
+        public CompletableFuture<EntityManagerFactory> warmUp() {
+            return CompletableFuture.supplyAsync(() -> {
+                // creating the factory replaces the context class loader, do not leak it to the pooled thread
+                ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+                try {
+                    return getOrCreateEntityManagerFactory();
+                } catch (IOException _ex) {
+                    throw new CompletionException(_ex);
+                } finally {
+                    Thread.currentThread().setContextClassLoader(contextClassLoader);
+                }
+            }, EntityManagerFactoryRegistry.WARMUP_EXECUTOR);
+        }
+
+        private synchronized EntityManagerFactory getOrCreateEntityManagerFactory() throws IOException {
+            if (entityManagerFactory == null) {
+                entityManagerFactory = createEntityManagerFactory();
+            }
+            return entityManagerFactory;
+        }
+
+        private EntityManagerFactory createEntityManagerFactory(byte[] _persistenceXml, Map<String, String> _properties) {
+            JpaEnhancedClassLoader myClassLoader = new JpaEnhancedClassLoader(getClass().getClassLoader(),
+                _persistenceXml);
+            Thread.currentThread().setContextClassLoader(myClassLoader);
+
+            return Persistence.createEntityManagerFactory(loader.getPersistenceUnitName(), _properties);
         }
 
         /**
          * Closes all {@link EntityManager}s and the {@link EntityManagerFactory} if any was created.
          */
         @Override
-        public void close() {
+        public synchronized void close() {
+            entityManagerPools.forEach(EntityManagerPool::close);
+            entityManagerPools.clear();
+
             if (!entityManagers.isEmpty()) {
                 entityManagers.forEach(EntityManager::close);
                 entityManagers.clear();
             }
-            if (entityManagerFactory != null) {
+            if (sharedFactoryKey != null) {
+                EntityManagerFactoryRegistry.release(sharedFactoryKey);
+                sharedFactoryKey = null;
+                entityManagerFactory = null;
+            } else if (entityManagerFactory != null) {
                 entityManagerFactory.close();
                 entityManagerFactory = null;
             }
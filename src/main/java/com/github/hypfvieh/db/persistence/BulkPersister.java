@@ -0,0 +1,290 @@
+package com.github.hypfvieh.db.persistence;
+
+import com.github.hypfvieh.function.IThrowingSupplier;
+import com.github.hypfvieh.threads.NameableThreadFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Helper to persist a large number of entities.
+ * <p>
+ * Entities are persisted in transactions of a configurable size. The {@link EntityManager} is flushed and
+ * cleared every {@link #withFlushSize(int) flushSize} entities, so the persistence context will not grow
+ * while persisting.
+ * </p>
+ * <p>
+ * When using more than one thread, each thread will use its own {@link EntityManager} and transactions.
+ * If persisting fails, all transactions committed before the failure will stay committed.
+ * </p>
+ * <p>
+ * Sample usage:<br>
+ * <pre>
+ * BulkPersistStatistics stats = context.createBulkPersister()
+ *     .withTransactionSize(10000)
+ *     .withFlushSize(500)
+ *     .withThreads(4)
+ *     .persist(entityStream);
+ * </pre>
+ */
+public final class BulkPersister {
+    private final Logger                                        logger          = LoggerFactory.getLogger(getClass());
+
+    private final IThrowingSupplier<EntityManager, IOException> entityManagerSupplier;
+
+    private int                                                 transactionSize = 1000;
+    private int                                                 flushSize       = 100;
+    private int                                                 threads         = 1;
+
+    BulkPersister(IThrowingSupplier<EntityManager, IOException> _entityManagerSupplier) {
+        entityManagerSupplier = Objects.requireNonNull(_entityManagerSupplier, "EntityManager supplier required");
+    }
+
+    /**
+     * Number of entities persisted in one transaction (default: 1000).
+     *
+     * @param _transactionSize transaction size
+     * @return this
+     */
+    public BulkPersister withTransactionSize(int _transactionSize) {
+        if (_transactionSize <= 0) {
+            throw new IllegalArgumentException("Transaction size must be greater than 0");
+        }
+        transactionSize = _transactionSize;
+        return this;
+    }
+
+    /**
+     * Number of entities after which the {@link EntityManager} is flushed and cleared (default: 100).
+     * <p>
+     * Entities are counted per transaction: the count restarts with every transaction, because committing
+     * flushes the remaining entities anyway. A transaction size which is not a multiple of the flush size
+     * therefore results in a smaller last chunk in every transaction.
+     * </p>
+     *
+     * @param _flushSize flush size
+     * @return this
+     */
+    public BulkPersister withFlushSize(int _flushSize) {
+        if (_flushSize <= 0) {
+            throw new IllegalArgumentException("Flush size must be greater than 0");
+        }
+        flushSize = _flushSize;
+        return this;
+    }
+
+    /**
+     * Number of threads used to persist entities (default: 1).
+     *
+     * @param _threads number of threads
+     * @return this
+     */
+    public BulkPersister withThreads(int _threads) {
+        if (_threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be greater than 0");
+        }
+        threads = _threads;
+        return this;
+    }
+
+    /**
+     * Persists all entities of the given stream.
+     * The stream will be closed afterwards.
+     *
+     * @param _entities entities to persist
+     * @return {@link BulkPersistStatistics}
+     *
+     * @throws IOException when creating {@link EntityManager} fails
+     * @throws PersistenceException when persisting fails
+     */
+    public BulkPersistStatistics persist(Stream<?> _entities) throws IOException {
+        try (Stream<?> entities = Objects.requireNonNull(_entities, "Stream required")) {
+            return persist(entities.iterator());
+        }
+    }
+
+    /**
+     * Persists all entities provided by the given iterator.
+     *
+     * @param _entities entities to persist
+     * @return {@link BulkPersistStatistics}
+     *
+     * @throws IOException when creating {@link EntityManager} fails
+     * @throws PersistenceException when persisting fails
+     */
+    public BulkPersistStatistics persist(Iterator<?> _entities) throws IOException {
+        Objects.requireNonNull(_entities, "Iterator required");
+
+        long start = System.nanoTime();
+        AtomicLong entityCount = new AtomicLong();
+        AtomicLong transactionCount = new AtomicLong();
+
+        if (threads == 1) {
+            EntityManager em = entityManagerSupplier.get();
+            try {
+                List<Object> batch;
+                while (!(batch = nextBatch(_entities)).isEmpty()) {
+                    persistBatch(em, batch);
+                    entityCount.addAndGet(batch.size());
+                    transactionCount.incrementAndGet();
+                }
+            } finally {
+                em.close();
+            }
+        } else {
+            persistParallel(_entities, entityCount, transactionCount);
+        }
+
+        BulkPersistStatistics stats = new BulkPersistStatistics(entityCount.get(), transactionCount.get(), System.nanoTime() - start);
+        logger.debug("Bulk persist finished: {}", stats);
+        return stats;
+    }
+
+    private void persistParallel(Iterator<?> _entities, AtomicLong _entityCount, AtomicLong _transactionCount) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NameableThreadFactory("BulkPersister-", true));
+        // limit the number of batches waiting for execution to keep memory usage low
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try (EntityManagerPool pool = new EntityManagerPool(entityManagerSupplier, threads)) {
+            try {
+                List<Object> batch;
+                while (failure.get() == null && !(batch = nextBatch(_entities)).isEmpty()) {
+                    inFlight.acquire();
+                    List<Object> currentBatch = batch;
+                    executor.execute(() -> {
+                        try {
+                            EntityManager em = pool.checkout();
+                            try {
+                                persistBatch(em, currentBatch);
+                                _entityCount.addAndGet(currentBatch.size());
+                                _transactionCount.incrementAndGet();
+                            } finally {
+                                pool.checkin(em);
+                            }
+                        } catch (Exception _ex) {
+                            failure.compareAndSet(null, _ex);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                executor.shutdown();
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    logger.trace("Waiting for bulk persist threads to finish");
+                }
+            } catch (InterruptedException _ex) {
+                Thread.currentThread().interrupt();
+                throw new PersistenceException("Interrupted while persisting entities", _ex);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        Exception ex = failure.get();
+        if (ex instanceof IOException) {
+            throw (IOException) ex;
+        } else if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        } else if (ex != null) {
+            throw new PersistenceException("Persisting entities failed", ex);
+        }
+    }
+
+    private List<Object> nextBatch(Iterator<?> _entities) {
+        List<Object> batch = new ArrayList<>(Math.min(transactionSize, 1024));
+        while (batch.size() < transactionSize && _entities.hasNext()) {
+            batch.add(_entities.next());
+        }
+        return batch;
+    }
+
+    private void persistBatch(EntityManager _em, List<Object> _batch) {
+        EntityTransaction tx = _em.getTransaction();
+        tx.begin();
+        try {
+            int count = 0;
+            for (Object entity : _batch) {
+                _em.persist(entity);
+                if (++count % flushSize == 0) {
+                    _em.flush();
+                    _em.clear();
+                }
+            }
+            tx.commit();
+        } catch (RuntimeException _ex) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw _ex;
+        } finally {
+            _em.clear();
+        }
+    }
+
+    /**
+     * Statistics of a bulk persist operation.
+     */
+    public static final class BulkPersistStatistics {
+        private final long entities;
+        private final long transactions;
+        private final long elapsedNanos;
+
+        BulkPersistStatistics(long _entities, long _transactions, long _elapsedNanos) {
+            entities = _entities;
+            transactions = _transactions;
+            elapsedNanos = _elapsedNanos;
+        }
+
+        /**
+         * Number of persisted entities.
+         * @return long
+         */
+        public long getEntities() {
+            return entities;
+        }
+
+        /**
+         * Number of committed transactions.
+         * @return long
+         */
+        public long getTransactions() {
+            return transactions;
+        }
+
+        /**
+         * Total time in nanoseconds.
+         * @return long
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Average number of entities persisted per second.
+         * @return double
+         */
+        public double getEntitiesPerSecond() {
+            return elapsedNanos == 0 ? 0 : entities / (elapsedNanos / 1_000_000_000d);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [entities=" + entities + ", transactions=" + transactions
+                + ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                + ", entitiesPerSecond=" + String.format("%.1f", getEntitiesPerSecond()) + "]";
+        }
+    }
+}
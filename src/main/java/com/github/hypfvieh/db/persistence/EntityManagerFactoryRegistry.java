@@ -0,0 +1,150 @@
+package com.github.hypfvieh.db.persistence;
+
+import com.github.hypfvieh.function.IThrowingSupplier;
+import com.github.hypfvieh.threads.NameableThreadFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process wide registry of {@link EntityManagerFactory} instances.
+ * <p>
+ * Creating an {@link EntityManagerFactory} is expensive, so all {@link AbstractBasePersistenceLoader.PersistenceLoaderContext}s
+ * using an identical configuration (driver, URL, persistence unit, properties and persistence.xml) will share
+ * the same factory.
+ * </p>
+ * <p>
+ * The factories are reference counted. Every {@link #acquire(FactoryKey, IThrowingSupplier)} has to be followed by
+ * a {@link #release(FactoryKey)}. The factory is closed when the last reference was released.
+ * </p>
+ */
+final class EntityManagerFactoryRegistry {
+    private static final Logger                         LOGGER    = LoggerFactory.getLogger(EntityManagerFactoryRegistry.class);
+
+    private static final Map<FactoryKey, SharedFactory> FACTORIES = new HashMap<>();
+
+    /** Executor used to create factories in background. */
+    static final ExecutorService                        WARMUP_EXECUTOR =
+        Executors.newCachedThreadPool(new NameableThreadFactory("EntityManagerFactoryWarmUp-", true));
+
+    private EntityManagerFactoryRegistry() {
+
+    }
+
+    /**
+     * Returns the shared {@link EntityManagerFactory} for the given key and increments the reference count.
+     * If no factory was created for the given key before, the factory supplier will be called.
+     *
+     * @param _key key
+     * @param _factorySupplier supplier creating a new factory
+     * @return {@link EntityManagerFactory}
+     * @throws IOException when creating factory fails
+     */
+    static EntityManagerFactory acquire(FactoryKey _key, IThrowingSupplier<EntityManagerFactory, IOException> _factorySupplier) throws IOException {
+        SharedFactory shared;
+        synchronized (FACTORIES) {
+            shared = FACTORIES.computeIfAbsent(_key, k -> new SharedFactory());
+            shared.refCount++;
+        }
+
+        try {
+            return shared.getOrCreate(_factorySupplier);
+        } catch (IOException | RuntimeException _ex) {
+            release(_key);
+            throw _ex;
+        }
+    }
+
+    /**
+     * Decrements the reference count of the factory for the given key.
+     * Closes the factory if no more references are left.
+     *
+     * @param _key key
+     */
+    static void release(FactoryKey _key) {
+        SharedFactory shared;
+        synchronized (FACTORIES) {
+            shared = FACTORIES.get(_key);
+            if (shared == null || --shared.refCount > 0) {
+                return;
+            }
+            FACTORIES.remove(_key);
+        }
+
+        shared.close();
+    }
+
+    /**
+     * Reference counted holder of a lazily created factory.
+     */
+    private static final class SharedFactory {
+        private int                  refCount;
+        private EntityManagerFactory factory;
+
+        synchronized EntityManagerFactory getOrCreate(IThrowingSupplier<EntityManagerFactory, IOException> _factorySupplier) throws IOException {
+            if (factory == null) {
+                factory = _factorySupplier.get();
+            }
+            return factory;
+        }
+
+        synchronized void close() {
+            if (factory != null && factory.isOpen()) {
+                LOGGER.debug("Closing shared EntityManagerFactory {}", factory);
+                factory.close();
+            }
+            factory = null;
+        }
+    }
+
+    /**
+     * Key describing the effective configuration of an {@link EntityManagerFactory}.
+     */
+    static final class FactoryKey {
+        private final String              jdbcDriver;
+        private final String              url;
+        private final String              persistenceUnitName;
+        private final Map<String, String> properties;
+        private final byte[]              persistenceXml;
+
+        FactoryKey(String _jdbcDriver, String _url, String _persistenceUnitName, Map<String, String> _properties, byte[] _persistenceXml) {
+            jdbcDriver = _jdbcDriver;
+            url = _url;
+            persistenceUnitName = _persistenceUnitName;
+            properties = new HashMap<>(_properties);
+            persistenceXml = _persistenceXml.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jdbcDriver, url, persistenceUnitName, properties, Arrays.hashCode(persistenceXml));
+        }
+
+        @Override
+        public boolean equals(Object _obj) {
+            if (this == _obj) {
+                return true;
+            }
+            if (!(_obj instanceof FactoryKey)) {
+                return false;
+            }
+            FactoryKey other = (FactoryKey) _obj;
+            return Objects.equals(jdbcDriver, other.jdbcDriver)
+                && Objects.equals(url, other.url)
+                && Objects.equals(persistenceUnitName, other.persistenceUnitName)
+                && Objects.equals(properties, other.properties)
+                && Arrays.equals(persistenceXml, other.persistenceXml);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [jdbcDriver=" + jdbcDriver + ", url=" + url
+                + ", persistenceUnitName=" + persistenceUnitName + "]";
+        }
+    }
+}
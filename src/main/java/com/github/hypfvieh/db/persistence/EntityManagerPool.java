@@ -0,0 +1,298 @@
+package com.github.hypfvieh.db.persistence;
+
+import com.github.hypfvieh.function.IThrowingSupplier;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of {@link EntityManager}s.
+ * <p>
+ * An {@link EntityManager} is not thread safe, so every thread has to use its own instance.
+ * This pool hands out at most {@code maxSize} {@link EntityManager}s at the same time.
+ * Threads calling {@link #checkout()} will wait when all {@link EntityManager}s are in use.
+ * </p>
+ * <p>
+ * Every {@link EntityManager} received by {@link #checkout()} has to be returned using {@link #checkin(EntityManager)}.
+ * On return the {@link EntityManager} will be cleared (and any active transaction is rolled back),
+ * so the next user always gets an empty persistence context.
+ * </p>
+ * <p>
+ * Sample usage:<br>
+ * <pre>
+ * EntityManagerPool pool = context.createEntityManagerPool(4);
+ * EntityManager em = pool.checkout();
+ * try {
+ *     // do something
+ * } finally {
+ *     pool.checkin(em);
+ * }
+ * </pre>
+ */
+public final class EntityManagerPool implements Closeable {
+    private final Logger                                          logger        = LoggerFactory.getLogger(getClass());
+
+    private final IThrowingSupplier<EntityManager, IOException>   entityManagerSupplier;
+    private final int                                             maxSize;
+
+    private final Semaphore                                       permits;
+    private final Deque<EntityManager>                            idle          = new ConcurrentLinkedDeque<>();
+    private final Set<EntityManager>                              all           = ConcurrentHashMap.newKeySet();
+    private final Set<EntityManager>                              checkedOut    = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong                                      checkouts     = new AtomicLong();
+    private final AtomicLong                                      waits         = new AtomicLong();
+    private final AtomicLong                                      waitTimeNanos = new AtomicLong();
+    private final AtomicLong                                      maxWaitNanos  = new AtomicLong();
+
+    private volatile boolean                                      closed;
+
+    EntityManagerPool(IThrowingSupplier<EntityManager, IOException> _entityManagerSupplier, int _maxSize) {
+        if (_maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+        entityManagerSupplier = Objects.requireNonNull(_entityManagerSupplier, "EntityManager supplier required");
+        maxSize = _maxSize;
+        permits = new Semaphore(_maxSize, true);
+    }
+
+    /**
+     * Takes an {@link EntityManager} from the pool, waiting until one is available.
+     *
+     * @return {@link EntityManager}
+     *
+     * @throws IOException when creating a new {@link EntityManager} fails
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public EntityManager checkout() throws IOException, InterruptedException {
+        return checkout(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes an {@link EntityManager} from the pool, waiting at most the given time until one is available.
+     *
+     * @param _timeout maximum time to wait
+     * @param _unit unit of timeout
+     *
+     * @return {@link EntityManager}, null if no {@link EntityManager} was available within the given time
+     *
+     * @throws IOException when creating a new {@link EntityManager} fails
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public EntityManager checkout(long _timeout, TimeUnit _unit) throws IOException, InterruptedException {
+        ensureOpen();
+
+        if (!permits.tryAcquire()) {
+            long start = System.nanoTime();
+            boolean acquired = permits.tryAcquire(_timeout, _unit);
+            long waited = System.nanoTime() - start;
+
+            waits.incrementAndGet();
+            waitTimeNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            if (!acquired) {
+                return null;
+            }
+        }
+
+        try {
+            ensureOpen();
+            EntityManager em;
+            while ((em = idle.pollFirst()) != null) {
+                if (em.isOpen()) {
+                    break;
+                }
+                all.remove(em);
+            }
+
+            if (em == null) {
+                em = entityManagerSupplier.get();
+                all.add(em);
+            }
+
+            checkedOut.add(em);
+            checkouts.incrementAndGet();
+            return em;
+        } catch (IOException | RuntimeException _ex) {
+            permits.release();
+            throw _ex;
+        }
+    }
+
+    /**
+     * Returns an {@link EntityManager} previously received by {@link #checkout()} to the pool.
+     * <p>
+     * Any active transaction will be rolled back and the persistence context is cleared.
+     * Closed {@link EntityManager}s are dropped from the pool.
+     * </p>
+     *
+     * @param _em {@link EntityManager} to return
+     * @throws IllegalArgumentException if the {@link EntityManager} was not created by this pool or is not checked out
+     */
+    public void checkin(EntityManager _em) {
+        if (_em == null || !all.contains(_em)) {
+            throw new IllegalArgumentException("EntityManager was not created by this pool");
+        }
+        if (!checkedOut.remove(_em)) {
+            throw new IllegalArgumentException("EntityManager is not checked out");
+        }
+
+        try {
+            if (closed || !_em.isOpen()) {
+                all.remove(_em);
+                closeQuietly(_em);
+                return;
+            }
+
+            try {
+                if (_em.getTransaction().isActive()) {
+                    logger.warn("Rolling back active transaction of returned EntityManager");
+                    _em.getTransaction().rollback();
+                }
+                _em.clear();
+                idle.offerFirst(_em);
+            } catch (RuntimeException _ex) {
+                logger.warn("Unable to reset returned EntityManager, discarding it", _ex);
+                all.remove(_em);
+                closeQuietly(_em);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the maximum number of {@link EntityManager}s handed out at the same time.
+     *
+     * @return int
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a snapshot of the current pool statistics.
+     *
+     * @return {@link PoolStatistics}
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(all.size(), idle.size(), checkouts.get(), waits.get(), waitTimeNanos.get(), maxWaitNanos.get());
+    }
+
+    /**
+     * Closes all pooled {@link EntityManager}s.
+     * {@link EntityManager}s which are currently checked out will be closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        EntityManager em;
+        while ((em = idle.pollFirst()) != null) {
+            all.remove(em);
+            closeQuietly(em);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("EntityManagerPool already closed");
+        }
+    }
+
+    private void closeQuietly(EntityManager _em) {
+        try {
+            if (_em.isOpen()) {
+                _em.close();
+            }
+        } catch (RuntimeException _ex) {
+            logger.debug("Error while closing EntityManager", _ex);
+        }
+    }
+
+    /**
+     * Statistics of an {@link EntityManagerPool}.
+     */
+    public static final class PoolStatistics {
+        private final int  size;
+        private final int  idle;
+        private final long checkouts;
+        private final long waits;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        PoolStatistics(int _size, int _idle, long _checkouts, long _waits, long _totalWaitNanos, long _maxWaitNanos) {
+            size = _size;
+            idle = _idle;
+            checkouts = _checkouts;
+            waits = _waits;
+            totalWaitNanos = _totalWaitNanos;
+            maxWaitNanos = _maxWaitNanos;
+        }
+
+        /**
+         * Number of {@link EntityManager}s currently created by the pool.
+         * @return int
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Number of {@link EntityManager}s currently available in the pool.
+         * @return int
+         */
+        public int getIdle() {
+            return idle;
+        }
+
+        /**
+         * Total number of successful checkouts.
+         * @return long
+         */
+        public long getCheckouts() {
+            return checkouts;
+        }
+
+        /**
+         * Number of checkouts which had to wait for a free {@link EntityManager}.
+         * @return long
+         */
+        public long getWaits() {
+            return waits;
+        }
+
+        /**
+         * Total time spent waiting for a free {@link EntityManager} in nanoseconds.
+         * @return long
+         */
+        public long getTotalWaitNanos() {
+            return totalWaitNanos;
+        }
+
+        /**
+         * Longest time a single checkout had to wait in nanoseconds.
+         * @return long
+         */
+        public long getMaxWaitNanos() {
+            return maxWaitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [size=" + size + ", idle=" + idle + ", checkouts=" + checkouts
+                + ", waits=" + waits + ", totalWaitNanos=" + totalWaitNanos + ", maxWaitNanos=" + maxWaitNanos + "]";
+        }
+    }
+}
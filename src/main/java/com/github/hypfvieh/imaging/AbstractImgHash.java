@@ -1,14 +1,146 @@
 package com.github.hypfvieh.imaging;
 
-import java.awt.AlphaComposite;
-import java.awt.Graphics2D;
-import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorConvertOp;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
 
-public abstract class AbstractImgHash {
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
-    private static final ColorConvertOp COLOR_CONVERTER = new ColorConvertOp(ColorSpace.getInstance(ColorSpace.CS_GRAY), null);
+/**
+ * Base class for all image hash algorithms.
+ * <p>
+ * Instances keep reusable scratch buffers and therefore must not be shared between threads.
+ * </p>
+ */
+public abstract class AbstractImgHash implements IImgHasher {
+
+    private final GrayScaler grayScaler = new GrayScaler();
+
+    /**
+     * Minimum number of source pixels (per axis) which should remain for each target pixel when subsampling.
+     */
+    private static final int MIN_SAMPLES_PER_PIXEL = 8;
+
+    /**
+     * Read the given image file.
+     * <p>
+     * The image size is read from the header first. If the image is much larger than
+     * the given target size, only every n-th pixel of every n-th row is decoded (source subsampling),
+     * keeping at least {@value #MIN_SAMPLES_PER_PIXEL} pixels per target pixel in each direction.
+     * </p>
+     *
+     * @param _image image file
+     * @param _targetWidth width the image will be scaled to
+     * @param _targetHeight height the image will be scaled to
+     * @return image, never null
+     * @throws IOException when file could not be read or is not a supported image
+     */
+    protected static BufferedImage readImage(File _image, int _targetWidth, int _targetHeight) throws IOException {
+        if (!_image.canRead()) {
+            throw new IOException("Cannot read image file: " + _image);
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(_image)) {
+            return readImage(input, _image, _targetWidth, _targetHeight);
+        }
+    }
+
+    /**
+     * Read an image from the given stream using subsampling.
+     *
+     * @param _input image input stream
+     * @param _source source description used in error messages
+     * @param _targetWidth width the image will be scaled to
+     * @param _targetHeight height the image will be scaled to
+     * @return image, never null
+     * @throws IOException when stream could not be read or is not a supported image
+     */
+    static BufferedImage readImage(ImageInputStream _input, Object _source, int _targetWidth, int _targetHeight) throws IOException {
+        if (_input == null) {
+            throw new IOException("Unable to create image input stream for: " + _source);
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(_input);
+        if (!readers.hasNext()) {
+            throw new IOException("Unsupported image format: " + _source);
+        }
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(_input, true, true);
+            ImageReadParam param = reader.getDefaultReadParam();
+
+            int subsampling = calculateSubsampling(reader.getWidth(0), reader.getHeight(0), _targetWidth, _targetHeight);
+            if (subsampling > 1) {
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            }
+
+            BufferedImage image = reader.read(0, param);
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + _source);
+            }
+            return image;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Creates an input stream reading the remaining bytes of the given buffer without changing its position.
+     *
+     * @param _buffer buffer
+     * @return input stream
+     */
+    static InputStream toInputStream(ByteBuffer _buffer) {
+        if (_buffer.hasArray()) {
+            return new ByteArrayInputStream(_buffer.array(), _buffer.arrayOffset() + _buffer.position(), _buffer.remaining());
+        }
+        ByteBuffer buffer = _buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] _b, int _off, int _len) {
+                if (_len == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int len = Math.min(_len, buffer.remaining());
+                buffer.get(_b, _off, len);
+                return len;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+
+    /**
+     * Calculate the subsampling factor to use for an image of the given size.
+     *
+     * @param _width image width
+     * @param _height image height
+     * @param _targetWidth target width
+     * @param _targetHeight target height
+     * @return factor, 1 if image should be read completely
+     */
+    static int calculateSubsampling(int _width, int _height, int _targetWidth, int _targetHeight) {
+        int factorX = _width / (_targetWidth * MIN_SAMPLES_PER_PIXEL);
+        int factorY = _height / (_targetHeight * MIN_SAMPLES_PER_PIXEL);
+        return Math.max(1, Math.min(factorX, factorY));
+    }
 
     /**
      * Convert the given image to an array of integer, where each array entry represents one pixel.
@@ -22,16 +154,8 @@ public abstract class AbstractImgHash {
             return null;
         }
 
-        int[] result = new int[_image.getHeight()*_image.getWidth()];
-        int c = 0;
-        for (int y = 0; y < _image.getHeight(); y++) {
-            for (int x = 0; x < _image.getWidth(); x++) {
-                  int  clr   = _image.getRGB(x, y);
-                  result[c++] = clr;
-            }
-        }
-
-        return result;
+        int width = _image.getWidth();
+        return _image.getRGB(0, 0, width, _image.getHeight(), null, 0, width);
     }
 
     /**
@@ -44,11 +168,13 @@ public abstract class AbstractImgHash {
         if (_image == null) {
             return null;
         }
-        double[][] result = new double[_image.getHeight()][_image.getWidth()];
+        int width = _image.getWidth();
+        int[] row = new int[width];
+        double[][] result = new double[_image.getHeight()][width];
         for (int y = 0; y < _image.getHeight(); y++) {
-            for (int x = 0; x < _image.getWidth(); x++) {
-                  int  clr   = _image.getRGB(x, y);
-                  result[y][x] = clr;
+            _image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                result[y][x] = row[x];
             }
         }
 
@@ -67,36 +193,86 @@ public abstract class AbstractImgHash {
         if (_input == null) {
             return null;
         }
-        // create new resized and gray-scaled image
-        BufferedImage scaledImage = new BufferedImage(_width, _height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = scaledImage.createGraphics();
 
-        if (_input.getColorModel().hasAlpha()) {
-            g.setComposite(AlphaComposite.Src);
+        double[] gray = resizeAndGrayScale(_width, _height, _input, null);
+        int[] rgb = new int[gray.length];
+        for (int i = 0; i < gray.length; i++) {
+            int g = (int) Math.round(gray[i]);
+            rgb[i] = g << 16 | g << 8 | g;
         }
-        g.drawImage(_input, 0, 0, _width, _height, null);
-        g.dispose();
 
-        COLOR_CONVERTER.filter(scaledImage, scaledImage);
+        BufferedImage scaledImage = new BufferedImage(_width, _height, BufferedImage.TYPE_INT_RGB);
+        scaledImage.setRGB(0, 0, _width, _height, rgb, 0, _width);
 
         return scaledImage;
     }
 
     /**
-     * Converts a bitmask (array of boolean) to a hex string.
+     * Convert the given image to grayscale and resize it to the given scale.
+     * Every result pixel is the average luminance (0 - 255) of all source pixels covered by it.
+     * <p>
+     * Large images are subsampled the same way as images decoded by {@link #readImage(File, int, int)},
+     * so hashing a completely decoded image gives the same result as hashing the image file.
+     * </p>
+     *
+     * @param _width width
+     * @param _height height
+     * @param _input input image
+     * @param _result array to store the result in, null or too small array will create a new array
+     * @return array of gray values, read from top to bottom, left to right
+     */
+    protected double[] resizeAndGrayScale(int _width, int _height, BufferedImage _input, double[] _result) {
+        int step = calculateSubsampling(_input.getWidth(), _input.getHeight(), _width, _height);
+        return grayScaler.scale(_input, _width, _height, _result, step);
+    }
+
+    /**
+     * Converts a bitmask (array of boolean) to a long.
+     * Every entry of the mask is shifted in from the right, followed by a final shift by one,
+     * so only the last 63 entries of the mask are retained.
      *
      * @param bitMask mask
-     * @param _minLen length
-     * @return string
+     * @return bits as long
      */
-    protected String bitmaskToHex(boolean[] bitMask, int _minLen) {
+    protected long bitmaskToLong(boolean[] bitMask) {
         long bitSetInt = 0;
         for (int i = 0 ; i < bitMask.length ; i++) {
            bitSetInt = (bitSetInt | (bitMask[i]?1:0)) << 1;
         }
+        return bitSetInt;
+    }
+
+    /**
+     * Converts a bitmask (array of boolean) to a hex string.
+     *
+     * @param bitMask mask
+     * @param _minLen length
+     * @return string
+     */
+    protected String bitmaskToHex(boolean[] bitMask, int _minLen) {
+        long bitSetInt = bitmaskToLong(bitMask);
         if (_minLen <= -1) {
-        	return String.format("%x", bitSetInt);
+        	return Long.toHexString(bitSetInt);
+        }
+        if (_minLen == 16) {
+            return toHex(bitSetInt);
         }
         return String.format("%0"+ _minLen + "x", bitSetInt);
     }
+
+    /**
+     * Converts a 64-bit hash value to its hex string representation (16 characters, zero padded).
+     *
+     * @param _hash hash value
+     * @return hex string
+     */
+    public static String toHex(long _hash) {
+        char[] result = new char[16];
+        long value = _hash;
+        for (int i = 15; i >= 0; i--) {
+            result[i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+        return new String(result);
+    }
 }
@@ -0,0 +1,348 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.hypfvieh.threads.NameableThreadFactory;
+
+/**
+ * Computes hashes of all images in a directory tree using multiple threads.
+ * <p>
+ * If a cache file is configured, all computed hashes are stored in that file (keyed by path, size and
+ * last modification time). Subsequent runs will only hash new or changed files.
+ * </p>
+ * <p>
+ * Sample usage:<br>
+ * <pre>
+ * BatchHashResult result = BatchImageHasher.pHash()
+ *     .withThreads(8)
+ *     .withCacheFile(Paths.get("/var/cache/phash.bin"))
+ *     .hashDirectory(Paths.get("/data/images"));
+ * </pre>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class BatchImageHasher {
+    private static final Set<String> IMAGE_SUFFIXES = Stream.of(ImageIO.getReaderFileSuffixes())
+        .map(s -> s.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toUnmodifiableSet());
+
+    private final Logger             logger         = LoggerFactory.getLogger(getClass());
+
+    private final String             algorithm;
+    private final IImgHashValue      hasher;
+
+    private int                      threads        = Runtime.getRuntime().availableProcessors();
+    private Path                     cacheFile;
+    private Predicate<Path>          fileFilter     = BatchImageHasher::isImageFile;
+
+    /**
+     * Create a new batch hasher.
+     *
+     * @param _algorithm name of the algorithm, used to prevent mixing hashes of different algorithms in the cache
+     * @param _hasher hash function, must be thread safe
+     */
+    public BatchImageHasher(String _algorithm, IImgHashValue _hasher) {
+        algorithm = Objects.requireNonNull(_algorithm, "Algorithm name required");
+        hasher = Objects.requireNonNull(_hasher, "Hasher required");
+    }
+
+    /**
+     * Creates a batch hasher using {@link ImgAHash}.
+     * @return {@link BatchImageHasher}
+     */
+    public static BatchImageHasher aHash() {
+        return new BatchImageHasher("AHash", ImgAHash::computeHashValue);
+    }
+
+    /**
+     * Creates a batch hasher using {@link ImgDHash}.
+     * @return {@link BatchImageHasher}
+     */
+    public static BatchImageHasher dHash() {
+        return new BatchImageHasher("DHash", ImgDHash::computeHashValue);
+    }
+
+    /**
+     * Creates a batch hasher using {@link ImgPHash}.
+     * @return {@link BatchImageHasher}
+     */
+    public static BatchImageHasher pHash() {
+        return new BatchImageHasher("PHash", ImgPHash::computeHashValue);
+    }
+
+    /**
+     * Number of threads used to hash images (default: number of available processors).
+     *
+     * @param _threads number of threads
+     * @return this
+     */
+    public BatchImageHasher withThreads(int _threads) {
+        if (_threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be greater than 0");
+        }
+        threads = _threads;
+        return this;
+    }
+
+    /**
+     * File used to persist computed hashes (default: none).
+     *
+     * @param _cacheFile cache file, null to disable caching
+     * @return this
+     */
+    public BatchImageHasher withCacheFile(Path _cacheFile) {
+        cacheFile = _cacheFile;
+        return this;
+    }
+
+    /**
+     * Filter deciding which files will be hashed (default: all files with a suffix supported by {@link ImageIO}).
+     *
+     * @param _fileFilter filter
+     * @return this
+     */
+    public BatchImageHasher withFileFilter(Predicate<Path> _fileFilter) {
+        fileFilter = Objects.requireNonNull(_fileFilter, "File filter required");
+        return this;
+    }
+
+    /**
+     * Hashes all matching files in the given directory and all sub directories.
+     * <p>
+     * Files or directories which cannot be read and files which are no valid images will not stop the processing,
+     * they are reported by {@link BatchHashResult#getFailures()}.<br>
+     * If a cache file is used, cache entries of files no longer existing in the given directory are removed.
+     * The cache is also saved if hashing is aborted.
+     * </p>
+     *
+     * @param _directory directory to scan
+     * @return {@link BatchHashResult}
+     * @throws IOException when directory cannot be read or cache file cannot be written
+     */
+    public BatchHashResult hashDirectory(Path _directory) throws IOException {
+        Objects.requireNonNull(_directory, "Directory required");
+        if (!Files.isDirectory(_directory)) {
+            throw new IOException("Not a directory: " + _directory);
+        }
+
+        long start = System.nanoTime();
+        Path directory = _directory.toAbsolutePath().normalize();
+        ImageHashCache cache = ImageHashCache.load(cacheFile, algorithm);
+
+        Map<Path, Long> hashes = new ConcurrentHashMap<>();
+        Map<Path, IOException> failures = new ConcurrentHashMap<>();
+        AtomicLong hashed = new AtomicLong();
+        AtomicLong cached = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NameableThreadFactory("BatchImageHasher-", true));
+        // limit the number of queued files to keep memory usage low on large directories
+        Semaphore inFlight = new Semaphore(threads * 4);
+
+        boolean completed = false;
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path _file, BasicFileAttributes _attrs) throws IOException {
+                    if (!_attrs.isRegularFile() || !fileFilter.test(_file)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    try {
+                        inFlight.acquire();
+                    } catch (InterruptedException _ex) {
+                        Thread.currentThread().interrupt();
+                        InterruptedIOException iex = new InterruptedIOException("Interrupted while hashing images");
+                        iex.initCause(_ex);
+                        throw iex;
+                    }
+                    executor.execute(() -> {
+                        try {
+                            hashes.put(_file, hashFile(_file, cache, hashed, cached));
+                        } catch (IOException _ex) {
+                            failures.put(_file, _ex);
+                        } catch (RuntimeException _ex) {
+                            failures.put(_file, new IOException("Unable to hash " + _file, _ex));
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path _file, IOException _ex) {
+                    // e.g. unreadable directory or file deleted while walking
+                    failures.put(_file, _ex);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path _dir, IOException _ex) {
+                    if (_ex != null) {
+                        failures.put(_dir, _ex);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.trace("Waiting for image hashing threads to finish");
+            }
+            completed = true;
+        } catch (InterruptedException _ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException iex = new InterruptedIOException("Interrupted while hashing images");
+            iex.initCause(_ex);
+            throw iex;
+        } finally {
+            executor.shutdownNow();
+            if (cacheFile != null) {
+                saveCache(cache, directory, hashes, failures, completed);
+            }
+        }
+
+        BatchHashResult result = new BatchHashResult(hashes, failures, hashed.get(), cached.get(), System.nanoTime() - start);
+        logger.debug("Batch hashing of {} finished: {}", directory, result);
+        return result;
+    }
+
+    /**
+     * Saves the cache, also if hashing was aborted, so already computed hashes are not lost.
+     * Entries of files which no longer exist are only removed if the whole directory was processed.
+     */
+    private void saveCache(ImageHashCache _cache, Path _directory, Map<Path, Long> _hashes, Map<Path, IOException> _failures, boolean _completed) throws IOException {
+        if (_completed) {
+            String prefix = _directory.toString() + File.separator;
+            // keep entries below paths which could not be read, their files may still exist
+            Set<String> failedPrefixes = _failures.keySet().stream().map(p -> p + File.separator).collect(Collectors.toSet());
+            _cache.removeIf(p -> p.startsWith(prefix) && !_hashes.containsKey(Path.of(p))
+                && failedPrefixes.stream().noneMatch(p::startsWith));
+        }
+
+        try {
+            _cache.save(cacheFile);
+        } catch (IOException _ex) {
+            if (_completed) {
+                throw _ex;
+            }
+            // do not hide the exception which aborted hashing
+            logger.warn("Unable to save image hash cache {}", cacheFile, _ex);
+        }
+    }
+
+    private long hashFile(Path _file, ImageHashCache _cache, AtomicLong _hashed, AtomicLong _cached) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(_file, BasicFileAttributes.class);
+        String key = _file.toString();
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        Long hash = _cache.get(key, size, lastModified);
+        if (hash != null) {
+            _cached.incrementAndGet();
+            return hash;
+        }
+
+        long value = hasher.computeHashValue(_file.toFile());
+        _cache.put(key, size, lastModified, value);
+        _hashed.incrementAndGet();
+        return value;
+    }
+
+    private static boolean isImageFile(Path _file) {
+        String name = _file.getFileName().toString();
+        int idx = name.lastIndexOf('.');
+        return idx > 0 && IMAGE_SUFFIXES.contains(name.substring(idx + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Result of a batch hashing run.
+     */
+    public static final class BatchHashResult {
+        private final Map<Path, Long>        hashes;
+        private final Map<Path, IOException> failures;
+        private final long                   hashedFiles;
+        private final long                   cachedFiles;
+        private final long                   elapsedNanos;
+
+        BatchHashResult(Map<Path, Long> _hashes, Map<Path, IOException> _failures, long _hashedFiles, long _cachedFiles, long _elapsedNanos) {
+            hashes = Collections.unmodifiableMap(new TreeMap<>(_hashes));
+            failures = Collections.unmodifiableMap(new TreeMap<>(_failures));
+            hashedFiles = _hashedFiles;
+            cachedFiles = _cachedFiles;
+            elapsedNanos = _elapsedNanos;
+        }
+
+        /**
+         * Hashes of all successfully processed files (sorted by path).
+         * @return Map
+         */
+        public Map<Path, Long> getHashes() {
+            return hashes;
+        }
+
+        /**
+         * Files which could not be hashed and the reason.
+         * @return Map
+         */
+        public Map<Path, IOException> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Number of files which had to be hashed.
+         * @return long
+         */
+        public long getHashedFiles() {
+            return hashedFiles;
+        }
+
+        /**
+         * Number of files taken from cache.
+         * @return long
+         */
+        public long getCachedFiles() {
+            return cachedFiles;
+        }
+
+        /**
+         * Total time in nanoseconds.
+         * @return long
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [hashedFiles=" + hashedFiles + ", cachedFiles=" + cachedFiles
+                + ", failures=" + failures.size() + ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "]";
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups near duplicate images by their 64-bit hashes.
+ * <p>
+ * Two images belong to the same cluster if their hashes differ in at most {@code maxDistance} bits,
+ * either directly or through a chain of other images of the cluster (single linkage).
+ * </p>
+ * <p>
+ * Every image is hashed only once. Instead of comparing all pairs, all hashes are stored in a {@link HammingIndex}
+ * (bucketed by 16-bit chunks), so only candidates sharing a similar chunk are compared.
+ * The lookups are done in parallel and the results are merged using a lock-free union-find structure.
+ * </p>
+ * <p>
+ * Sample usage:<br>
+ * <pre>
+ * List&lt;HashCluster&lt;Path&gt;&gt; duplicates = new DuplicateClusterer(6)
+ *     .withThreads(8)
+ *     .clusterDirectory(BatchImageHasher.pHash().withCacheFile(cacheFile), Paths.get("/data/images"));
+ * </pre>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class DuplicateClusterer {
+    private final Logger logger  = LoggerFactory.getLogger(getClass());
+
+    private final int    maxDistance;
+    private int          threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Create a new clusterer.
+     *
+     * @param _maxDistance maximum number of different bits for two images to be considered duplicates
+     */
+    public DuplicateClusterer(int _maxDistance) {
+        if (_maxDistance < 0 || _maxDistance > Long.SIZE) {
+            throw new IllegalArgumentException("Distance must be between 0 and 64");
+        }
+        maxDistance = _maxDistance;
+    }
+
+    /**
+     * Number of threads used for clustering (default: number of available processors).
+     *
+     * @param _threads number of threads
+     * @return this
+     */
+    public DuplicateClusterer withThreads(int _threads) {
+        if (_threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be greater than 0");
+        }
+        threads = _threads;
+        return this;
+    }
+
+    /**
+     * Hashes all images in the given directory using the given hasher and groups near duplicates.
+     * Files which cannot be hashed are ignored.
+     *
+     * @param _hasher hasher to use
+     * @param _directory directory to scan
+     * @return clusters containing at least two images, largest cluster first
+     * @throws IOException when directory cannot be read
+     */
+    public List<HashCluster<Path>> clusterDirectory(BatchImageHasher _hasher, Path _directory) throws IOException {
+        Objects.requireNonNull(_hasher, "Hasher required");
+        BatchImageHasher.BatchHashResult result = _hasher.hashDirectory(_directory);
+        if (!result.getFailures().isEmpty()) {
+            logger.debug("Ignoring {} files which could not be hashed", result.getFailures().size());
+        }
+        return cluster(result.getHashes());
+    }
+
+    /**
+     * Groups the given elements by the similarity of their hashes.
+     *
+     * @param <T> element type (e.g. file)
+     * @param _hashes hash of each element
+     * @return clusters containing at least two elements, largest cluster first
+     */
+    public <T> List<HashCluster<T>> cluster(Map<T, Long> _hashes) {
+        Objects.requireNonNull(_hashes, "Hashes required");
+
+        List<T> elements = new ArrayList<>(_hashes.size());
+        long[] hashes = new long[_hashes.size()];
+        long[] ids = new long[hashes.length];
+        for (Map.Entry<T, Long> e : _hashes.entrySet()) {
+            ids[elements.size()] = elements.size();
+            hashes[elements.size()] = e.getValue();
+            elements.add(e.getKey());
+        }
+
+        int[] roots = clusterHashes(hashes, ids);
+
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < roots.length; i++) {
+            groups.computeIfAbsent(roots[i], k -> new ArrayList<>()).add(i);
+        }
+
+        // order by first member, so clusters of same size keep the order of the input
+        List<List<Integer>> duplicates = groups.values().stream()
+            .filter(g -> g.size() > 1)
+            .sorted(Comparator.comparingInt(g -> g.get(0)))
+            .collect(Collectors.toList());
+        List<HashCluster<T>> result = runParallel(() -> duplicates.parallelStream()
+            .map(members -> createCluster(members, elements, hashes))
+            .collect(Collectors.toList()));
+
+        result.sort(Comparator.<HashCluster<T>>comparingInt(c -> c.getMembers().size()).reversed());
+        return result;
+    }
+
+    /**
+     * Runs union-find over all pairs within the configured distance.
+     *
+     * @return root element of each hash
+     */
+    private int[] clusterHashes(long[] _hashes, long[] _ids) {
+        HammingIndex index = HammingIndex.build(_hashes, _ids);
+        UnionFind unionFind = new UnionFind(_hashes.length);
+
+        runParallel(() -> {
+            IntStream.range(0, _hashes.length).parallel().forEach(i ->
+                index.query(_hashes[i], maxDistance, (id, hash, distance) -> {
+                    if (id > i) {
+                        unionFind.union(i, (int) id);
+                    }
+                }));
+            return null;
+        });
+
+        int[] roots = new int[_hashes.length];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = unionFind.find(i);
+        }
+        return roots;
+    }
+
+    private <R> R runParallel(Callable<R> _task) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(_task).get();
+        } catch (InterruptedException _ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while clustering", _ex);
+        } catch (ExecutionException _ex) {
+            if (_ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) _ex.getCause();
+            }
+            throw new IllegalStateException("Clustering failed", _ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates a cluster using the member with the smallest sum of distances to all other members (medoid) as representative.
+     * <p>
+     * The sum of distances is the sum of the distances per bit: a member having a bit set differs from every member
+     * not having this bit set and vice versa. Therefore the number of members having each bit set is counted first,
+     * which allows to calculate the sum for every member in constant time (linear instead of quadratic runtime).
+     * </p>
+     */
+    private static <T> HashCluster<T> createCluster(List<Integer> _members, List<T> _elements, long[] _hashes) {
+        int[] bitCounts = new int[Long.SIZE];
+        for (int member : _members) {
+            long hash = _hashes[member];
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                bitCounts[bit] += (int) (hash >>> bit) & 1;
+            }
+        }
+
+        // sum of distances of a member having no bit set, every set bit changes the distance
+        // to the members having this bit set (-1 each) and to all other members (+1 each)
+        long baseSum = 0;
+        int[] bitDelta = new int[Long.SIZE];
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            baseSum += bitCounts[bit];
+            bitDelta[bit] = _members.size() - 2 * bitCounts[bit];
+        }
+
+        int best = _members.get(0);
+        long bestSum = Long.MAX_VALUE;
+        for (int candidate : _members) {
+            long sum = baseSum;
+            for (long hash = _hashes[candidate]; hash != 0; hash &= hash - 1) {
+                sum += bitDelta[Long.numberOfTrailingZeros(hash)];
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = candidate;
+            }
+        }
+
+        List<T> members = new ArrayList<>(_members.size());
+        for (int member : _members) {
+            members.add(_elements.get(member));
+        }
+        return new HashCluster<>(_elements.get(best), _hashes[best], members);
+    }
+
+    /**
+     * Union-find (disjoint set) structure which can be used by multiple threads concurrently.
+     * Roots are always linked to the smaller root, path halving is used when searching.
+     */
+    static final class UnionFind {
+        private final AtomicIntegerArray parent;
+
+        UnionFind(int _size) {
+            parent = new AtomicIntegerArray(_size);
+            for (int i = 0; i < _size; i++) {
+                parent.set(i, i);
+            }
+        }
+
+        int find(int _element) {
+            int x = _element;
+            int p;
+            while ((p = parent.get(x)) != x) {
+                int grandParent = parent.get(p);
+                if (grandParent != p) {
+                    parent.compareAndSet(x, p, grandParent);
+                }
+                x = p;
+            }
+            return x;
+        }
+
+        void union(int _first, int _second) {
+            while (true) {
+                int rootFirst = find(_first);
+                int rootSecond = find(_second);
+                if (rootFirst == rootSecond) {
+                    return;
+                }
+                int child = Math.max(rootFirst, rootSecond);
+                int root = Math.min(rootFirst, rootSecond);
+                if (parent.compareAndSet(child, child, root)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Group of near duplicate elements.
+     *
+     * @param <T> element type
+     */
+    public static final class HashCluster<T> {
+        private final T       representative;
+        private final long    representativeHash;
+        private final List<T> members;
+
+        HashCluster(T _representative, long _representativeHash, List<T> _members) {
+            representative = _representative;
+            representativeHash = _representativeHash;
+            members = Collections.unmodifiableList(_members);
+        }
+
+        /**
+         * Member with the smallest total distance to all other members.
+         * @return representative
+         */
+        public T getRepresentative() {
+            return representative;
+        }
+
+        /**
+         * Hash of the representative.
+         * @return long
+         */
+        public long getRepresentativeHash() {
+            return representativeHash;
+        }
+
+        /**
+         * All members of this cluster (including the representative).
+         * @return List
+         */
+        public List<T> getMembers() {
+            return members;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [representative=" + representative + ", members=" + members.size() + "]";
+        }
+    }
+}
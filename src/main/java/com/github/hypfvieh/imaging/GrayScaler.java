@@ -0,0 +1,228 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * Scales images down to a small grayscale pixel array.
+ * <p>
+ * The luminance (ITU-R BT.601 weights) of every source pixel is calculated while reading the image
+ * and added to the destination cell the pixel belongs to (area averaging).
+ * The pixel data of the common image layouts (packed int RGB and interleaved byte RGB/gray)
+ * is read directly from the {@link DataBuffer}, all other layouts are read row by row using
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+ * </p>
+ * <p>
+ * Large images can be subsampled by using only every n-th pixel of every n-th row (starting with the first one).
+ * This selects the same pixels as {@link javax.imageio.ImageReadParam#setSourceSubsampling(int, int, int, int)}
+ * with an offset of 0, so scaling a completely decoded image gives the same result as scaling an image decoded with subsampling.
+ * </p>
+ * <p>
+ * The scratch buffers are reused for subsequent calls, so instances are <b>not</b> thread safe.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class GrayScaler {
+    private static final int RED_WEIGHT   = 299;
+    private static final int GREEN_WEIGHT = 587;
+    private static final int BLUE_WEIGHT  = 114;
+    private static final int WEIGHT_SUM   = RED_WEIGHT + GREEN_WEIGHT + BLUE_WEIGHT;
+
+    private long[]           sums       = new long[0];
+    private int[]            counts     = new int[0];
+    private int[]            columnMap  = new int[0];
+    private int[]            rowBuffer  = new int[0];
+
+    /**
+     * Scale the given image to the given size and convert it to grayscale.
+     *
+     * @param _image image
+     * @param _width target width
+     * @param _height target height
+     * @param _result array to store result in (at least width * height), null to create a new array
+     * @param _step subsampling step, only every n-th pixel of every n-th row is used (1 to use all pixels)
+     * @return array of gray values (0 - 255), row by row
+     */
+    double[] scale(BufferedImage _image, int _width, int _height, double[] _result, int _step) {
+        int cells = _width * _height;
+        double[] result = _result != null && _result.length >= cells ? _result : new double[cells];
+
+        if (sums.length < cells) {
+            sums = new long[cells];
+            counts = new int[cells];
+        }
+        Arrays.fill(sums, 0, cells, 0L);
+        Arrays.fill(counts, 0, cells, 0);
+
+        int srcWidth = sampledSize(_image.getWidth(), _step);
+        int srcHeight = sampledSize(_image.getHeight(), _step);
+
+        if (columnMap.length < srcWidth) {
+            columnMap = new int[srcWidth];
+        }
+        for (int x = 0; x < srcWidth; x++) {
+            columnMap[x] = (int) ((long) x * _width / srcWidth);
+        }
+
+        if (!readPackedInt(_image, _width, _height, _step) && !readInterleavedByte(_image, _width, _height, _step)) {
+            readRgb(_image, _width, _height, _step);
+        }
+
+        for (int i = 0; i < cells; i++) {
+            if (counts[i] == 0) {
+                // image is smaller than target size, use nearest source pixel
+                int x = i % _width;
+                int y = i / _width;
+                int rgb = _image.getRGB((int) ((2L * x + 1) * srcWidth / (2L * _width)) * _step, (int) ((2L * y + 1) * srcHeight / (2L * _height)) * _step);
+                result[i] = luminance((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF) / (double) WEIGHT_SUM;
+            } else {
+                result[i] = sums[i] / ((double) counts[i] * WEIGHT_SUM);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Number of pixels used of a row or column of the given size when using the given subsampling step.
+     */
+    private static int sampledSize(int _size, int _step) {
+        return (_size + _step - 1) / _step;
+    }
+
+    private static int luminance(int _red, int _green, int _blue) {
+        return _red * RED_WEIGHT + _green * GREEN_WEIGHT + _blue * BLUE_WEIGHT;
+    }
+
+    private static int rowOffset(int _y, int _srcHeight, int _width, int _height) {
+        return (int) ((long) _y * _height / _srcHeight) * _width;
+    }
+
+    /**
+     * Reads images using one int per pixel (e.g. TYPE_INT_RGB, TYPE_INT_ARGB, TYPE_INT_BGR).
+     */
+    private boolean readPackedInt(BufferedImage _image, int _width, int _height, int _step) {
+        Raster raster = _image.getRaster();
+        SampleModel sampleModel = raster.getSampleModel();
+        ColorModel colorModel = _image.getColorModel();
+        if (!(raster.getDataBuffer() instanceof DataBufferInt) || !(sampleModel instanceof SinglePixelPackedSampleModel)
+            || !(colorModel instanceof DirectColorModel) || !colorModel.getColorSpace().isCS_sRGB()
+            || raster.getDataBuffer().getNumBanks() != 1 || sampleModel.getNumBands() < 3) {
+            return false;
+        }
+
+        SinglePixelPackedSampleModel packed = (SinglePixelPackedSampleModel) sampleModel;
+        int[] offsets = packed.getBitOffsets();
+        int[] sizes = packed.getSampleSize();
+        if (sizes[0] != 8 || sizes[1] != 8 || sizes[2] != 8) {
+            return false;
+        }
+        int redShift = offsets[0];
+        int greenShift = offsets[1];
+        int blueShift = offsets[2];
+
+        DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+        int[] data = buffer.getData();
+        int stride = packed.getScanlineStride();
+        int base = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+
+        int srcWidth = sampledSize(_image.getWidth(), _step);
+        int srcHeight = sampledSize(_image.getHeight(), _step);
+
+        for (int y = 0; y < srcHeight; y++) {
+            int cellRow = rowOffset(y, srcHeight, _width, _height);
+            int pos = base + y * _step * stride;
+            for (int x = 0; x < srcWidth; x++, pos += _step) {
+                int pixel = data[pos];
+                int cell = cellRow + columnMap[x];
+                sums[cell] += luminance((pixel >>> redShift) & 0xFF, (pixel >>> greenShift) & 0xFF, (pixel >>> blueShift) & 0xFF);
+                counts[cell]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads images using interleaved bytes per pixel (e.g. TYPE_3BYTE_BGR, TYPE_4BYTE_ABGR, TYPE_BYTE_GRAY).
+     */
+    private boolean readInterleavedByte(BufferedImage _image, int _width, int _height, int _step) {
+        Raster raster = _image.getRaster();
+        SampleModel sampleModel = raster.getSampleModel();
+        ColorModel colorModel = _image.getColorModel();
+        if (!(raster.getDataBuffer() instanceof DataBufferByte) || !(sampleModel instanceof ComponentSampleModel)
+            || raster.getDataBuffer().getNumBanks() != 1 || colorModel.getPixelSize() != 8 * colorModel.getNumComponents()) {
+            return false;
+        }
+
+        ColorSpace colorSpace = colorModel.getColorSpace();
+        boolean gray = colorSpace.getType() == ColorSpace.TYPE_GRAY && sampleModel.getNumBands() == 1;
+        boolean rgb = colorSpace.isCS_sRGB() && sampleModel.getNumBands() >= 3;
+        if (!gray && !rgb) {
+            return false;
+        }
+
+        ComponentSampleModel component = (ComponentSampleModel) sampleModel;
+        int[] bandOffsets = component.getBandOffsets();
+        int pixelStride = component.getPixelStride();
+        int stride = component.getScanlineStride();
+
+        DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+        byte[] data = buffer.getData();
+        int base = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX() * pixelStride;
+
+        int redOffset = bandOffsets[0];
+        int greenOffset = gray ? bandOffsets[0] : bandOffsets[1];
+        int blueOffset = gray ? bandOffsets[0] : bandOffsets[2];
+
+        int srcWidth = sampledSize(_image.getWidth(), _step);
+        int srcHeight = sampledSize(_image.getHeight(), _step);
+        int pixelStep = pixelStride * _step;
+
+        for (int y = 0; y < srcHeight; y++) {
+            int cellRow = rowOffset(y, srcHeight, _width, _height);
+            int pos = base + y * _step * stride;
+            for (int x = 0; x < srcWidth; x++, pos += pixelStep) {
+                int cell = cellRow + columnMap[x];
+                sums[cell] += luminance(data[pos + redOffset] & 0xFF, data[pos + greenOffset] & 0xFF, data[pos + blueOffset] & 0xFF);
+                counts[cell]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads any image row by row using the color model of the image.
+     */
+    private void readRgb(BufferedImage _image, int _width, int _height, int _step) {
+        int imageWidth = _image.getWidth();
+        int srcWidth = sampledSize(imageWidth, _step);
+        int srcHeight = sampledSize(_image.getHeight(), _step);
+
+        if (rowBuffer.length < imageWidth) {
+            rowBuffer = new int[imageWidth];
+        }
+
+        for (int y = 0; y < srcHeight; y++) {
+            _image.getRGB(0, y * _step, imageWidth, 1, rowBuffer, 0, imageWidth);
+            int cellRow = rowOffset(y, srcHeight, _width, _height);
+            for (int x = 0; x < srcWidth; x++) {
+                int pixel = rowBuffer[x * _step];
+                int cell = cellRow + columnMap[x];
+                sums[cell] += luminance((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+                counts[cell]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import com.github.hypfvieh.util.FileIoUtil;
+
+/**
+ * In-memory index of 64-bit hashes (e.g. created by {@link ImgPHash#computeHashValue(java.io.File)})
+ * supporting queries for all entries within a given Hamming distance.
+ * <p>
+ * The index uses multi-index hashing: every hash is split into four 16-bit chunks and each chunk is stored in its own table.
+ * If two hashes differ in at most <i>r</i> bits, at least one of the chunks differs in at most <i>r / 4</i> bits
+ * (pigeonhole principle). A query only has to look at the table entries whose chunk is within that reduced
+ * distance and verifies the full distance of those candidates, instead of comparing against all stored hashes.
+ * </p>
+ * <p>
+ * Each entry consists of the hash and a caller defined id (e.g. index into a list of files).
+ * The same hash may be stored multiple times with different ids.
+ * </p>
+ * <p>
+ * This class is thread safe. Queries may run concurrently, modifications are exclusive.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class HammingIndex {
+    private static final int           CHUNKS       = 4;
+    private static final int           CHUNK_BITS   = Long.SIZE / CHUNKS;
+    private static final int           BUCKETS      = 1 << CHUNK_BITS;
+    private static final int           CHUNK_MASK   = BUCKETS - 1;
+
+    private static final long          FILE_MAGIC   = 0x48414d4d49445831L; // HAMMIDX1
+    private static final int           HEADER_SIZE  = 2 * Long.BYTES;
+
+    private final ReadWriteLock        lock         = new ReentrantReadWriteLock();
+
+    /** Hash of each slot. */
+    private long[]                     hashes;
+    /** Id of each slot. */
+    private long[]                     ids;
+    /** True for slots which contain an entry. */
+    private boolean[]                  used;
+    /** Number of slots ever used. */
+    private int                        slotCount;
+    /** Slots freed by remove, reused on insert. */
+    private int[]                      freeSlots    = new int[16];
+    private int                        freeCount;
+
+    /** Per chunk table: slot numbers of all entries, grouped by chunk value. */
+    private final int[][][]            tables       = new int[CHUNKS][BUCKETS][];
+    private final int[][]              bucketSizes  = new int[CHUNKS][BUCKETS];
+
+    /**
+     * Create a new empty index.
+     */
+    public HammingIndex() {
+        this(16);
+    }
+
+    /**
+     * Create a new empty index.
+     *
+     * @param _initialCapacity expected number of entries
+     */
+    public HammingIndex(int _initialCapacity) {
+        if (_initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative");
+        }
+        hashes = new long[Math.max(16, _initialCapacity)];
+        ids = new long[hashes.length];
+        used = new boolean[hashes.length];
+    }
+
+    /**
+     * Create a new index containing the given entries.
+     * The chunk tables are built in parallel.
+     *
+     * @param _hashes hashes
+     * @param _ids id of each hash, same length as _hashes
+     * @return new index
+     */
+    public static HammingIndex build(long[] _hashes, long[] _ids) {
+        Objects.requireNonNull(_hashes, "Hashes required");
+        Objects.requireNonNull(_ids, "Ids required");
+        if (_hashes.length != _ids.length) {
+            throw new IllegalArgumentException("Hashes and ids must have the same length (hashes: " + _hashes.length + ", ids: " + _ids.length + ")");
+        }
+
+        HammingIndex index = new HammingIndex(_hashes.length);
+        System.arraycopy(_hashes, 0, index.hashes, 0, _hashes.length);
+        System.arraycopy(_ids, 0, index.ids, 0, _ids.length);
+        Arrays.fill(index.used, 0, _hashes.length, true);
+        index.slotCount = _hashes.length;
+
+        IntStream.range(0, CHUNKS).parallel().forEach(index::buildTable);
+        return index;
+    }
+
+    /**
+     * Fills the given chunk table from scratch (counting sort by chunk value).
+     */
+    private void buildTable(int _chunk) {
+        int[] sizes = bucketSizes[_chunk];
+        int[][] buckets = tables[_chunk];
+        for (int slot = 0; slot < slotCount; slot++) {
+            sizes[chunk(hashes[slot], _chunk)]++;
+        }
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets[bucket] = sizes[bucket] == 0 ? null : new int[sizes[bucket]];
+            sizes[bucket] = 0;
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            int bucket = chunk(hashes[slot], _chunk);
+            buckets[bucket][sizes[bucket]++] = slot;
+        }
+    }
+
+    private static int chunk(long _hash, int _chunk) {
+        return (int) (_hash >>> (_chunk * CHUNK_BITS)) & CHUNK_MASK;
+    }
+
+    /**
+     * Number of entries in this index.
+     *
+     * @return size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotCount - freeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an entry.
+     *
+     * @param _hash hash
+     * @param _id id
+     */
+    public void insert(long _hash, long _id) {
+        lock.writeLock().lock();
+        try {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (slotCount == hashes.length) {
+                    int newSize = hashes.length + (hashes.length >> 1);
+                    hashes = Arrays.copyOf(hashes, newSize);
+                    ids = Arrays.copyOf(ids, newSize);
+                    used = Arrays.copyOf(used, newSize);
+                }
+                slot = slotCount++;
+            }
+            hashes[slot] = _hash;
+            ids[slot] = _id;
+            used[slot] = true;
+
+            for (int c = 0; c < CHUNKS; c++) {
+                int bucket = chunk(_hash, c);
+                int[] slots = tables[c][bucket];
+                int size = bucketSizes[c][bucket];
+                if (slots == null) {
+                    slots = new int[4];
+                    tables[c][bucket] = slots;
+                } else if (size == slots.length) {
+                    slots = Arrays.copyOf(slots, size * 2);
+                    tables[c][bucket] = slots;
+                }
+                slots[size] = slot;
+                bucketSizes[c][bucket] = size + 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entry with the given hash and id.
+     * If the entry was added multiple times, only one occurrence is removed.
+     *
+     * @param _hash hash
+     * @param _id id
+     * @return true if entry was found and removed
+     */
+    public boolean remove(long _hash, long _id) {
+        lock.writeLock().lock();
+        try {
+            int bucket = chunk(_hash, 0);
+            int[] slots = tables[0][bucket];
+            int size = bucketSizes[0][bucket];
+            int found = -1;
+            for (int i = 0; i < size; i++) {
+                int slot = slots[i];
+                if (hashes[slot] == _hash && ids[slot] == _id) {
+                    found = slot;
+                    break;
+                }
+            }
+            if (found < 0) {
+                return false;
+            }
+
+            for (int c = 0; c < CHUNKS; c++) {
+                removeFromBucket(c, chunk(_hash, c), found);
+            }
+
+            used[found] = false;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = found;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromBucket(int _chunk, int _bucket, int _slot) {
+        int[] slots = tables[_chunk][_bucket];
+        int size = bucketSizes[_chunk][_bucket];
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == _slot) {
+                slots[i] = slots[size - 1];
+                bucketSizes[_chunk][_bucket] = size - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Find all entries within the given Hamming distance of the given hash.
+     *
+     * @param _hash hash to search for
+     * @param _maxDistance maximum number of different bits (inclusive)
+     * @return matches sorted by distance and id
+     */
+    public List<Match> query(long _hash, int _maxDistance) {
+        List<Match> result = new ArrayList<>();
+        query(_hash, _maxDistance, (id, hash, distance) -> result.add(new Match(id, hash, distance)));
+        result.sort(Comparator.comparingInt(Match::getDistance).thenComparingLong(Match::getId));
+        return result;
+    }
+
+    /**
+     * Find all entries within the given Hamming distance of the given hash.
+     * Each entry is reported exactly once, in no particular order.
+     * The consumer is called while holding the read lock, so it must not modify this index.
+     *
+     * @param _hash hash to search for
+     * @param _maxDistance maximum number of different bits (inclusive)
+     * @param _consumer receives all matching entries
+     */
+    public void query(long _hash, int _maxDistance, MatchConsumer _consumer) {
+        Objects.requireNonNull(_consumer, "Consumer required");
+        if (_maxDistance < 0) {
+            throw new IllegalArgumentException("Distance must not be negative");
+        }
+        int chunkDistance = Math.min(_maxDistance / CHUNKS, CHUNK_BITS);
+
+        lock.readLock().lock();
+        try {
+            for (int c = 0; c < CHUNKS; c++) {
+                probe(c, chunk(_hash, c), 0, chunkDistance, _hash, _maxDistance, _consumer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits all buckets of the given chunk table whose value differs from the query chunk
+     * in at most _remaining additional bits (only flipping bits at position &gt;= _minBit).
+     */
+    private void probe(int _chunk, int _value, int _minBit, int _remaining, long _hash, int _maxDistance, MatchConsumer _consumer) {
+        scanBucket(_chunk, _value, _hash, _maxDistance, _consumer);
+        if (_remaining == 0) {
+            return;
+        }
+        for (int bit = _minBit; bit < CHUNK_BITS; bit++) {
+            probe(_chunk, _value ^ (1 << bit), bit + 1, _remaining - 1, _hash, _maxDistance, _consumer);
+        }
+    }
+
+    private void scanBucket(int _chunk, int _bucket, long _hash, int _maxDistance, MatchConsumer _consumer) {
+        int[] slots = tables[_chunk][_bucket];
+        int size = bucketSizes[_chunk][_bucket];
+        int chunkDistance = _maxDistance / CHUNKS;
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            long hash = hashes[slot];
+            int distance = Long.bitCount(hash ^ _hash);
+            if (distance > _maxDistance || foundInPreviousTable(hash, _hash, _chunk, chunkDistance)) {
+                continue;
+            }
+            _consumer.accept(ids[slot], hash, distance);
+        }
+    }
+
+    /**
+     * Checks if the candidate has already been reported by one of the previous chunk tables.
+     */
+    private static boolean foundInPreviousTable(long _candidate, long _hash, int _chunk, int _chunkDistance) {
+        long diff = _candidate ^ _hash;
+        for (int c = 0; c < _chunk; c++) {
+            if (Integer.bitCount(chunk(diff, c)) <= _chunkDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write all entries of this index to the given file using a memory mapped buffer.
+     * The entries are written to a temporary file which replaces the given file afterwards
+     * (see {@link FileIoUtil#writeChannelAtomic}), so an existing index file is never left truncated.
+     *
+     * @param _file target file
+     * @throws IOException when writing fails
+     */
+    public void save(Path _file) throws IOException {
+        lock.readLock().lock();
+        try {
+            FileIoUtil.writeChannelAtomic(_file, channel -> {
+                int count = slotCount - freeCount;
+                MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) count * 2 * Long.BYTES);
+                buffer.putLong(FILE_MAGIC);
+                buffer.putLong(count);
+                LongBuffer data = buffer.asLongBuffer();
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (used[slot]) {
+                        data.put(hashes[slot]);
+                        data.put(ids[slot]);
+                    }
+                }
+                buffer.force();
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Create a new index from a file written by {@link #save(Path)}.
+     * The file is read using a memory mapped buffer, the index is built in parallel.
+     *
+     * @param _file file to read
+     * @return new index
+     * @throws IOException when file cannot be read or is invalid
+     */
+    public static HammingIndex load(Path _file) throws IOException {
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Invalid hamming index file: " + _file);
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getLong() != FILE_MAGIC) {
+                throw new IOException("Invalid hamming index file: " + _file);
+            }
+            long count = buffer.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE || HEADER_SIZE + count * 2 * Long.BYTES != fileSize) {
+                throw new IOException("Invalid or truncated hamming index file: " + _file);
+            }
+
+            long[] hashes = new long[(int) count];
+            long[] ids = new long[(int) count];
+            LongBuffer data = buffer.asLongBuffer();
+            for (int i = 0; i < count; i++) {
+                hashes[i] = data.get();
+                ids[i] = data.get();
+            }
+            return build(hashes, ids);
+        }
+    }
+
+    /**
+     * Receives the entries found by a query.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * Called for every matching entry.
+         *
+         * @param _id id of the entry
+         * @param _hash hash of the entry
+         * @param _distance Hamming distance to the queried hash
+         */
+        void accept(long _id, long _hash, int _distance);
+    }
+
+    /**
+     * Entry found by a query.
+     */
+    public static final class Match {
+        private final long id;
+        private final long hash;
+        private final int  distance;
+
+        Match(long _id, long _hash, int _distance) {
+            id = _id;
+            hash = _hash;
+            distance = _distance;
+        }
+
+        /**
+         * Id of the entry.
+         * @return long
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Hash of the entry.
+         * @return long
+         */
+        public long getHash() {
+            return hash;
+        }
+
+        /**
+         * Hamming distance to the queried hash.
+         * @return int
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [id=" + id + ", hash=" + AbstractImgHash.toHex(hash) + ", distance=" + distance + "]";
+        }
+    }
+}
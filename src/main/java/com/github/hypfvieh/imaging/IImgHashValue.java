@@ -0,0 +1,21 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Interface for image hashing implementations providing their hash as 64-bit value.
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+@FunctionalInterface
+public interface IImgHashValue {
+    /**
+     * Calculate the hash of given image.
+     * @param _image image to hash
+     * @return hash value
+     * @throws IOException when file processing fails
+     */
+    long computeHashValue(File _image) throws IOException;
+}
@@ -0,0 +1,103 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Interface for image hashing implementations which can hash images from different sources.
+ * <p>
+ * Encoded images (files, streams, byte arrays, buffers) are decoded using source subsampling
+ * based on {@link #getTargetWidth()} and {@link #getTargetHeight()}, streams are buffered in memory
+ * (no temporary files are created).
+ * {@link #hash(BufferedImage)} uses the same pixels of an already decoded image,
+ * so all methods return the same hash for the same image.
+ * </p>
+ * <p>
+ * Implementations usually keep reusable scratch buffers, so a hasher instance must not be used by multiple threads concurrently.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public interface IImgHasher {
+
+    /**
+     * Width the image is scaled to before hashing.
+     * @return width
+     */
+    int getTargetWidth();
+
+    /**
+     * Height the image is scaled to before hashing.
+     * @return height
+     */
+    int getTargetHeight();
+
+    /**
+     * Calculate the hash of the given image.
+     *
+     * @param _image image to hash
+     * @return hash value
+     */
+    long hash(BufferedImage _image);
+
+    /**
+     * Calculate the hash of the given image file.
+     *
+     * @param _image image file
+     * @return hash value
+     * @throws IOException when file cannot be read or is not a supported image
+     */
+    default long hash(File _image) throws IOException {
+        Objects.requireNonNull(_image, "Image file required");
+        return hash(AbstractImgHash.readImage(_image, getTargetWidth(), getTargetHeight()));
+    }
+
+    /**
+     * Calculate the hash of the image read from the given stream.
+     * The stream is read until the image is decoded but will not be closed.
+     *
+     * @param _input stream providing an encoded image
+     * @return hash value
+     * @throws IOException when stream cannot be read or does not contain a supported image
+     */
+    default long hash(InputStream _input) throws IOException {
+        Objects.requireNonNull(_input, "InputStream required");
+        try (ImageInputStream input = new MemoryCacheImageInputStream(_input)) {
+            return hash(AbstractImgHash.readImage(input, "InputStream", getTargetWidth(), getTargetHeight()));
+        }
+    }
+
+    /**
+     * Calculate the hash of the image contained in the given byte array.
+     *
+     * @param _data encoded image
+     * @return hash value
+     * @throws IOException when data does not contain a supported image
+     */
+    default long hash(byte[] _data) throws IOException {
+        Objects.requireNonNull(_data, "Data required");
+        return hash(new ByteArrayInputStream(_data));
+    }
+
+    /**
+     * Calculate the hash of the image contained in the remaining bytes of the given buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param _data encoded image
+     * @return hash value
+     * @throws IOException when data does not contain a supported image
+     */
+    default long hash(ByteBuffer _data) throws IOException {
+        Objects.requireNonNull(_data, "Data required");
+        return hash(AbstractImgHash.toInputStream(_data));
+    }
+}
@@ -10,6 +10,12 @@ public class ImageCompare {
 
     /**
      * Calculate hashes for _img1 and _img2 using _hasher and return the hamming distance as result.
+     * <p>
+     * The distance is the number of different characters of the hash strings (see {@link #calcHammingDistance(String, String)}).
+     * For hex hashes, every different character may be caused by up to four different bits.
+     * Use {@link #compareValuesWith(IImgHashValue, File, File)} or {@link #calcBitDistance(String, String)}
+     * to get the number of different bits.
+     * </p>
      *
      * @param _hasher hash implemenation to use
      * @param _img1 first image
@@ -30,9 +36,102 @@ public class ImageCompare {
         }
     }
 
+    /**
+     * Calculate hashes for _img1 and _img2 using _hasher and return the number of different bits as result.
+     * Unlike {@link #compareWith(IImgHash, File, File)} every different bit is counted.
+     *
+     * @param _hasher hash implemenation to use
+     * @param _img1 first image
+     * @param _img2 second image
+     * @return distance score
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static int compareValuesWith(IImgHashValue _hasher, File _img1, File _img2) {
+        Objects.requireNonNull(_hasher);
+        Objects.requireNonNull(_img1);
+        Objects.requireNonNull(_img2);
+
+        try {
+            return hammingDistance(_hasher.computeHashValue(_img1), _hasher.computeHashValue(_img2));
+        } catch (IOException _ex) {
+            throw new UncheckedIOException(_ex);
+        }
+    }
+
+    /**
+     * Calculate the hamming distance (number of different bits) of the two given hash values.
+     *
+     * @param _left first hash
+     * @param _right second hash
+     * @return distance score
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static int hammingDistance(long _left, long _right) {
+        return Long.bitCount(_left ^ _right);
+    }
+
+    /**
+     * Calculate the hamming distance (number of different bits) of the two given hash values.
+     * Both arrays must have the same length!
+     *
+     * @param _left first hash
+     * @param _right second hash
+     * @return distance score
+     * @throws IllegalArgumentException if arrays do not have same length
+     * @throws NullPointerException if either _left or _right is null
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static int hammingDistance(long[] _left, long[] _right) {
+        Objects.requireNonNull(_left, "Left hash should not be null");
+        Objects.requireNonNull(_right, "Right hash should not be null");
+
+        if (_left.length != _right.length) {
+            throw new IllegalArgumentException("Hashes must have the same length (left: " + _left.length + ", right: " + _right.length + ")");
+        }
+
+        int distance = 0;
+        for (int i = 0; i < _left.length; i++) {
+            distance += Long.bitCount(_left[i] ^ _right[i]);
+        }
+        return distance;
+    }
+
+    /**
+     * Calculate the number of different bits of the two given hex strings.
+     * String must have the same length!
+     *
+     * @param _left first checksum (hex)
+     * @param _right second checksum (hex)
+     * @return distance score
+     * @throws IllegalArgumentException if strings do not have same length or contain non-hex characters
+     * @throws NullPointerException if either _left or _right string is null
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static int calcBitDistance(String _left, String _right) {
+        Objects.requireNonNull(_left, "Left string should not be null");
+        Objects.requireNonNull(_right, "Right string should not be null");
+
+        if (_left.length() != _right.length()) {
+            throw new IllegalArgumentException("Strings must have the same length (left: " + _left.length() + ", right: " + _right.length() + ")");
+        }
+
+        int distance = 0;
+
+        for (int i = 0; i < _left.length(); i++) {
+            int left = Character.digit(_left.charAt(i), 16);
+            int right = Character.digit(_right.charAt(i), 16);
+            if (left < 0 || right < 0) {
+                throw new IllegalArgumentException("Strings must only contain hex characters (position: " + i + ")");
+            }
+            distance += Integer.bitCount(left ^ right);
+        }
+
+        return distance;
+    }
+
 
     /**
-     * Calculate the hamming distance of the two given strings.
+     * Calculate the hamming distance of the two given strings (number of different characters).
      * String must have the same length!
      * <p>
      * For further explanation about the Hamming Distance, take a look at its
@@ -0,0 +1,148 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.hypfvieh.util.FileIoUtil;
+
+/**
+ * Persistent cache of image hashes.
+ * <p>
+ * Every entry is keyed by the absolute path of the image and only valid as long as
+ * size and last modification time of the file did not change.
+ * The cache file also stores the name of the hash algorithm, a cache created with a different
+ * algorithm is ignored when loading.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+final class ImageHashCache {
+    private static final Logger     LOGGER  = LoggerFactory.getLogger(ImageHashCache.class);
+
+    private static final int        MAGIC   = 0x49484331; // IHC1
+
+    private final String            algorithm;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    ImageHashCache(String _algorithm) {
+        algorithm = _algorithm;
+    }
+
+    /**
+     * Load the cache from the given file.
+     * Returns an empty cache if file does not exist, is not readable or was created for another algorithm.
+     *
+     * @param _file cache file
+     * @param _algorithm algorithm name
+     * @return cache
+     */
+    static ImageHashCache load(Path _file, String _algorithm) {
+        ImageHashCache cache = new ImageHashCache(_algorithm);
+        if (_file == null || !Files.isRegularFile(_file)) {
+            return cache;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(_file)))) {
+            if (in.readInt() != MAGIC) {
+                LOGGER.warn("Ignoring image hash cache {}: unknown file format", _file);
+                return cache;
+            }
+            String algorithm = in.readUTF();
+            if (!_algorithm.equals(algorithm)) {
+                LOGGER.info("Ignoring image hash cache {}: created for algorithm {}", _file, algorithm);
+                return cache;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                cache.entries.put(path, new Entry(in.readLong(), in.readLong(), in.readLong()));
+            }
+        } catch (IOException _ex) {
+            LOGGER.warn("Ignoring unreadable image hash cache {}: {}", _file, _ex.getMessage());
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * Write the cache to the given file.
+     * The file is written to a temporary file first which is moved to the target afterwards
+     * (see {@link FileIoUtil#writeFileAtomic}).
+     *
+     * @param _file cache file
+     * @throws IOException when writing fails
+     */
+    void save(Path _file) throws IOException {
+        FileIoUtil.writeFileAtomic(_file, output -> {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeInt(MAGIC);
+            out.writeUTF(algorithm);
+            Map<String, Entry> snapshot = Map.copyOf(entries);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue().size);
+                out.writeLong(e.getValue().lastModified);
+                out.writeLong(e.getValue().hash);
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * Returns the cached hash of the given file.
+     *
+     * @param _path absolute path
+     * @param _size file size
+     * @param _lastModified last modification time (millis)
+     * @return hash or null if file is not cached or has changed
+     */
+    Long get(String _path, long _size, long _lastModified) {
+        Entry entry = entries.get(_path);
+        if (entry == null || entry.size != _size || entry.lastModified != _lastModified) {
+            return null;
+        }
+        return entry.hash;
+    }
+
+    void put(String _path, long _size, long _lastModified, long _hash) {
+        entries.put(_path, new Entry(_size, _lastModified, _hash));
+    }
+
+    /**
+     * Removes all entries with a path matching the given predicate.
+     *
+     * @param _filter filter
+     */
+    void removeIf(Predicate<String> _filter) {
+        entries.keySet().removeIf(_filter);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final long hash;
+
+        Entry(long _size, long _lastModified, long _hash) {
+            size = _size;
+            lastModified = _lastModified;
+            hash = _hash;
+        }
+    }
+}
@@ -3,8 +3,7 @@ package com.github.hypfvieh.imaging;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.Objects;
 
 /**
  * Class which implements AHash (average hash) algorithm to create hashes of images.
@@ -14,7 +13,12 @@ import javax.imageio.ImageIO;
  */
 public class ImgAHash extends AbstractImgHash {
 
-    private static final ImgAHash INSTANCE = new ImgAHash();
+    private static final int SIZE = 8;
+
+    private static final ThreadLocal<ImgAHash> INSTANCE = ThreadLocal.withInitial(ImgAHash::new);
+
+    private final double[] pixels = new double[SIZE * SIZE];
+    private final boolean[] bitMask = new boolean[SIZE * SIZE - 1];
 
     private ImgAHash() {
 
@@ -28,13 +32,46 @@ public class ImgAHash extends AbstractImgHash {
      * @throws IOException on any error when reading file
      */
     public static String computeHash(File _image) throws IOException {
-        BufferedImage bufferedImage = ImageIO.read(_image);
-        BufferedImage resizedImage = INSTANCE.resizeAndGrayScale(8, 8, bufferedImage);
+        return toHex(computeHashValue(_image));
+    }
+
+    /**
+     * Compute the AHash of the given file (which should be a valid image) as 64-bit value.
+     *
+     * @param _image image to hash
+     * @return hash value
+     * @throws IOException on any error when reading file
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static long computeHashValue(File _image) throws IOException {
+        return INSTANCE.get().hash(_image);
+    }
 
-        int[] d = INSTANCE.createPixelArray(resizedImage);
+    /**
+     * Returns the AHash hasher of the current thread.
+     * The hasher keeps its buffers for subsequent calls, it must not be used by other threads.
+     *
+     * @return hasher
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static ImgAHash forCurrentThread() {
+        return INSTANCE.get();
+    }
+
+    @Override
+    public int getTargetWidth() {
+        return SIZE;
+    }
 
-        String s = INSTANCE.hash(d);
-        return s;
+    @Override
+    public int getTargetHeight() {
+        return SIZE;
+    }
+
+    @Override
+    public long hash(BufferedImage _image) {
+        Objects.requireNonNull(_image, "Image required");
+        return hash(resizeAndGrayScale(SIZE, SIZE, _image, pixels));
     }
 
     /**
@@ -42,7 +79,7 @@ public class ImgAHash extends AbstractImgHash {
      * @param _pixelArray pixel array
      * @return mean
      */
-    private double calcMean(int[] _pixelArray) {
+    private double calcMean(double[] _pixelArray) {
         double sum = 0;
         for (int i = 0; i < _pixelArray.length; i++) {
             sum += _pixelArray[i];
@@ -54,27 +91,21 @@ public class ImgAHash extends AbstractImgHash {
      * Read the given pixel array and convert it to a hash.<br>
      * First the pixel array is converted to a boolean array (bitMask).<br>
      * Every true value in the array is calculated by comparing the pixel against<br>
-     * the next pixel (neighbor). If the current pixel is smaller than the next, true is set.<br>
+     * the mean of all pixels. If the current pixel is greater than the mean, true is set.<br>
      * <br>
-     * After that, the boolean array is converted to a long and returned as hex-string
+     * After that, the boolean array is converted to a long
      *
      * @param _pixelArray pixel array
-     * @return hex string
+     * @return hash value
      */
-    private String hash(int[] _pixelArray) {
-
-        boolean[] bitMask = new boolean[_pixelArray.length-1];
-
+    private long hash(double[] _pixelArray) {
         double mean = calcMean(_pixelArray);
 
-        for (int i = 0; i < _pixelArray.length - 1; i++) {
-            if (_pixelArray[i] > mean) {
-                bitMask[i] = true;
-            }
+        for (int i = 0; i < bitMask.length; i++) {
+            bitMask[i] = _pixelArray[i] > mean;
         }
 
-        return bitmaskToHex(bitMask, 16);
+        return bitmaskToLong(bitMask);
     }
 
-
 }
@@ -3,8 +3,7 @@ package com.github.hypfvieh.imaging;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.Objects;
 
 /**
  * Class which implements the DHash (difference hash) algorithm to create hashes of images.
@@ -14,9 +13,15 @@ import javax.imageio.ImageIO;
  */
 public class ImgDHash extends AbstractImgHash {
 
-    private static final ImgDHash INSTANCE = new ImgDHash();
+    private static final int WIDTH  = 9;
+    private static final int HEIGHT = 8;
+
+    private static final ThreadLocal<ImgDHash> INSTANCE = ThreadLocal.withInitial(ImgDHash::new);
+
+    private final double[] pixels = new double[WIDTH * HEIGHT];
+    private final boolean[] bitMask = new boolean[WIDTH * HEIGHT - 1];
 
-    // utility class, hide constructor
+    // use forCurrentThread()
     private ImgDHash() {
 
     }
@@ -29,14 +34,46 @@ public class ImgDHash extends AbstractImgHash {
      * @throws IOException on any error when reading file
      */
     public static String computeHash(File _image) throws IOException {
-        BufferedImage bufferedImage;
-        bufferedImage = ImageIO.read(_image);
-        BufferedImage resizedImage = INSTANCE.resizeAndGrayScale(9, 8, bufferedImage);
+        return toHex(computeHashValue(_image));
+    }
+
+    /**
+     * Compute the DHash of the given file (which should be a valid image) as 64-bit value.
+     *
+     * @param _image image to hash
+     * @return hash value
+     * @throws IOException on any error when reading file
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static long computeHashValue(File _image) throws IOException {
+        return INSTANCE.get().hash(_image);
+    }
 
-        int[] d = INSTANCE.createPixelArray(resizedImage);
+    /**
+     * Returns the DHash hasher of the current thread.
+     * The hasher keeps its buffers for subsequent calls, it must not be used by other threads.
+     *
+     * @return hasher
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static ImgDHash forCurrentThread() {
+        return INSTANCE.get();
+    }
+
+    @Override
+    public int getTargetWidth() {
+        return WIDTH;
+    }
 
-        String s = INSTANCE.hash(d);
-        return s;
+    @Override
+    public int getTargetHeight() {
+        return HEIGHT;
+    }
+
+    @Override
+    public long hash(BufferedImage _image) {
+        Objects.requireNonNull(_image, "Image required");
+        return hash(resizeAndGrayScale(WIDTH, HEIGHT, _image, pixels));
     }
 
     /**
@@ -45,27 +82,17 @@ public class ImgDHash extends AbstractImgHash {
      * Every true value in the array is calculated by comparing the pixel against<br>
      * the next pixel (neighbor). If the current pixel is smaller than the next, true is set.<br>
      * <br>
-     * After that, the boolean array is converted to a long and returned as hex-string
+     * After that, the boolean array is converted to a long
      *
      * @param _pixelArray pixel array
-     * @return hex string
+     * @return hash value
      */
-    private String hash(int[] _pixelArray) {
-
-        boolean[] bitMask = new boolean[_pixelArray.length-1];
-
-        for (int i = 0; i < _pixelArray.length - 1; i++) {
-            int n = i + 1;
-            if (n > _pixelArray.length -1) {
-                break;
-            }
-
-            if (_pixelArray[i] < _pixelArray[n]) {
-                bitMask[i] = true;
-            }
+    private long hash(double[] _pixelArray) {
+        for (int i = 0; i < bitMask.length; i++) {
+            bitMask[i] = _pixelArray[i] < _pixelArray[i + 1];
         }
 
-        return bitmaskToHex(bitMask, 16);
+        return bitmaskToLong(bitMask);
     }
 
 }
@@ -3,8 +3,8 @@ package com.github.hypfvieh.imaging;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Class which implements PHash (perceptual hash) algorithm to create hashes of images.
@@ -16,9 +16,17 @@ public class ImgPHash extends AbstractImgHash {
 
     private static final int REGULAR_SIZE = 32;
     private static final int SMALL_SIZE = 8;
-    private static double[] COEFFICIENTS = initCoefficients(REGULAR_SIZE);
+    private static final double[] COEFFICIENTS = initCoefficients(REGULAR_SIZE);
+    /** Cosine basis: COSINES[u][i] = cos((2i + 1) * u * PI / 2N), only the first SMALL_SIZE frequencies are needed. */
+    private static final double[][] COSINES = initCosines(SMALL_SIZE, REGULAR_SIZE);
+
+    private static final ThreadLocal<ImgPHash> INSTANCE = ThreadLocal.withInitial(ImgPHash::new);
 
-    private static final ImgPHash INSTANCE = new ImgPHash();
+    private final double[] pixels = new double[REGULAR_SIZE * REGULAR_SIZE];
+    private final double[][] vals = new double[REGULAR_SIZE][REGULAR_SIZE];
+    private final double[][] rowTransformed = new double[SMALL_SIZE][REGULAR_SIZE];
+    private final double[][] coefficients = new double[SMALL_SIZE][SMALL_SIZE];
+    private final boolean[] bitMask = new boolean[SMALL_SIZE * SMALL_SIZE];
 
     private ImgPHash() {
 
@@ -35,23 +43,52 @@ public class ImgPHash extends AbstractImgHash {
         return coeffi;
     }
 
+    private static double[][] initCosines(int _frequencies, int _size) {
+        double[][] cosines = new double[_frequencies][_size];
+        for (int u = 0; u < _frequencies; u++) {
+            for (int i = 0; i < _size; i++) {
+                cosines[u][i] = Math.cos(((2 * i + 1) / (2.0 * _size)) * u * Math.PI);
+            }
+        }
+        return cosines;
+    }
+
+    /**
+     * Applies the two dimensional DCT-II to the given matrix.
+     * The transformation is done separately for rows and columns and only
+     * the low frequency SMALL_SIZE x SMALL_SIZE coefficients used by the hash are calculated.
+     *
+     * @param f input matrix (REGULAR_SIZE x REGULAR_SIZE)
+     * @return coefficients (SMALL_SIZE x SMALL_SIZE)
+     */
     private double[][] applyDCT(double[][] f) {
-        int nSize = REGULAR_SIZE;
+        // transform along the first dimension: rowTransformed[u][j] = sum(i) cos(u, i) * f[i][j]
+        for (int u = 0; u < SMALL_SIZE; u++) {
+            double[] cos = COSINES[u];
+            double[] row = rowTransformed[u];
+            Arrays.fill(row, 0d);
+            for (int i = 0; i < REGULAR_SIZE; i++) {
+                double c = cos[i];
+                double[] fi = f[i];
+                for (int j = 0; j < REGULAR_SIZE; j++) {
+                    row[j] += c * fi[j];
+                }
+            }
+        }
 
-        double[][] result = new double[nSize][nSize];
-        for (int u = 0; u < nSize; u++) {
-            for (int v = 0; v < nSize; v++) {
+        // transform along the second dimension
+        for (int u = 0; u < SMALL_SIZE; u++) {
+            double[] row = rowTransformed[u];
+            for (int v = 0; v < SMALL_SIZE; v++) {
+                double[] cos = COSINES[v];
                 double sum = 0.0;
-                for (int i = 0; i < nSize; i++) {
-                    for (int j = 0; j < nSize; j++) {
-                        sum += Math.cos(((2 * i + 1) / (2.0 * nSize)) * u * Math.PI) * Math.cos(((2 * j + 1) / (2.0 * nSize)) * v * Math.PI) * (f[i][j]);
-                    }
+                for (int j = 0; j < REGULAR_SIZE; j++) {
+                    sum += cos[j] * row[j];
                 }
-                sum *= ((COEFFICIENTS[u] * COEFFICIENTS[v]) / 4.0);
-                result[u][v] = sum;
+                coefficients[u][v] = sum * ((COEFFICIENTS[u] * COEFFICIENTS[v]) / 4.0);
             }
         }
-        return result;
+        return coefficients;
     }
 
     /**
@@ -62,23 +99,57 @@ public class ImgPHash extends AbstractImgHash {
      * @throws IOException on any error when reading file
      */
     public static String computeHash(File _image) throws IOException {
-        BufferedImage bufferedImage = ImageIO.read(_image);
-        BufferedImage resizedImage = INSTANCE.resizeAndGrayScale(REGULAR_SIZE, REGULAR_SIZE, bufferedImage);
+        return toHex(computeHashValue(_image));
+    }
 
-        return INSTANCE.hash(resizedImage);
+    /**
+     * Compute the PHash of the given file (which should be a valid image) as 64-bit value.
+     *
+     * @param _image image to hash
+     * @return hash value
+     * @throws IOException on any error when reading file
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static long computeHashValue(File _image) throws IOException {
+        return INSTANCE.get().hash(_image);
     }
 
     /**
-     * Creates hash of the given buffered image.
-     * @param _resizedImg image
-     * @return hash string
+     * Returns the PHash hasher of the current thread.
+     * The hasher keeps its buffers for subsequent calls, it must not be used by other threads.
+     *
+     * @return hasher
+     * @since v1.2.2 - 2026-10-19
      */
-    private String hash(BufferedImage _resizedImg) {
-        double[][] vals = new double[REGULAR_SIZE][REGULAR_SIZE];
+    public static ImgPHash forCurrentThread() {
+        return INSTANCE.get();
+    }
+
+    @Override
+    public int getTargetWidth() {
+        return REGULAR_SIZE;
+    }
 
-        for (int x = 0; x < _resizedImg.getWidth(); x++) {
-            for (int y = 0; y < _resizedImg.getHeight(); y++) {
-                vals[x][y] = _resizedImg.getRGB(x, y);
+    @Override
+    public int getTargetHeight() {
+        return REGULAR_SIZE;
+    }
+
+    @Override
+    public long hash(BufferedImage _image) {
+        Objects.requireNonNull(_image, "Image required");
+        return hash(resizeAndGrayScale(REGULAR_SIZE, REGULAR_SIZE, _image, pixels));
+    }
+
+    /**
+     * Creates hash of the given gray scaled pixels.
+     * @param _pixels pixels of the resized image, read from top to bottom, left to right
+     * @return hash value
+     */
+    private long hash(double[] _pixels) {
+        for (int y = 0; y < REGULAR_SIZE; y++) {
+            for (int x = 0; x < REGULAR_SIZE; x++) {
+                vals[x][y] = _pixels[y * REGULAR_SIZE + x];
             }
         }
 
@@ -95,8 +166,6 @@ public class ImgPHash extends AbstractImgHash {
 
         double avg = total / ((SMALL_SIZE * SMALL_SIZE) - 1);
 
-        boolean[] bitMask = new boolean[SMALL_SIZE * SMALL_SIZE];
-
         int c = 0;
         for (int x = 0; x < SMALL_SIZE; x++) {
             for (int y = 0; y < SMALL_SIZE; y++) {
@@ -106,6 +175,6 @@ public class ImgPHash extends AbstractImgHash {
             }
         }
 
-        return bitmaskToHex(bitMask, 16);
+        return bitmaskToLong(bitMask);
     }
 }
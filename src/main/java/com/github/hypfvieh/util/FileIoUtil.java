@@ -6,21 +6,35 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.hypfvieh.common.SearchOrder;
+import com.github.hypfvieh.function.IThrowingConsumer;
 
 
 public final class FileIoUtil {
@@ -464,6 +478,114 @@ public final class FileIoUtil {
         return writeTextFile(_fileName, _fileContent, Charset.defaultCharset(), _append);
     }
 
+    /**
+     * Writes a file atomically.
+     * <p>
+     * The data is written to a temporary file in the same directory which replaces the target afterwards,
+     * so readers will either see the old or the new content, but never a partially written file.
+     * The temporary file is forced to the storage device before it replaces the target,
+     * so the target is not left empty or partially written after a crash or power loss either.
+     * </p>
+     * <p>
+     * If the target is a symbolic link, the file the link points to is replaced and the link is kept.
+     * If the target already exists, its POSIX permissions, owner and group are copied to the new file
+     * (owner and group are only changed if the current user is allowed to).
+     * New files are created with the default permissions.
+     * </p>
+     *
+     * @param _target file to write
+     * @param _writer writes the content to the given stream, the stream is closed afterwards (closing it in the writer has no effect)
+     * @throws IOException when writing or replacing the file fails
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static void writeFileAtomic(Path _target, IThrowingConsumer<OutputStream, IOException> _writer) throws IOException {
+        writeChannelAtomic(_target, channel -> {
+            OutputStream output = Channels.newOutputStream(channel);
+            // closing the stream would close the channel before its content is forced to disk
+            _writer.accept(new FilterOutputStream(output) {
+                @Override
+                public void write(byte[] _b, int _off, int _len) throws IOException {
+                    out.write(_b, _off, _len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            });
+        });
+    }
+
+    /**
+     * Writes a file atomically using a {@link FileChannel}.
+     * <p>
+     * Works like {@link #writeFileAtomic(Path, IThrowingConsumer)}, but the channel is opened
+     * for reading and writing, so it can also be used with memory mapped buffers.
+     * </p>
+     *
+     * @param _target file to write
+     * @param _writer writes the content to the given channel, the channel is closed afterwards
+     * @throws IOException when writing or replacing the file fails
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static void writeChannelAtomic(Path _target, IThrowingConsumer<FileChannel, IOException> _writer) throws IOException {
+        Path target = _target.toAbsolutePath();
+        boolean exists = Files.exists(target);
+        if (exists) {
+            target = target.toRealPath();
+        }
+
+        Path tmp = createSiblingFile(target);
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                _writer.accept(channel);
+                // content has to be on disk before the rename, otherwise a crash may leave an empty target
+                channel.force(true);
+            }
+            if (exists) {
+                copyPosixAttributes(target, tmp);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException _ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Creates a new empty file next to the given file.
+     * Unlike {@link Files#createTempFile(Path, String, String)} the file is created with default permissions.
+     */
+    private static Path createSiblingFile(Path _file) throws IOException {
+        while (true) {
+            Path tmp = _file.resolveSibling(_file.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                return Files.createFile(tmp);
+            } catch (FileAlreadyExistsException _ex) {
+                // try next name
+            }
+        }
+    }
+
+    private static void copyPosixAttributes(Path _source, Path _target) throws IOException {
+        PosixFileAttributeView targetView = Files.getFileAttributeView(_target, PosixFileAttributeView.class);
+        if (targetView == null) {
+            return;
+        }
+        PosixFileAttributes attributes = Files.readAttributes(_source, PosixFileAttributes.class);
+        try {
+            targetView.setGroup(attributes.group());
+            targetView.setOwner(attributes.owner());
+        } catch (IOException _ex) {
+            LOGGER.debug("Unable to copy owner/group of {} to {}", _source, _target, _ex);
+        }
+        // set permissions last, a changed owner may restrict access otherwise
+        targetView.setPermissions(attributes.permissions());
+    }
+
     /**
      * Read a file from different sources depending on _searchOrder.
      * Will return the first successfully read file which can be loaded either from custom path, classpath or system path.
@@ -0,0 +1,701 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Writes DOM {@link Document}s or {@link Node}s as XML.
+ * <p>
+ * This is a replacement for the JAXP {@link javax.xml.transform.Transformer} which is slow
+ * and creates lots of objects when writing large documents.
+ * The output is formatted while walking the DOM and written directly to a buffered {@link Writer}
+ * or to any {@link XMLStreamWriter}.
+ * </p>
+ * <p>
+ * Formatting rules when indenting:
+ * </p>
+ * <ul>
+ *  <li>each element is written on its own line</li>
+ *  <li>whitespace-only text between elements is replaced by the indentation</li>
+ *  <li>elements containing text (mixed content) are written as they are, without additional whitespace</li>
+ * </ul>
+ * <p>
+ * Characters which cannot be represented in the output encoding are written as character references
+ * ({@code &#N;}) in text and attribute values. CDATA sections are split where required.
+ * Comments cannot contain escaped characters, so comments containing {@code --}, ending with {@code -}
+ * or containing characters not supported by the encoding are rejected.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class XmlDocumentWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int        indent;
+    private final boolean    xmlDeclaration;
+    private final Charset    encoding;
+
+    /**
+     * Creates a writer using the same settings as {@link XmlUtil#printDocument(Node, OutputStream)}
+     * (indent of 4 spaces, with XML declaration, UTF-8).
+     */
+    public XmlDocumentWriter() {
+        this(4, true, StandardCharsets.UTF_8);
+    }
+
+    private XmlDocumentWriter(int _indent, boolean _xmlDeclaration, Charset _encoding) {
+        indent = _indent;
+        xmlDeclaration = _xmlDeclaration;
+        encoding = _encoding;
+    }
+
+    /**
+     * Number of spaces used for indentation, 0 to disable formatting.
+     *
+     * @param _indent indentation
+     * @return new writer using the given setting
+     */
+    public XmlDocumentWriter withIndent(int _indent) {
+        if (_indent < 0) {
+            throw new IllegalArgumentException("Indent must not be negative");
+        }
+        return new XmlDocumentWriter(_indent, xmlDeclaration, encoding);
+    }
+
+    /**
+     * Write XML declaration.
+     *
+     * @param _xmlDeclaration true to write declaration
+     * @return new writer using the given setting
+     */
+    public XmlDocumentWriter withXmlDeclaration(boolean _xmlDeclaration) {
+        return new XmlDocumentWriter(indent, _xmlDeclaration, encoding);
+    }
+
+    /**
+     * Encoding used when writing to an {@link OutputStream}.
+     * Characters not supported by the encoding are written as character references.
+     *
+     * @param _encoding encoding
+     * @return new writer using the given setting
+     */
+    public XmlDocumentWriter withEncoding(Charset _encoding) {
+        return new XmlDocumentWriter(indent, xmlDeclaration, Objects.requireNonNull(_encoding, "Encoding required"));
+    }
+
+    /**
+     * Write the given document or node to the given stream.
+     * The stream is flushed but not closed.
+     *
+     * @param _docOrNode {@link Document} or {@link Node} object
+     * @param _outStream stream to write to
+     * @throws IOException on error
+     */
+    public void write(Node _docOrNode, OutputStream _outStream) throws IOException {
+        if (_docOrNode == null || _outStream == null) {
+            throw new IOException("Cannot print (on) 'null' object");
+        }
+        write(_docOrNode, new OutputStreamWriter(_outStream, encoding), encoding);
+    }
+
+    /**
+     * Write the given document or node to the given writer.
+     * The output is written directly to the (buffered) writer without using a {@link XMLStreamWriter}.
+     * The writer is flushed but not closed.
+     * <p>
+     * If the writer is an {@link OutputStreamWriter}, its encoding is used in the XML declaration
+     * and characters not supported by its encoding are written as character references.
+     * Otherwise the configured encoding is declared.
+     * </p>
+     *
+     * @param _docOrNode {@link Document} or {@link Node} object
+     * @param _writer writer to write to
+     * @throws IOException on error
+     */
+    public void write(Node _docOrNode, Writer _writer) throws IOException {
+        if (_docOrNode == null || _writer == null) {
+            throw new IOException("Cannot print (on) 'null' object");
+        }
+        Charset writerEncoding = null;
+        if (_writer instanceof OutputStreamWriter) {
+            try {
+                writerEncoding = Charset.forName(((OutputStreamWriter) _writer).getEncoding());
+            } catch (IllegalArgumentException _ex) {
+                // unknown historical name, write unchecked
+            }
+        }
+        write(_docOrNode, _writer, writerEncoding);
+    }
+
+    private void write(Node _docOrNode, Writer _writer, Charset _writerEncoding) throws IOException {
+        Writer buffered = _writer instanceof BufferedWriter ? _writer : new BufferedWriter(_writer, BUFFER_SIZE);
+        WriterSink sink = new WriterSink(buffered, createEncoder(_writerEncoding));
+        try {
+            write(_docOrNode, sink, _writerEncoding != null ? _writerEncoding : encoding);
+        } catch (XMLStreamException _ex) {
+            throw new IOException("Could not print Document or Node.", _ex);
+        } catch (UncheckedIOException _ex) {
+            throw _ex.getCause();
+        }
+        buffered.flush();
+    }
+
+    /**
+     * Write the given document or node to the given {@link XMLStreamWriter}.
+     * The writer is flushed but not closed.
+     *
+     * @param _docOrNode {@link Document} or {@link Node} object
+     * @param _xmlWriter writer to write to
+     * @throws XMLStreamException on error
+     */
+    public void write(Node _docOrNode, XMLStreamWriter _xmlWriter) throws XMLStreamException {
+        Objects.requireNonNull(_docOrNode, "Node required");
+        write(_docOrNode, new StaxSink(Objects.requireNonNull(_xmlWriter, "XMLStreamWriter required")), encoding);
+    }
+
+    /**
+     * Writes the node to the given sink.
+     * The given encoding is used in the XML declaration, it has to match the encoding of the output.
+     */
+    private void write(Node _docOrNode, Sink _sink, Charset _declaredEncoding) throws XMLStreamException {
+        if (xmlDeclaration) {
+            String version = _docOrNode instanceof Document && ((Document) _docOrNode).getXmlVersion() != null
+                ? ((Document) _docOrNode).getXmlVersion() : "1.0";
+            _sink.startDocument(_declaredEncoding.name(), version);
+            if (indent > 0) {
+                _sink.whitespace("\n");
+            }
+        }
+
+        IndentCache indents = new IndentCache(indent);
+        if (_docOrNode instanceof Document) {
+            writeChildren(_docOrNode, _sink, 0, indents, true);
+        } else {
+            writeNode(_docOrNode, _sink, 0, indents);
+        }
+
+        if (xmlDeclaration) {
+            _sink.endDocument();
+        }
+        if (indent > 0) {
+            _sink.whitespace("\n");
+        }
+        _sink.flush();
+    }
+
+    /**
+     * Creates an encoder to check which characters have to be written as character references.
+     * Returns null for Unicode encodings, which support all characters.
+     */
+    private static CharsetEncoder createEncoder(Charset _charset) {
+        if (_charset == null || _charset.name().startsWith("UTF-") || !_charset.canEncode()) {
+            return null;
+        }
+        return _charset.newEncoder();
+    }
+
+    private void writeNode(Node _node, Sink _sink, int _level, IndentCache _indents) throws XMLStreamException {
+        switch (_node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement(_node, _sink, _level, _indents);
+                break;
+            case Node.TEXT_NODE:
+                _sink.text(_node.getNodeValue());
+                break;
+            case Node.CDATA_SECTION_NODE:
+                _sink.cdata(_node.getNodeValue());
+                break;
+            case Node.COMMENT_NODE:
+                String comment = _node.getNodeValue();
+                if (comment.contains("--") || comment.endsWith("-")) {
+                    throw new XMLStreamException("Comment must not contain '--' or end with '-': " + comment);
+                }
+                _sink.comment(comment);
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                _sink.processingInstruction(_node.getNodeName(), _node.getNodeValue());
+                break;
+            case Node.ENTITY_REFERENCE_NODE:
+                _sink.entityRef(_node.getNodeName());
+                break;
+            case Node.DOCUMENT_TYPE_NODE:
+                writeDocumentType((DocumentType) _node, _sink);
+                break;
+            default:
+                writeChildren(_node, _sink, _level, _indents, false);
+                break;
+        }
+    }
+
+    private void writeElement(Node _node, Sink _sink, int _level, IndentCache _indents) throws XMLStreamException {
+        boolean empty = !_node.hasChildNodes();
+        _sink.startElement(_node.getNodeName(), empty);
+
+        NamedNodeMap attributes = _node.getAttributes();
+        for (int i = 0; attributes != null && i < attributes.getLength(); i++) {
+            Node attr = attributes.item(i);
+            _sink.attribute(attr.getNodeName(), attr.getNodeValue());
+        }
+
+        if (empty) {
+            return;
+        }
+
+        boolean format = indent > 0 && !hasText(_node) && hasNonTextChildren(_node);
+        writeChildren(_node, _sink, _level + 1, _indents, format);
+        if (format) {
+            _sink.whitespace(_indents.get(_level));
+        }
+        _sink.endElement(_node.getNodeName());
+    }
+
+    private void writeChildren(Node _node, Sink _sink, int _level, IndentCache _indents, boolean _format) throws XMLStreamException {
+        boolean first = true;
+        for (Node child = _node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (_format) {
+                if (child.getNodeType() == Node.TEXT_NODE) {
+                    // only whitespace, will be replaced by indentation
+                    continue;
+                }
+                // document level: no line break before first node (declaration already ends with line break)
+                if (_level > 0 || !first) {
+                    _sink.whitespace(_indents.get(_level));
+                }
+                first = false;
+            }
+            writeNode(child, _sink, _level, _indents);
+        }
+    }
+
+    private static void writeDocumentType(DocumentType _docType, Sink _sink) throws XMLStreamException {
+        if (_docType.getSystemId() == null && _docType.getInternalSubset() == null) {
+            return;
+        }
+        StringBuilder dtd = new StringBuilder("<!DOCTYPE ").append(_docType.getName());
+        if (_docType.getPublicId() != null) {
+            dtd.append(" PUBLIC \"").append(_docType.getPublicId()).append("\" \"").append(_docType.getSystemId()).append('"');
+        } else if (_docType.getSystemId() != null) {
+            dtd.append(" SYSTEM \"").append(_docType.getSystemId()).append('"');
+        }
+        if (_docType.getInternalSubset() != null) {
+            dtd.append(" [").append(_docType.getInternalSubset()).append(']');
+        }
+        _sink.dtd(dtd.append('>').toString());
+    }
+
+    /**
+     * Checks if the node contains text which is not only whitespace (mixed content).
+     */
+    private static boolean hasText(Node _node) {
+        for (Node child = _node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.TEXT_NODE && !child.getNodeValue().isBlank()
+                || child.getNodeType() == Node.CDATA_SECTION_NODE
+                || child.getNodeType() == Node.ENTITY_REFERENCE_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNonTextChildren(Node _node) {
+        for (Node child = _node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.TEXT_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Line break followed by indentation for each level, created on demand.
+     */
+    private static final class IndentCache {
+        private final int indent;
+        private String[]  indents = new String[16];
+
+        IndentCache(int _indent) {
+            indent = _indent;
+        }
+
+        String get(int _level) {
+            if (_level >= indents.length) {
+                indents = Arrays.copyOf(indents, Math.max(_level + 1, indents.length * 2));
+            }
+            String str = indents[_level];
+            if (str == null) {
+                char[] chars = new char[1 + _level * indent];
+                Arrays.fill(chars, ' ');
+                chars[0] = '\n';
+                str = new String(chars);
+                indents[_level] = str;
+            }
+            return str;
+        }
+    }
+
+    /**
+     * Receiver of the serialized nodes.
+     */
+    private interface Sink {
+        void startDocument(String _encoding, String _version) throws XMLStreamException;
+
+        void endDocument() throws XMLStreamException;
+
+        void startElement(String _name, boolean _empty) throws XMLStreamException;
+
+        void attribute(String _name, String _value) throws XMLStreamException;
+
+        void endElement(String _name) throws XMLStreamException;
+
+        void text(String _text) throws XMLStreamException;
+
+        /** Whitespace used for formatting, never requires escaping. */
+        void whitespace(String _whitespace) throws XMLStreamException;
+
+        void cdata(String _data) throws XMLStreamException;
+
+        void comment(String _comment) throws XMLStreamException;
+
+        void processingInstruction(String _target, String _data) throws XMLStreamException;
+
+        void entityRef(String _name) throws XMLStreamException;
+
+        void dtd(String _dtd) throws XMLStreamException;
+
+        void flush() throws XMLStreamException;
+    }
+
+    /**
+     * Delegates to a {@link XMLStreamWriter}.
+     */
+    private static final class StaxSink implements Sink {
+        private final XMLStreamWriter writer;
+
+        StaxSink(XMLStreamWriter _writer) {
+            writer = _writer;
+        }
+
+        @Override
+        public void startDocument(String _encoding, String _version) throws XMLStreamException {
+            writer.writeStartDocument(_encoding, _version);
+        }
+
+        @Override
+        public void endDocument() throws XMLStreamException {
+            writer.writeEndDocument();
+        }
+
+        @Override
+        public void startElement(String _name, boolean _empty) throws XMLStreamException {
+            if (_empty) {
+                writer.writeEmptyElement(_name);
+            } else {
+                writer.writeStartElement(_name);
+            }
+        }
+
+        @Override
+        public void attribute(String _name, String _value) throws XMLStreamException {
+            writer.writeAttribute(_name, _value);
+        }
+
+        @Override
+        public void endElement(String _name) throws XMLStreamException {
+            writer.writeEndElement();
+        }
+
+        @Override
+        public void text(String _text) throws XMLStreamException {
+            writer.writeCharacters(_text);
+        }
+
+        @Override
+        public void whitespace(String _whitespace) throws XMLStreamException {
+            writer.writeCharacters(_whitespace);
+        }
+
+        @Override
+        public void cdata(String _data) throws XMLStreamException {
+            writer.writeCData(_data);
+        }
+
+        @Override
+        public void comment(String _comment) throws XMLStreamException {
+            writer.writeComment(_comment);
+        }
+
+        @Override
+        public void processingInstruction(String _target, String _data) throws XMLStreamException {
+            writer.writeProcessingInstruction(_target, _data);
+        }
+
+        @Override
+        public void entityRef(String _name) throws XMLStreamException {
+            writer.writeEntityRef(_name);
+        }
+
+        @Override
+        public void dtd(String _dtd) throws XMLStreamException {
+            writer.writeDTD(_dtd);
+        }
+
+        @Override
+        public void flush() throws XMLStreamException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes directly to a {@link Writer}, escaping only where required.
+     * {@link IOException}s are thrown as {@link UncheckedIOException}.
+     */
+    private static final class WriterSink implements Sink {
+        private final Writer         writer;
+        /** Encoder of the output encoding, null if all characters can be written. */
+        private final CharsetEncoder encoder;
+        /** True while the start tag of the current element is not closed (attributes may follow). */
+        private boolean              tagOpen;
+        private boolean              tagEmpty;
+
+        WriterSink(Writer _writer, CharsetEncoder _encoder) {
+            writer = _writer;
+            encoder = _encoder;
+        }
+
+        @Override
+        public void startDocument(String _encoding, String _version) {
+            write("<?xml version=\"" + _version + "\" encoding=\"" + _encoding + "\"?>");
+        }
+
+        @Override
+        public void endDocument() {
+            closeTag();
+        }
+
+        @Override
+        public void startElement(String _name, boolean _empty) {
+            closeTag();
+            write('<');
+            write(_name);
+            tagOpen = true;
+            tagEmpty = _empty;
+        }
+
+        @Override
+        public void attribute(String _name, String _value) {
+            write(' ');
+            write(_name);
+            write("=\"");
+            escape(_value, true);
+            write('"');
+        }
+
+        @Override
+        public void endElement(String _name) {
+            closeTag();
+            write("</");
+            write(_name);
+            write('>');
+        }
+
+        @Override
+        public void text(String _text) {
+            closeTag();
+            escape(_text, false);
+        }
+
+        @Override
+        public void whitespace(String _whitespace) {
+            closeTag();
+            write(_whitespace);
+        }
+
+        @Override
+        public void cdata(String _data) {
+            closeTag();
+            write("<![CDATA[");
+            int len = _data.length();
+            int start = 0;
+            for (int i = 0; i < len; i++) {
+                char c = _data.charAt(i);
+                if (c == ']' && _data.startsWith("]]>", i)) {
+                    // end marker cannot be part of a section, split between ']]' and '>'
+                    write(_data, start, i + 2 - start);
+                    write("]]><![CDATA[");
+                    start = i + 2;
+                    i++;
+                } else if (c >= 0x80 && encoder != null) {
+                    int charCount = Character.isHighSurrogate(c) && i + 1 < len ? 2 : 1;
+                    if (!canEncode(_data, i, charCount)) {
+                        // character references are not resolved inside CDATA, write it between two sections
+                        write(_data, start, i - start);
+                        write("]]>");
+                        writeCharRef(_data.codePointAt(i));
+                        write("<![CDATA[");
+                        start = i + charCount;
+                    }
+                    i += charCount - 1;
+                }
+            }
+            write(_data, start, len - start);
+            write("]]>");
+        }
+
+        @Override
+        public void comment(String _comment) throws XMLStreamException {
+            if (encoder != null && !encoder.canEncode(_comment)) {
+                throw new XMLStreamException("Comment contains characters not supported by the output encoding: " + _comment);
+            }
+            closeTag();
+            write("<!--");
+            write(_comment);
+            write("-->");
+        }
+
+        @Override
+        public void processingInstruction(String _target, String _data) {
+            closeTag();
+            write("<?");
+            write(_target);
+            if (_data != null && !_data.isEmpty()) {
+                write(' ');
+                write(_data);
+            }
+            write("?>");
+        }
+
+        @Override
+        public void entityRef(String _name) {
+            closeTag();
+            write('&');
+            write(_name);
+            write(';');
+        }
+
+        @Override
+        public void dtd(String _dtd) {
+            closeTag();
+            write(_dtd);
+        }
+
+        @Override
+        public void flush() {
+            closeTag();
+            try {
+                writer.flush();
+            } catch (IOException _ex) {
+                throw new UncheckedIOException(_ex);
+            }
+        }
+
+        private void closeTag() {
+            if (tagOpen) {
+                write(tagEmpty ? "/>" : ">");
+                tagOpen = false;
+            }
+        }
+
+        private void escape(String _str, boolean _attribute) {
+            int len = _str.length();
+            int start = 0;
+            for (int i = 0; i < len; i++) {
+                String replacement;
+                switch (_str.charAt(i)) {
+                    case '&':
+                        replacement = "&amp;";
+                        break;
+                    case '<':
+                        replacement = "&lt;";
+                        break;
+                    case '>':
+                        replacement = "&gt;";
+                        break;
+                    case '"':
+                        replacement = _attribute ? "&quot;" : null;
+                        break;
+                    case '\r':
+                        replacement = "&#13;";
+                        break;
+                    case '\n':
+                        replacement = _attribute ? "&#10;" : null;
+                        break;
+                    case '\t':
+                        replacement = _attribute ? "&#9;" : null;
+                        break;
+                    default:
+                        replacement = null;
+                        break;
+                }
+                if (replacement != null) {
+                    write(_str, start, i - start);
+                    write(replacement);
+                    start = i + 1;
+                } else if (encoder != null && _str.charAt(i) >= 0x80) {
+                    int charCount = Character.isHighSurrogate(_str.charAt(i)) && i + 1 < len ? 2 : 1;
+                    if (!canEncode(_str, i, charCount)) {
+                        write(_str, start, i - start);
+                        writeCharRef(_str.codePointAt(i));
+                        start = i + charCount;
+                    }
+                    i += charCount - 1;
+                }
+            }
+            write(_str, start, len - start);
+        }
+
+        private boolean canEncode(String _str, int _idx, int _charCount) {
+            return _charCount == 1 ? encoder.canEncode(_str.charAt(_idx)) : encoder.canEncode(_str.subSequence(_idx, _idx + _charCount));
+        }
+
+        private void writeCharRef(int _codePoint) {
+            write("&#");
+            write(Integer.toString(_codePoint));
+            write(';');
+        }
+
+        private void write(String _str) {
+            write(_str, 0, _str.length());
+        }
+
+        private void write(String _str, int _off, int _len) {
+            if (_len == 0) {
+                return;
+            }
+            try {
+                writer.write(_str, _off, _len);
+            } catch (IOException _ex) {
+                throw new UncheckedIOException(_ex);
+            }
+        }
+
+        private void write(char _c) {
+            try {
+                writer.write(_c);
+            } catch (IOException _ex) {
+                throw new UncheckedIOException(_ex);
+            }
+        }
+    }
+}
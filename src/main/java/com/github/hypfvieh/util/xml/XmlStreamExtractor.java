@@ -0,0 +1,589 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Extracts values from XML input using a small subset of XPath without creating a DOM.
+ * <p>
+ * The input is read using StAX, only the elements on the current path and the text
+ * of currently matching elements are kept in memory. This allows extracting values from
+ * XML files of any size.
+ * </p>
+ * <p>
+ * Supported expressions are absolute paths of child steps:
+ * </p>
+ * <ul>
+ *  <li><code>/feed/record/id</code> - text of all id elements</li>
+ *  <li><code>/feed/*&#47;id</code> - any element name on a step</li>
+ *  <li><code>/feed/record/@type</code> - value of attribute type of all record elements</li>
+ *  <li><code>/feed/record[@type='book']/title</code> - predicate on attribute value</li>
+ *  <li><code>/feed/record[@id]/title</code> - predicate on existence of attribute</li>
+ * </ul>
+ * <p>
+ * The text of an element contains the text of all descendants (like {@link org.w3c.dom.Node#getTextContent()}).
+ * Matches are reported in document order when the element is closed (text) or opened (attribute).
+ * Namespaces are not resolved, prefixed element names have to be given including prefix.
+ * DTDs are not processed.
+ * </p>
+ * <p>
+ * Instances are immutable and can be used by multiple threads concurrently.
+ * </p>
+ *
+ * Sample usage:<br>
+ * <pre>
+ * XmlStreamExtractor extractor = XmlStreamExtractor.compile("/feed/record/id", "/feed/record/@type");
+ * extractor.extract(Paths.get("feed.xml"), match -&gt; System.out.println(match.getExpression() + " = " + match.getValue()));
+ * </pre>
+ *
+ * @author hypfvieh
+ * @since v1.2.2 - 2026-10-19
+ */
+public final class XmlStreamExtractor {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final List<PathExpression>   expressions;
+
+    private XmlStreamExtractor(List<PathExpression> _expressions) {
+        expressions = _expressions;
+    }
+
+    /**
+     * Creates a new extractor for the given expressions.
+     *
+     * @param _expressions expressions
+     * @return extractor
+     * @throws IllegalArgumentException if any expression is invalid or unsupported
+     */
+    public static XmlStreamExtractor compile(String... _expressions) {
+        if (_expressions == null || _expressions.length == 0) {
+            throw new IllegalArgumentException("At least one expression required");
+        }
+        List<PathExpression> exprs = new ArrayList<>();
+        for (int i = 0; i < _expressions.length; i++) {
+            exprs.add(PathExpression.parse(i, _expressions[i]));
+        }
+        return new XmlStreamExtractor(Collections.unmodifiableList(exprs));
+    }
+
+    /**
+     * Read the given input and call the handler for each match.
+     * The input stream is not closed.
+     *
+     * @param _input input
+     * @param _handler called for each match
+     * @throws IOException if reading fails or input is not valid XML
+     */
+    public void extract(InputStream _input, Consumer<Match> _handler) throws IOException {
+        Objects.requireNonNull(_handler, "Handler required");
+        ExtractorState state = new ExtractorState(createReader(_input));
+        try {
+            while (state.next(_handler)) {
+                // continue until end of document
+            }
+        } finally {
+            state.close();
+        }
+    }
+
+    /**
+     * Read the given file and call the handler for each match.
+     *
+     * @param _file file to read
+     * @param _handler called for each match
+     * @throws IOException if reading fails or input is not valid XML
+     */
+    public void extract(Path _file, Consumer<Match> _handler) throws IOException {
+        try (InputStream input = Files.newInputStream(_file)) {
+            extract(input, _handler);
+        }
+    }
+
+    /**
+     * Read the remaining bytes of the given buffer and call the handler for each match.
+     * The position of the buffer is not changed.
+     *
+     * @param _buffer buffer (e.g. memory mapped file)
+     * @param _handler called for each match
+     * @throws IOException if input is not valid XML
+     */
+    public void extract(ByteBuffer _buffer, Consumer<Match> _handler) throws IOException {
+        extract(new ByteBufferInputStream(_buffer), _handler);
+    }
+
+    /**
+     * Creates a lazy stream of all matches of the given input.
+     * The input is read while the stream is consumed, closing the stream will close the input.
+     * Read errors are thrown as {@link UncheckedIOException}.
+     *
+     * @param _input input
+     * @return Stream of matches
+     * @throws IOException if input cannot be read
+     */
+    public Stream<Match> stream(InputStream _input) throws IOException {
+        ExtractorState state = new ExtractorState(createReader(_input));
+        Deque<Match> pending = new ArrayDeque<>();
+
+        Spliterator<Match> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Match> _action) {
+                try {
+                    while (pending.isEmpty() && state.next(pending::add)) {
+                        // read until next match
+                    }
+                } catch (IOException _ex) {
+                    throw new UncheckedIOException(_ex);
+                }
+                Match match = pending.poll();
+                if (match == null) {
+                    return false;
+                }
+                _action.accept(match);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                state.close();
+                _input.close();
+            } catch (IOException _ex) {
+                throw new UncheckedIOException(_ex);
+            }
+        });
+    }
+
+    /**
+     * Creates a lazy stream of all matches of the given file.
+     * The stream has to be closed to release the file.
+     *
+     * @param _file file
+     * @return Stream of matches
+     * @throws IOException if file cannot be read
+     */
+    public Stream<Match> stream(Path _file) throws IOException {
+        InputStream input = Files.newInputStream(_file);
+        try {
+            return stream(input);
+        } catch (IOException | RuntimeException _ex) {
+            input.close();
+            throw _ex;
+        }
+    }
+
+    private static XMLStreamReader createReader(InputStream _input) throws IOException {
+        Objects.requireNonNull(_input, "Input required");
+        try {
+            return INPUT_FACTORY.createXMLStreamReader(_input);
+        } catch (XMLStreamException _ex) {
+            throw new IOException(_ex);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * A value found in the XML input.
+     */
+    public static final class Match {
+        private final int    expressionIndex;
+        private final String expression;
+        private final String value;
+
+        Match(int _expressionIndex, String _expression, String _value) {
+            expressionIndex = _expressionIndex;
+            expression = _expression;
+            value = _value;
+        }
+
+        /**
+         * Index of the matching expression (as given to {@link XmlStreamExtractor#compile(String...)}).
+         * @return int
+         */
+        public int getExpressionIndex() {
+            return expressionIndex;
+        }
+
+        /**
+         * The matching expression.
+         * @return String
+         */
+        public String getExpression() {
+            return expression;
+        }
+
+        /**
+         * Text of the element or value of the attribute.
+         * @return String
+         */
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [expression=" + expression + ", value=" + value + "]";
+        }
+    }
+
+    /**
+     * State of a single extraction.
+     */
+    private final class ExtractorState {
+        private final XMLStreamReader reader;
+        /** Expressions matching the path up to the element on each level. */
+        private final Deque<BitSet>   matching = new ArrayDeque<>();
+        private final Deque<Capture>  captures = new ArrayDeque<>();
+        private int                   depth;
+
+        ExtractorState(XMLStreamReader _reader) {
+            reader = _reader;
+            BitSet all = new BitSet(expressions.size());
+            all.set(0, expressions.size());
+            matching.push(all);
+        }
+
+        /**
+         * Process the next event.
+         * @return false if end of document was reached
+         */
+        boolean next(Consumer<? super Match> _handler) throws IOException {
+            try {
+                if (!reader.hasNext()) {
+                    return false;
+                }
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        startElement(_handler);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        endElement(_handler);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (!captures.isEmpty()) {
+                            for (Capture capture : captures) {
+                                capture.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_DOCUMENT:
+                        return false;
+                    default:
+                        break;
+                }
+                return true;
+            } catch (XMLStreamException _ex) {
+                throw new IOException(_ex);
+            }
+        }
+
+        private void startElement(Consumer<? super Match> _handler) {
+            BitSet parent = matching.peek();
+            BitSet current = new BitSet(expressions.size());
+            String name = reader.getLocalName();
+
+            for (int i = parent.nextSetBit(0); i >= 0; i = parent.nextSetBit(i + 1)) {
+                PathExpression expr = expressions.get(i);
+                if (depth >= expr.steps.size() || !expr.steps.get(depth).matches(name, reader)) {
+                    continue;
+                }
+                if (depth + 1 < expr.steps.size()) {
+                    current.set(i);
+                } else if (expr.attribute != null) {
+                    String value = reader.getAttributeValue(null, expr.attribute);
+                    if (value != null) {
+                        _handler.accept(new Match(expr.index, expr.expression, value));
+                    }
+                } else {
+                    captures.push(new Capture(expr, depth));
+                }
+            }
+
+            depth++;
+            matching.push(current);
+        }
+
+        private void endElement(Consumer<? super Match> _handler) {
+            depth--;
+            matching.pop();
+
+            // captures are started in document order, but the deque has the latest capture first
+            List<Capture> finished = null;
+            while (!captures.isEmpty() && captures.peek().depth == depth) {
+                if (finished == null) {
+                    finished = new ArrayList<>();
+                }
+                finished.add(0, captures.pop());
+            }
+            if (finished != null) {
+                for (Capture capture : finished) {
+                    _handler.accept(new Match(capture.expression.index, capture.expression.expression, capture.text.toString()));
+                }
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                reader.close();
+            } catch (XMLStreamException _ex) {
+                throw new IOException(_ex);
+            }
+        }
+    }
+
+    /**
+     * Text collected for a matching element.
+     */
+    private static final class Capture {
+        private final PathExpression expression;
+        private final int            depth;
+        private final StringBuilder  text = new StringBuilder();
+
+        Capture(PathExpression _expression, int _depth) {
+            expression = _expression;
+            depth = _depth;
+        }
+    }
+
+    /**
+     * Parsed expression.
+     */
+    private static final class PathExpression {
+        private final int        index;
+        private final String     expression;
+        private final List<Step> steps;
+        private final String     attribute;
+
+        PathExpression(int _index, String _expression, List<Step> _steps, String _attribute) {
+            index = _index;
+            expression = _expression;
+            steps = _steps;
+            attribute = _attribute;
+        }
+
+        static PathExpression parse(int _index, String _expression) {
+            if (_expression == null || !_expression.startsWith("/") || _expression.startsWith("//")) {
+                throw new IllegalArgumentException("Expression has to be an absolute path: " + _expression);
+            }
+
+            List<String> parts = splitSteps(_expression);
+            List<Step> steps = new ArrayList<>();
+            String attribute = null;
+
+            for (int i = 0; i < parts.size(); i++) {
+                String part = parts.get(i);
+                if (part.isEmpty()) {
+                    throw new IllegalArgumentException("Empty step in expression: " + _expression);
+                }
+                if (part.startsWith("@")) {
+                    if (i != parts.size() - 1 || part.length() == 1) {
+                        throw new IllegalArgumentException("Attribute selector only allowed as last step: " + _expression);
+                    }
+                    attribute = part.substring(1);
+                } else {
+                    steps.add(Step.parse(part, _expression));
+                }
+            }
+
+            if (steps.isEmpty()) {
+                throw new IllegalArgumentException("At least one element step required: " + _expression);
+            }
+            return new PathExpression(_index, _expression, steps, attribute);
+        }
+
+        /**
+         * Split expression by '/' ignoring slashes inside of predicates.
+         */
+        private static List<String> splitSteps(String _expression) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            char quote = 0;
+            int brackets = 0;
+            for (int i = 1; i < _expression.length(); i++) {
+                char c = _expression.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '[') {
+                    brackets++;
+                } else if (c == ']') {
+                    brackets--;
+                } else if (c == '/' && brackets == 0) {
+                    parts.add(current.toString());
+                    current.setLength(0);
+                    continue;
+                }
+                current.append(c);
+            }
+            if (quote != 0 || brackets != 0) {
+                throw new IllegalArgumentException("Unbalanced quotes or brackets in expression: " + _expression);
+            }
+            parts.add(current.toString());
+            return parts;
+        }
+    }
+
+    /**
+     * Single element step with optional attribute predicates.
+     */
+    private static final class Step {
+        private final String          name;
+        private final List<Predicate> predicates;
+
+        Step(String _name, List<Predicate> _predicates) {
+            name = _name;
+            predicates = _predicates;
+        }
+
+        boolean matches(String _name, XMLStreamReader _reader) {
+            if (!"*".equals(name) && !name.equals(_name)) {
+                return false;
+            }
+            for (Predicate predicate : predicates) {
+                String value = _reader.getAttributeValue(null, predicate.attribute);
+                if (value == null || predicate.value != null && !predicate.value.equals(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static Step parse(String _step, String _expression) {
+            int idx = _step.indexOf('[');
+            String name = idx < 0 ? _step : _step.substring(0, idx);
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Missing element name in expression: " + _expression);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            while (idx >= 0) {
+                int end = findPredicateEnd(_step, idx);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Invalid predicate in expression: " + _expression);
+                }
+                predicates.add(Predicate.parse(_step.substring(idx + 1, end).trim(), _expression));
+                idx = end + 1 < _step.length() ? end + 1 : -1;
+                if (idx >= 0 && _step.charAt(idx) != '[') {
+                    throw new IllegalArgumentException("Invalid predicate in expression: " + _expression);
+                }
+            }
+            return new Step(name, predicates);
+        }
+
+        private static int findPredicateEnd(String _step, int _start) {
+            char quote = 0;
+            for (int i = _start + 1; i < _step.length(); i++) {
+                char c = _step.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == ']') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Attribute predicate, value is null if only existence of attribute is checked.
+     */
+    private static final class Predicate {
+        private final String attribute;
+        private final String value;
+
+        Predicate(String _attribute, String _value) {
+            attribute = _attribute;
+            value = _value;
+        }
+
+        static Predicate parse(String _predicate, String _expression) {
+            if (!_predicate.startsWith("@")) {
+                throw new IllegalArgumentException("Only attribute predicates are supported: " + _expression);
+            }
+            int eq = _predicate.indexOf('=');
+            if (eq < 0) {
+                return new Predicate(_predicate.substring(1).trim(), null);
+            }
+
+            String attribute = _predicate.substring(1, eq).trim();
+            String value = _predicate.substring(eq + 1).trim();
+            if (value.length() < 2 || value.charAt(0) != value.charAt(value.length() - 1)
+                || value.charAt(0) != '\'' && value.charAt(0) != '"') {
+                throw new IllegalArgumentException("Predicate value has to be quoted: " + _expression);
+            }
+            return new Predicate(attribute, value.substring(1, value.length() - 1));
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer without changing its position.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer _buffer) {
+            buffer = Objects.requireNonNull(_buffer, "Buffer required").duplicate();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] _b, int _off, int _len) {
+            if (_len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int len = Math.min(_len, buffer.remaining());
+            buffer.get(_b, _off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
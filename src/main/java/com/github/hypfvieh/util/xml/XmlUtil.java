@@ -1,24 +1,24 @@
 package com.github.hypfvieh.util.xml;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
@@ -31,6 +31,8 @@ import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 import com.github.hypfvieh.util.StringUtil;
 import com.github.hypfvieh.util.xml.XmlErrorHandlers.XmlErrorHandlerQuiet;
@@ -39,11 +41,38 @@ import com.github.hypfvieh.util.xml.XmlErrorHandlers.XmlErrorHandlerQuiet;
 
 /**
  * Assorted static XML utility methods.
+ * <p>
+ * {@link DocumentBuilder}s and {@link XPath} objects are not thread safe, therefore they are cached per thread
+ * and reused for subsequent calls. Compiled {@link XPathExpression}s are cached per thread as well
+ * (up to {@value #XPATH_CACHE_SIZE} expressions, least recently used expressions are removed).
+ * Compiled {@link Schema}s are thread safe and shared by all threads.<br>
+ * Use {@link #getCacheStatistics()} to check the efficiency of the caches.
+ * </p>
  *
  * @author hypfvieh
  * @since 1.0.3 - 2018-01-10
  */
 public final class XmlUtil {
+    /** Maximum number of compiled XPath expressions cached per thread. */
+    public static final int                                          XPATH_CACHE_SIZE     = 256;
+
+    private static final String                                      SCHEMA_LANGUAGE_ATTR = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
+
+    private static final ThreadLocal<XPath>                          XPATH                = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>>   XPATH_CACHE          = ThreadLocal.withInitial(XmlUtil::createXpathCache);
+    /** Builders indexed by {@link #builderIndex(boolean, boolean, boolean)}. */
+    private static final ThreadLocal<DocumentBuilder[]>              BUILDERS             = ThreadLocal.withInitial(() -> new DocumentBuilder[8]);
+    private static final ThreadLocal<Map<Schema, DocumentBuilder[]>> SCHEMA_BUILDERS      = ThreadLocal.withInitial(WeakHashMap::new);
+    private static final Map<String, Schema>                         SCHEMAS              = new ConcurrentHashMap<>();
+
+    private static final LongAdder                                   XPATH_HITS           = new LongAdder();
+    private static final LongAdder                                   XPATH_MISSES         = new LongAdder();
+    private static final LongAdder                                   BUILDER_HITS         = new LongAdder();
+    private static final LongAdder                                   BUILDER_MISSES       = new LongAdder();
+    private static final LongAdder                                   SCHEMA_HITS          = new LongAdder();
+    private static final LongAdder                                   SCHEMA_MISSES        = new LongAdder();
+
+    private static final XmlDocumentWriter                           DOCUMENT_WRITER      = new XmlDocumentWriter();
 
     private XmlUtil() {
     }
@@ -81,14 +110,7 @@ public final class XmlUtil {
     public static NodeList applyXpathExpressionToDocument(String _xpathExpression, Node _xmlDocumentOrNode)
             throws IOException {
 
-        XPathFactory xfactory = XPathFactory.newInstance();
-        XPath xpath = xfactory.newXPath();
-        XPathExpression expr = null;
-        try {
-            expr = xpath.compile(_xpathExpression);
-        } catch (XPathExpressionException _ex) {
-            throw new IOException(_ex);
-        }
+        XPathExpression expr = compileXpathExpression(_xpathExpression);
 
         Object result = null;
         try {
@@ -100,6 +122,33 @@ public final class XmlUtil {
         return (NodeList) result;
     }
 
+    /**
+     * Returns the compiled version of the given xpath expression.
+     * Compiled expressions are cached per thread, so the returned expression must not be shared with other threads.
+     *
+     * @param _xpathExpression xpath expression
+     * @return {@link XPathExpression}
+     * @throws IOException if expression is invalid
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static XPathExpression compileXpathExpression(String _xpathExpression) throws IOException {
+        Map<String, XPathExpression> cache = XPATH_CACHE.get();
+        XPathExpression expr = cache.get(_xpathExpression);
+        if (expr != null) {
+            XPATH_HITS.increment();
+            return expr;
+        }
+
+        XPATH_MISSES.increment();
+        try {
+            expr = XPATH.get().compile(_xpathExpression);
+        } catch (XPathExpressionException _ex) {
+            throw new IOException(_ex);
+        }
+        cache.put(_xpathExpression, expr);
+        return expr;
+    }
+
     /**
      * Read the given string as XML document.
      *
@@ -110,13 +159,8 @@ public final class XmlUtil {
      * @throws IOException on error
      */
     public static Document parseXmlString(String _xmlStr, boolean _validating, boolean _namespaceAware) throws IOException {
-
-        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
-        dbFac.setNamespaceAware(_namespaceAware);
-        dbFac.setValidating(_validating);
-
         try {
-            return dbFac.newDocumentBuilder().parse(new ByteArrayInputStream(_xmlStr.getBytes(StandardCharsets.UTF_8)));
+            return getDocumentBuilder(_validating, _namespaceAware, false).parse(new InputSource(new StringReader(_xmlStr)));
 
         } catch (IOException _ex) {
             throw _ex;
@@ -168,15 +212,10 @@ public final class XmlUtil {
         if (_errorHandler == null) {
             _errorHandler = new XmlErrorHandlers.XmlErrorHandlerQuiet();
         }
-        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
-        dbFac.setValidating(true);
-        dbFac.setNamespaceAware(_namespaceAware);
-        dbFac.setAttribute("http://java.sun.com/xml/jaxp/properties/schemaLanguage",
-                     "http://www.w3.org/2001/XMLSchema");
         try {
-            DocumentBuilder builder = dbFac.newDocumentBuilder();
+            DocumentBuilder builder = getDocumentBuilder(true, _namespaceAware, true);
             builder.setErrorHandler(_errorHandler);
-            return builder.parse(new ByteArrayInputStream(_xmlStr.getBytes(StandardCharsets.UTF_8)));
+            return builder.parse(new InputSource(new StringReader(_xmlStr)));
 
         } catch (IOException _ex) {
             throw _ex;
@@ -198,33 +237,224 @@ public final class XmlUtil {
         return parseXmlStringWithXsdValidation(_xmlStr, _namespaceAware, null);
     }
 
+    /**
+     * Loads XML from string and validates the content using the given XSD.
+     * The compiled schema is cached, so the XSD is only read once.
+     *
+     * @param _xmlStr string to validate
+     * @param _schemaUrl URL of XSD
+     * @param _namespaceAware take care of namespace
+     * @param _errorHandler e.g. {@link XmlErrorHandlers.XmlErrorHandlerQuiet} or {@link XmlErrorHandlers.XmlErrorHandlerRuntimeException}
+     * @return Document
+     * @throws IOException on error
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static Document parseXmlStringWithSchema(String _xmlStr, URL _schemaUrl, boolean _namespaceAware, ErrorHandler _errorHandler) throws IOException {
+        if (_errorHandler == null) {
+            _errorHandler = new XmlErrorHandlers.XmlErrorHandlerQuiet();
+        }
+        Schema schema = getSchema(_schemaUrl);
+
+        try {
+            DocumentBuilder builder = getDocumentBuilder(schema, _namespaceAware);
+            builder.setErrorHandler(_errorHandler);
+            return builder.parse(new InputSource(new StringReader(_xmlStr)));
+
+        } catch (IOException _ex) {
+            throw _ex;
+        } catch (Exception _ex) {
+            throw new IOException("Failed to parse " + StringUtil.abbreviate(_xmlStr, 500), _ex);
+        }
+    }
+
+    /**
+     * Returns the compiled XSD schema of the given URL.
+     * Schemas are compiled only once and shared by all threads.
+     *
+     * @param _schemaUrl URL of XSD
+     * @return {@link Schema}
+     * @throws IOException if schema cannot be read or is invalid
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static Schema getSchema(URL _schemaUrl) throws IOException {
+        Objects.requireNonNull(_schemaUrl, "Schema URL required");
+        String key = _schemaUrl.toExternalForm();
+
+        Schema schema = SCHEMAS.get(key);
+        if (schema != null) {
+            SCHEMA_HITS.increment();
+            return schema;
+        }
+
+        SCHEMA_MISSES.increment();
+        try {
+            schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(_schemaUrl);
+        } catch (SAXException _ex) {
+            throw new IOException("Unable to read schema " + key, _ex);
+        }
+        Schema existing = SCHEMAS.putIfAbsent(key, schema);
+        return existing != null ? existing : schema;
+    }
+
+    /**
+     * Returns the statistics of all caches used by this class.
+     * @return {@link CacheStatistics}
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(XPATH_HITS.sum(), XPATH_MISSES.sum(),
+            BUILDER_HITS.sum(), BUILDER_MISSES.sum(),
+            SCHEMA_HITS.sum(), SCHEMA_MISSES.sum());
+    }
+
+    /**
+     * Returns a document builder for the current thread, creates a new one if required.
+     */
+    private static DocumentBuilder getDocumentBuilder(boolean _validating, boolean _namespaceAware, boolean _xsd) throws ParserConfigurationException {
+        DocumentBuilder[] builders = BUILDERS.get();
+        int idx = builderIndex(_validating, _namespaceAware, _xsd);
+        DocumentBuilder builder = builders[idx];
+        if (builder != null) {
+            BUILDER_HITS.increment();
+            builder.reset();
+            return builder;
+        }
+
+        BUILDER_MISSES.increment();
+        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
+        dbFac.setValidating(_validating);
+        dbFac.setNamespaceAware(_namespaceAware);
+        if (_xsd) {
+            dbFac.setAttribute(SCHEMA_LANGUAGE_ATTR, XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        }
+        builder = dbFac.newDocumentBuilder();
+        builders[idx] = builder;
+        return builder;
+    }
+
+    /**
+     * Returns a document builder validating against the given schema for the current thread.
+     */
+    private static DocumentBuilder getDocumentBuilder(Schema _schema, boolean _namespaceAware) throws ParserConfigurationException {
+        DocumentBuilder[] builders = SCHEMA_BUILDERS.get().computeIfAbsent(_schema, s -> new DocumentBuilder[2]);
+        int idx = _namespaceAware ? 1 : 0;
+        DocumentBuilder builder = builders[idx];
+        if (builder != null) {
+            BUILDER_HITS.increment();
+            builder.reset();
+            return builder;
+        }
+
+        BUILDER_MISSES.increment();
+        DocumentBuilderFactory dbFac = DocumentBuilderFactory.newInstance();
+        dbFac.setNamespaceAware(_namespaceAware);
+        dbFac.setSchema(_schema);
+        builder = dbFac.newDocumentBuilder();
+        builders[idx] = builder;
+        return builder;
+    }
+
+    private static int builderIndex(boolean _validating, boolean _namespaceAware, boolean _xsd) {
+        return (_validating ? 1 : 0) | (_namespaceAware ? 2 : 0) | (_xsd ? 4 : 0);
+    }
+
+    private static Map<String, XPathExpression> createXpathCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> _eldest) {
+                return size() > XPATH_CACHE_SIZE;
+            }
+        };
+    }
+
     /**
      * Dump a {@link Document} or {@link Node}-compatible object to the given {@link OutputStream} (e.g. System.out).
+     * The output is UTF-8 encoded and indented by 4 spaces, see {@link XmlDocumentWriter} for other formatting options.
      *
      * @param _docOrNode {@link Document} or {@link Node} object
      * @param _outStream {@link OutputStream} to print on
      * @throws IOException on error
      */
     public static void printDocument(Node _docOrNode, OutputStream _outStream) throws IOException {
-        if (_docOrNode == null || _outStream == null) {
-            throw new IOException("Cannot print (on) 'null' object");
+        DOCUMENT_WRITER.write(_docOrNode, _outStream);
+    }
+
+    /**
+     * Hit and miss counters of the caches used by {@link XmlUtil}.
+     * @since v1.2.2 - 2026-10-19
+     */
+    public static final class CacheStatistics {
+        private final long xpathHits;
+        private final long xpathMisses;
+        private final long builderHits;
+        private final long builderMisses;
+        private final long schemaHits;
+        private final long schemaMisses;
+
+        CacheStatistics(long _xpathHits, long _xpathMisses, long _builderHits, long _builderMisses, long _schemaHits, long _schemaMisses) {
+            xpathHits = _xpathHits;
+            xpathMisses = _xpathMisses;
+            builderHits = _builderHits;
+            builderMisses = _builderMisses;
+            schemaHits = _schemaHits;
+            schemaMisses = _schemaMisses;
         }
 
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer;
-        try {
-            transformer = tf.newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        /**
+         * Number of xpath expressions taken from cache.
+         * @return long
+         */
+        public long getXpathHits() {
+            return xpathHits;
+        }
+
+        /**
+         * Number of xpath expressions which had to be compiled.
+         * @return long
+         */
+        public long getXpathMisses() {
+            return xpathMisses;
+        }
+
+        /**
+         * Number of reused document builders.
+         * @return long
+         */
+        public long getBuilderHits() {
+            return builderHits;
+        }
+
+        /**
+         * Number of created document builders.
+         * @return long
+         */
+        public long getBuilderMisses() {
+            return builderMisses;
+        }
 
-            transformer.transform(new DOMSource(_docOrNode),
-                 new StreamResult(new OutputStreamWriter(_outStream, "UTF-8")));
-        } catch (UnsupportedEncodingException | TransformerException _ex) {
-            throw new IOException("Could not print Document or Node.",_ex);
+        /**
+         * Number of schemas taken from cache.
+         * @return long
+         */
+        public long getSchemaHits() {
+            return schemaHits;
         }
 
+        /**
+         * Number of schemas which had to be compiled.
+         * @return long
+         */
+        public long getSchemaMisses() {
+            return schemaMisses;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [xpathHits=" + xpathHits + ", xpathMisses=" + xpathMisses
+                + ", builderHits=" + builderHits + ", builderMisses=" + builderMisses
+                + ", schemaHits=" + schemaHits + ", schemaMisses=" + schemaMisses + "]";
+        }
     }
 }
@@ -26,6 +26,7 @@ module com.github.hypfvieh.java.utils {
     exports com.github.hypfvieh.classloader;
     exports com.github.hypfvieh.db;
     exports com.github.hypfvieh.config.xml;
+    exports com.github.hypfvieh.function;
 
     requires java.desktop;
     requires java.management;
@@ -0,0 +1,258 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares memory usage and throughput of {@link BidiMap} with the primitive specialized and the compact bidirectional maps.
+ * <p>
+ * Keys and values (Strings) are created before measuring, so only the memory used by the maps themselves
+ * (including boxed primitives created by the generic map) is reported.
+ * </p>
+ * <p>
+ * Not executed as unit test, run main method manually (use a heap of at least 2 GB).
+ * Optional arguments: number of pairs (default 1000000), iterations (default 5).
+ * </p>
+ */
+public final class BidiMapBenchmark {
+
+    /** Receives results, prevents the JIT from removing the measured code. */
+    private static volatile long sink;
+
+    private BidiMapBenchmark() {
+
+    }
+
+    public static void main(String[] _args) throws Exception {
+        int pairs = _args.length > 0 ? Integer.parseInt(_args[0]) : 1_000_000;
+        int iterations = _args.length > 1 ? Integer.parseInt(_args[1]) : 5;
+
+        int[] ints = new int[pairs];
+        long[] longs = new long[pairs];
+        String[] symbols = new String[pairs];
+        for (int i = 0; i < pairs; i++) {
+            ints[i] = i * 7 + 3;
+            longs[i] = i * 0x1_0000_0001L;
+            symbols[i] = "SYM" + i;
+        }
+
+        // lookups use random order, insertion order would favor maps storing pairs in insertion order
+        int[] order = new int[pairs];
+        Random rnd = new Random(1);
+        for (int i = 0; i < pairs; i++) {
+            int j = rnd.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        System.out.printf("%-34s %12s %12s %12s %12s%n", "Map (" + pairs + " pairs)", "bytes/pair", "put ns/op", "get ns/op", "getKey ns/op");
+
+        run("BidiMap<Integer, Integer>", iterations, pairs, () -> {
+            BidiMap<Integer, Integer> map = new BidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(ints[i], i);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(ints[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]);
+            }
+            return sum;
+        });
+
+        run("IntIntBidiMap", iterations, pairs, () -> {
+            IntIntBidiMap map = new IntIntBidiMap();
+            for (int i = 0; i < pairs; i++) {
+                map.put(ints[i], i);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(ints[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]);
+            }
+            return sum;
+        });
+
+        run("BidiMap<String, Integer>", iterations, pairs, () -> {
+            BidiMap<String, Integer> map = new BidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(symbols[i], i);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(symbols[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]).length();
+            }
+            return sum;
+        });
+
+        run("ObjectIntBidiMap<String>", iterations, pairs, () -> {
+            ObjectIntBidiMap<String> map = new ObjectIntBidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(symbols[i], i);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(symbols[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]).length();
+            }
+            return sum;
+        });
+
+        run("CompactBidiMap<String, Integer>", iterations, pairs, () -> {
+            CompactBidiMap<String, Integer> map = new CompactBidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(symbols[i], i);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(symbols[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]).length();
+            }
+            return sum;
+        });
+
+        // put includes creating the frozen copy
+        run("FrozenBidiMap<String, Integer>", iterations, pairs, () -> {
+            CompactBidiMap<String, Integer> map = new CompactBidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(symbols[i], i);
+            }
+            return map.freeze();
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(symbols[order[i]]);
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(order[i]).length();
+            }
+            return sum;
+        });
+
+        run("BidiMap<Long, String>", iterations, pairs, () -> {
+            BidiMap<Long, String> map = new BidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(longs[i], symbols[i]);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(longs[order[i]]).length();
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(symbols[order[i]]);
+            }
+            return sum;
+        });
+
+        run("LongObjectBidiMap<String>", iterations, pairs, () -> {
+            LongObjectBidiMap<String> map = new LongObjectBidiMap<>();
+            for (int i = 0; i < pairs; i++) {
+                map.put(longs[i], symbols[i]);
+            }
+            return map;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.get(longs[order[i]]).length();
+            }
+            return sum;
+        }, map -> {
+            long sum = 0;
+            for (int i = 0; i < pairs; i++) {
+                sum += map.getKey(symbols[order[i]]);
+            }
+            return sum;
+        });
+    }
+
+    private static <M> void run(String _name, int _iterations, int _pairs, Supplier<M> _fill, Lookup<M> _get, Lookup<M> _getKey) {
+        // warm up
+        for (int i = 0; i < 2; i++) {
+            M map = _fill.get();
+            sink += _get.apply(map) + _getKey.apply(map);
+        }
+
+        long before = usedMemory();
+        M map = _fill.get();
+        long bytes = usedMemory() - before;
+
+        long putNanos = 0;
+        long getNanos = 0;
+        long getKeyNanos = 0;
+        for (int i = 0; i < _iterations; i++) {
+            long start = System.nanoTime();
+            M filled = _fill.get();
+            putNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += _get.apply(filled);
+            getNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += _getKey.apply(filled);
+            getKeyNanos += System.nanoTime() - start;
+        }
+
+        long ops = (long) _iterations * _pairs;
+        System.out.printf("%-34s %12d %12.1f %12.1f %12.1f%n", _name, bytes / _pairs,
+            putNanos / (double) ops, getNanos / (double) ops, getKeyNanos / (double) ops);
+        sink += map.hashCode();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface Lookup<M> {
+        long apply(M _map);
+    }
+}
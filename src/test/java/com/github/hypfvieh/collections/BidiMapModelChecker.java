@@ -0,0 +1,140 @@
+package com.github.hypfvieh.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs random operations on a bidirectional map and compares every result with a model
+ * made of two {@link HashMap}s (key to value and value to key).
+ * <p>
+ * The map is accessed using the given functions only, so maps using primitive keys or values can be checked as well.
+ * Lookups of missing keys respectively values are expected to return the configured no entry markers (null by default).
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class BidiMapModelChecker<K, V> {
+    private final Function<Random, K>   keyGenerator;
+    private final Function<Random, V>   valueGenerator;
+
+    private K                           noEntryKey;
+    private V                           noEntryValue;
+
+    private BiFunction<K, V, V>         put;
+    private Function<K, V>              remove;
+    private Function<V, K>              removeValue;
+    private Function<K, V>              get;
+    private Function<V, K>              getKey;
+    private IntSupplier                 size;
+
+    /**
+     * Create a new checker.
+     * Use small ranges for keys and values to provoke collisions and conflicts.
+     *
+     * @param _keyGenerator creates a random key
+     * @param _valueGenerator creates a random value
+     */
+    BidiMapModelChecker(Function<Random, K> _keyGenerator, Function<Random, V> _valueGenerator) {
+        keyGenerator = _keyGenerator;
+        valueGenerator = _valueGenerator;
+    }
+
+    BidiMapModelChecker<K, V> withNoEntry(K _noEntryKey, V _noEntryValue) {
+        noEntryKey = _noEntryKey;
+        noEntryValue = _noEntryValue;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withPut(BiFunction<K, V, V> _put) {
+        put = _put;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withRemove(Function<K, V> _remove) {
+        remove = _remove;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withRemoveValue(Function<V, K> _removeValue) {
+        removeValue = _removeValue;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withGet(Function<K, V> _get) {
+        get = _get;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withGetKey(Function<V, K> _getKey) {
+        getKey = _getKey;
+        return this;
+    }
+
+    BidiMapModelChecker<K, V> withSize(IntSupplier _size) {
+        size = _size;
+        return this;
+    }
+
+    /**
+     * Runs the given number of random operations and verifies the content of the map afterwards.
+     *
+     * @param _seed seed of the random generator
+     * @param _operations number of operations
+     * @return expected content of the map (key to value)
+     */
+    Map<K, V> run(long _seed, int _operations) {
+        Map<K, V> forward = new HashMap<>();
+        Map<V, K> inverse = new HashMap<>();
+        Random rnd = new Random(_seed);
+
+        for (int i = 0; i < _operations; i++) {
+            K key = keyGenerator.apply(rnd);
+            V val = valueGenerator.apply(rnd);
+            switch (rnd.nextInt(5)) {
+                case 0:
+                    assertEquals(forward.getOrDefault(key, noEntryValue), remove.apply(key), "remove " + key);
+                    V removed = forward.remove(key);
+                    if (removed != null) {
+                        inverse.remove(removed);
+                    }
+                    break;
+                case 1:
+                    assertEquals(inverse.getOrDefault(val, noEntryKey), removeValue.apply(val), "removeValue " + val);
+                    K removedKey = inverse.remove(val);
+                    if (removedKey != null) {
+                        forward.remove(removedKey);
+                    }
+                    break;
+                case 2:
+                    assertEquals(forward.getOrDefault(key, noEntryValue), get.apply(key), "get " + key);
+                    assertEquals(inverse.getOrDefault(val, noEntryKey), getKey.apply(val), "getKey " + val);
+                    break;
+                default:
+                    boolean conflict = forward.containsKey(key) && !val.equals(forward.get(key))
+                        || inverse.containsKey(val) && !key.equals(inverse.get(val));
+                    if (conflict) {
+                        assertThrows(IllegalArgumentException.class, () -> put.apply(key, val), "put " + key + "=" + val);
+                    } else {
+                        assertEquals(forward.getOrDefault(key, noEntryValue), put.apply(key, val), "put " + key + "=" + val);
+                        forward.put(key, val);
+                        inverse.put(val, key);
+                    }
+            }
+        }
+
+        assertEquals(forward.size(), size.getAsInt());
+        for (Map.Entry<K, V> e : forward.entrySet()) {
+            assertEquals(e.getValue(), get.apply(e.getKey()));
+            assertEquals(e.getKey(), getKey.apply(e.getValue()));
+        }
+        return forward;
+    }
+}
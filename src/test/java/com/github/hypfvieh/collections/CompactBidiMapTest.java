@@ -0,0 +1,86 @@
+package com.github.hypfvieh.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.util.TypeUtil;
+
+public class CompactBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testPutGet() {
+        CompactBidiMap<String, String> map = new CompactBidiMap<>();
+        assertNull(map.put("K1", "V1"));
+        assertEquals("V1", map.put("K1", "V1"));
+        assertNull(map.put("K2", "V2"));
+        assertEquals("V1", map.get("K1"));
+        assertEquals("K2", map.getKey("V2"));
+        assertNull(map.get("K3"));
+        assertNull(map.getKey("V3"));
+        assertTrue(map.containsKey("K1"));
+        assertTrue(map.containsValue("V2"));
+        assertFalse(map.containsValue("K2"));
+        assertEquals(2, map.size());
+        assertEquals(CompactBidiMap.class.getName() + "[{K1=V1, K2=V2}]", map.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> map.get(null));
+        assertThrows(IllegalArgumentException.class, () -> map.put("K3", null));
+        assertEquals("Key [K1] not unique in bidirectional map, cannot put(K1, V3).",
+            assertThrows(IllegalArgumentException.class, () -> map.put("K1", "V3")).getMessage());
+        assertEquals("Value [V1] not unique in bidirectional map, cannot put(K3, V1).",
+            assertThrows(IllegalArgumentException.class, () -> map.put("K3", "V1")).getMessage());
+    }
+
+    @Test
+    public void testRemove() {
+        CompactBidiMap<String, String> map = new CompactBidiMap<>(TypeUtil.createMap("K1", "V1", "K2", "V2", "K3", "V3"));
+        assertEquals("V1", map.remove("K1"));
+        assertNull(map.remove("K1"));
+        assertEquals("K3", map.removeValue("V3"));
+        assertNull(map.removeValue("V3"));
+        assertEquals(1, map.size());
+        assertEquals("V2", map.get("K2"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getKey("V2"));
+    }
+
+    @Test
+    public void testViews() {
+        Map<String, String> source = TypeUtil.createMap("K1", "V1", "K2", "V2");
+        CompactBidiMap<String, String> map = new CompactBidiMap<>(source);
+
+        assertEquals(source, map);
+        assertEquals(map, source);
+        assertEquals(source.hashCode(), map.hashCode());
+        assertEquals(source.keySet(), map.keySet());
+        assertEquals(source.entrySet(), map.entrySet());
+        assertTrue(map.values().contains("V2"));
+        assertFalse(map.values().contains(null));
+        assertThrows(UnsupportedOperationException.class, () -> map.keySet().remove("K1"));
+        assertThrows(UnsupportedOperationException.class, () -> map.values().add("V3"));
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().next().setValue("V3"));
+        assertEquals(2, map.size());
+
+        Iterator<String> it = map.keySet().iterator();
+        it.next();
+        map.remove("K2");
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        CompactBidiMap<Integer, String> map = new CompactBidiMap<>(0);
+        Map<Integer, String> forward = new BidiMapModelChecker<Integer, String>(rnd -> rnd.nextInt(3000), rnd -> "V" + rnd.nextInt(3000))
+            .withPut(map::put).withRemove(map::remove).withRemoveValue(map::removeValue)
+            .withGet(map::get).withGetKey(map::getKey).withSize(map::size)
+            .run(11, 100_000);
+
+        assertEquals(forward, map);
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.hypfvieh.collections;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class ConcurrentBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testBasicOperations() {
+        ConcurrentBidiMap<String, Integer> map = new ConcurrentBidiMap<>();
+        assertNull(map.put("A", 1));
+        assertEquals(1, map.put("A", 1));
+        assertEquals(1, map.get("A"));
+        assertEquals("A", map.getKey(1));
+        assertTrue(map.containsKey("A"));
+        assertTrue(map.containsValue(1));
+
+        assertThrows(IllegalArgumentException.class, () -> map.put("A", 2));
+        assertThrows(IllegalArgumentException.class, () -> map.put("B", 1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.get(null));
+
+        assertEquals(1, map.remove("A"));
+        assertNull(map.getKey(1));
+        assertTrue(map.isEmpty());
+
+        map.put("B", 2);
+        assertEquals("B", map.removeValue(2));
+        assertNull(map.get("B"));
+    }
+
+    @Test
+    public void testAtomicOperations() {
+        ConcurrentBidiMap<String, Integer> map = new ConcurrentBidiMap<>();
+        assertNull(map.putIfAbsent("A", 1));
+        assertEquals(1, map.putIfAbsent("A", 2));
+        assertThrows(IllegalArgumentException.class, () -> map.putIfAbsent("B", 1));
+
+        assertFalse(map.replace("A", 5, 6));
+        assertTrue(map.replace("A", 1, 2));
+        assertEquals(2, map.get("A"));
+        assertNull(map.getKey(1));
+        assertEquals("A", map.getKey(2));
+
+        assertEquals(2, map.replace("A", 3));
+        assertEquals("A", map.getKey(3));
+        assertNull(map.replace("X", 4));
+
+        map.put("B", 4);
+        assertThrows(IllegalArgumentException.class, () -> map.replace("A", 4));
+
+        assertFalse(map.remove("A", 4));
+        assertTrue(map.remove("A", 3));
+        assertNull(map.getKey(3));
+
+        assertEquals(10, map.computeIfAbsent("C", k -> 10));
+        assertEquals(10, map.computeIfAbsent("C", k -> 11));
+        assertEquals(11, map.compute("C", (k, v) -> v + 1));
+        assertEquals("C", map.getKey(11));
+        assertNull(map.getKey(10));
+        assertNull(map.computeIfPresent("C", (k, v) -> null));
+        assertFalse(map.containsValue(11));
+    }
+
+    @Test
+    public void testViews() {
+        Map<String, Integer> source = new HashMap<>();
+        source.put("A", 1);
+        source.put("B", 2);
+        ConcurrentBidiMap<String, Integer> map = new ConcurrentBidiMap<>(source);
+
+        assertEquals(source, map);
+        assertEquals(map, source);
+        assertEquals(source.keySet(), map.keySet());
+        assertTrue(map.values().containsAll(source.values()));
+        assertThrows(UnsupportedOperationException.class, () -> map.keySet().remove("A"));
+        assertThrows(UnsupportedOperationException.class, () -> map.values().remove(1));
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().clear());
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().next().setValue(5));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getKey(1));
+    }
+
+    @Test
+    public void testConcurrentSymbolTable() throws Exception {
+        ConcurrentBidiMap<String, Integer> map = new ConcurrentBidiMap<>(8);
+        AtomicInteger nextId = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Random rnd = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        String symbol = "S" + rnd.nextInt(2000);
+                        switch (rnd.nextInt(4)) {
+                            case 0:
+                                map.remove(symbol);
+                                break;
+                            case 1:
+                                Integer id = map.get(symbol);
+                                if (id != null) {
+                                    String key = map.getKey(id);
+                                    // mapping may be removed concurrently, but never point to another symbol
+                                    assertTrue(key == null || key.equals(symbol), symbol + " -> " + id + " -> " + key);
+                                }
+                                break;
+                            default:
+                                map.computeIfAbsent(symbol, s -> nextId.incrementAndGet());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int valueCount = 0;
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            assertEquals(entry.getKey(), map.getKey(entry.getValue()));
+            valueCount++;
+        }
+        assertEquals(map.size(), valueCount);
+        assertEquals(map.size(), map.values().size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.hypfvieh.collections;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.util.TypeUtil;
+
+public class FrozenBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testFreeze() {
+        CompactBidiMap<String, Integer> map = new CompactBidiMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put("K" + i, i);
+        }
+        map.remove("K5");
+        FrozenBidiMap<String, Integer> frozen = map.freeze();
+
+        assertEquals(map, frozen);
+        assertEquals(9_999, frozen.size());
+        for (int i = 0; i < 10_000; i++) {
+            Integer expected = i == 5 ? null : i;
+            assertEquals(expected, frozen.get("K" + i));
+            assertEquals(i == 5 ? null : "K" + i, frozen.getKey(i));
+        }
+        assertFalse(frozen.containsKey("K5"));
+        assertFalse(frozen.containsValue(10_000));
+
+        // later changes of the source map are not visible
+        map.put("K5", 5);
+        assertFalse(frozen.containsValue(5));
+    }
+
+    @Test
+    public void testImmutable() {
+        FrozenBidiMap<String, String> frozen = new CompactBidiMap<>(TypeUtil.createMap("K1", "V1")).freeze();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put("K2", "V2"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove("K1"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove("K2"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.clear());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.keySet().remove("K1"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.entrySet().iterator().next().setValue("V2"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.computeIfAbsent("K3", k -> "V3"));
+        assertThrows(IllegalArgumentException.class, () -> frozen.get(null));
+        assertEquals(FrozenBidiMap.class.getName() + "[{K1=V1}]", frozen.toString());
+    }
+
+    @Test
+    public void testEmpty() {
+        FrozenBidiMap<String, String> frozen = new CompactBidiMap<String, String>().freeze();
+        assertTrue(frozen.isEmpty());
+        assertNull(frozen.get("K1"));
+        assertNull(frozen.getKey("V1"));
+        assertEquals(Map.of(), frozen);
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.hypfvieh.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class IntIntBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testPutGet() {
+        IntIntBidiMap map = new IntIntBidiMap();
+        assertEquals(-1, map.put(1, 100));
+        assertEquals(100, map.put(1, 100));
+        assertEquals(-1, map.put(0, 0));
+        assertEquals(100, map.get(1));
+        assertEquals(0, map.get(0));
+        assertEquals(1, map.getKey(100));
+        assertEquals(0, map.getKey(0));
+        assertEquals(-1, map.get(2));
+        assertEquals(-1, map.getKey(2));
+        assertTrue(map.containsKey(0));
+        assertTrue(map.containsValue(100));
+        assertFalse(map.containsValue(1));
+        assertEquals(2, map.size());
+        assertEquals(IntIntBidiMap.class.getName() + "[{1=100, 0=0}]", map.toString());
+    }
+
+    @Test
+    public void testNotUnique() {
+        IntIntBidiMap map = new IntIntBidiMap();
+        map.put(1, 100);
+        map.put(2, 200);
+        assertEquals("Key [1] not unique in bidirectional map, cannot put(1, 300).",
+            assertThrows(IllegalArgumentException.class, () -> map.put(1, 300)).getMessage());
+        assertEquals("Value [100] not unique in bidirectional map, cannot put(3, 100).",
+            assertThrows(IllegalArgumentException.class, () -> map.put(3, 100)).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, 200));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        IntIntBidiMap map = new IntIntBidiMap(0, Integer.MIN_VALUE, Integer.MIN_VALUE);
+        map.put(1, 100);
+        map.put(2, 200);
+        map.put(3, 300);
+        assertEquals(100, map.remove(1));
+        assertEquals(Integer.MIN_VALUE, map.remove(1));
+        assertEquals(3, map.removeValue(300));
+        assertEquals(Integer.MIN_VALUE, map.removeValue(300));
+        assertEquals(1, map.size());
+        assertEquals(200, map.get(2));
+        assertEquals(2, map.getKey(200));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(2));
+    }
+
+    @Test
+    public void testCursor() {
+        IntIntBidiMap map = new IntIntBidiMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i * 10);
+        }
+        IntIntBidiMap.Cursor cursor = map.cursor();
+        assertThrows(NoSuchElementException.class, cursor::key);
+        long sum = 0;
+        int count = 0;
+        while (cursor.next()) {
+            assertEquals(cursor.key() * 10, cursor.value());
+            sum += cursor.key();
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(4950, sum);
+        assertFalse(cursor.next());
+        assertThrows(NoSuchElementException.class, cursor::value);
+
+        IntIntBidiMap.Cursor modified = map.cursor();
+        map.remove(5);
+        assertThrows(ConcurrentModificationException.class, modified::next);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        IntIntBidiMap map = new IntIntBidiMap(0);
+        // small ranges to provoke collisions and conflicts
+        Map<Integer, Integer> forward = new BidiMapModelChecker<Integer, Integer>(rnd -> rnd.nextInt(5000) - 2500, rnd -> rnd.nextInt(5000) * 64)
+            .withNoEntry(-1, -1)
+            .withPut(map::put).withRemove(map::remove).withRemoveValue(map::removeValue)
+            .withGet(map::get).withGetKey(map::getKey).withSize(map::size)
+            .run(42, 200_000);
+
+        IntIntBidiMap.Cursor cursor = map.cursor();
+        while (cursor.next()) {
+            assertEquals(forward.get(cursor.key()), cursor.value());
+        }
+    }
+}
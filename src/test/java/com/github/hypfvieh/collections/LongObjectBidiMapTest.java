@@ -0,0 +1,59 @@
+package com.github.hypfvieh.collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class LongObjectBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testPutGet() {
+        LongObjectBidiMap<String> map = new LongObjectBidiMap<>();
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertEquals("max", map.put(Long.MAX_VALUE, "max"));
+        assertNull(map.put(0L, "zero"));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertEquals(0L, map.getKey("zero"));
+        assertNull(map.get(1L));
+        assertEquals(-1L, map.getKey("none"));
+        assertTrue(map.containsKey(0L));
+        assertTrue(map.containsValue("max"));
+        assertEquals(2, map.size());
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+        assertThrows(IllegalArgumentException.class, () -> map.getKey(null));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, "other"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, "zero"));
+    }
+
+    @Test
+    public void testRemoveAndCursor() {
+        LongObjectBidiMap<String> map = new LongObjectBidiMap<>(0, Long.MIN_VALUE);
+        for (long i = 0; i < 1000; i++) {
+            map.put(i << 32, "V" + i);
+        }
+        assertEquals("V10", map.remove(10L << 32));
+        assertEquals(20L << 32, map.removeValue("V20"));
+        assertEquals(Long.MIN_VALUE, map.removeValue("V20"));
+        assertNull(map.remove(10L << 32));
+
+        int count = 0;
+        LongObjectBidiMap<String>.Cursor cursor = map.cursor();
+        while (cursor.next()) {
+            assertEquals("V" + (cursor.key() >>> 32), cursor.value());
+            count++;
+        }
+        assertEquals(998, count);
+        assertEquals(998, map.size());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        LongObjectBidiMap<String> map = new LongObjectBidiMap<>();
+        new BidiMapModelChecker<Long, String>(rnd -> rnd.nextInt(3000) * 0x1_0000_0000L, rnd -> "V" + rnd.nextInt(3000))
+            .withNoEntry(-1L, null)
+            .withPut(map::put).withRemove(map::remove).withRemoveValue(map::removeValue)
+            .withGet(map::get).withGetKey(map::getKey).withSize(map::size)
+            .run(7, 100_000);
+    }
+}
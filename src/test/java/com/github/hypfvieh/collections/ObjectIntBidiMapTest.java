@@ -0,0 +1,58 @@
+package com.github.hypfvieh.collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class ObjectIntBidiMapTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testPutGet() {
+        ObjectIntBidiMap<String> map = new ObjectIntBidiMap<>();
+        assertEquals(-1, map.put("EURUSD", 1));
+        assertEquals(1, map.put("EURUSD", 1));
+        assertEquals(-1, map.put("GBPUSD", 2));
+        assertEquals(2, map.get("GBPUSD"));
+        assertEquals("EURUSD", map.getKey(1));
+        assertEquals(-1, map.get("USDJPY"));
+        assertNull(map.getKey(3));
+        assertTrue(map.containsKey("EURUSD"));
+        assertTrue(map.containsValue(2));
+        assertEquals(ObjectIntBidiMap.class.getName() + "[{EURUSD=1, GBPUSD=2}]", map.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, 3));
+        assertThrows(IllegalArgumentException.class, () -> map.get(null));
+        assertThrows(IllegalArgumentException.class, () -> map.put("EURUSD", 3));
+        assertThrows(IllegalArgumentException.class, () -> map.put("USDJPY", 2));
+    }
+
+    @Test
+    public void testRemoveAndCursor() {
+        ObjectIntBidiMap<String> map = new ObjectIntBidiMap<>(4, Integer.MIN_VALUE);
+        for (int i = 0; i < 500; i++) {
+            map.put("S" + i, i);
+        }
+        assertEquals(7, map.remove("S7"));
+        assertEquals(Integer.MIN_VALUE, map.remove("S7"));
+        assertEquals("S8", map.removeValue(8));
+        assertNull(map.removeValue(8));
+
+        int count = 0;
+        ObjectIntBidiMap<String>.Cursor cursor = map.cursor();
+        while (cursor.next()) {
+            assertEquals("S" + cursor.value(), cursor.key());
+            count++;
+        }
+        assertEquals(498, count);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        ObjectIntBidiMap<String> map = new ObjectIntBidiMap<>(0);
+        new BidiMapModelChecker<String, Integer>(rnd -> "S" + rnd.nextInt(3000), rnd -> rnd.nextInt(3000))
+            .withNoEntry(null, -1)
+            .withPut(map::put).withRemove(map::remove).withRemoveValue(map::removeValue)
+            .withGet(map::get).withGetKey(map::getKey).withSize(map::size)
+            .run(3, 100_000);
+    }
+}
@@ -2,11 +2,22 @@ package com.github.hypfvieh.config.xml;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -200,4 +211,416 @@ public class XmlConfigurationTest extends AbstractBaseUtilTest {
         // key found and is boolean
         assertEquals(true, xmlConfiguration.getBoolean("Key5.Bool", false));
     }
+
+    @Test
+    public void testKeyCount() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+                .build();
+
+        assertEquals(16, xmlConfiguration.keyCount());
+    }
+
+    @Test
+    public void testGetAttribute() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+                .setSkipRoot(true)
+                .setKeyDelimiter("::")
+                .build();
+
+        assertEquals("sub", xmlConfiguration.getString("Key2::type"));
+        assertEquals("SubValue1", xmlConfiguration.getString("Key2::SubKey1"));
+        assertNull(xmlConfiguration.getString("Key2::unknown"));
+
+        xmlConfiguration.setString("Key2::SubKey1", true, "attrValue");
+        assertEquals("attrValue", xmlConfiguration.getString("Key2::SubKey1::SubKey1"));
+    }
+
+    @Test
+    public void testGetStringSkipsUnknownKeyParts() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+                .build();
+
+        assertEquals("SubValue1", xmlConfiguration.getString("Config/Unknown/Key2/SubKey1"));
+        assertEquals("SubValue1", xmlConfiguration.getString("Config/Key2/SubKey1/"));
+        assertNull(xmlConfiguration.getString("Config/Key2/Unknown"));
+    }
+
+    @Test
+    public void testSetStringReplacingChildren() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+                .build();
+
+        assertEquals("SubValue1", xmlConfiguration.getString("Config/Key2/SubKey1"));
+        xmlConfiguration.setString("Config/Key2", false, "NoChildren");
+
+        assertEquals("NoChildren", xmlConfiguration.getString("Config/Key2"));
+        assertNull(xmlConfiguration.getString("Config/Key2/SubKey1"));
+        assertEquals(15, xmlConfiguration.keyCount());
+    }
+
+    @Test
+    public void testIndexUpdatedOnChange() throws IOException {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getMethodName(), ".xml");
+        try {
+            XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+                .setOutputFile(tempFile).build();
+
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("Config/Key3", "NoList");
+            values.put("Config/Key4/Int", "200");
+            xmlConfiguration.setValues(values, false);
+            xmlConfiguration.setString("Config/Key1", false, "NewValue1");
+
+            // Key3 with SubKeyList and its 4 entries replaced by text
+            assertEquals(11, xmlConfiguration.keyCount());
+            assertEquals("NoList", xmlConfiguration.getString("Config/Key3"));
+            assertTrue(xmlConfiguration.getStringList("Config/Key3/SubKeyList").isEmpty());
+            assertEquals(200, xmlConfiguration.getInt("Config/Key4/Int", -1));
+
+            // index updated in place has to match the index of the saved document
+            xmlConfiguration.save();
+            XmlConfiguration saved = new XmlConfigBuilder().setInputFile(tempFile).build();
+            assertEquals(xmlConfiguration.keyCount(), saved.keyCount());
+            for (String key : List.of("Config/Key1", "Config/Key2/SubKey1", "Config/Key3", "Config/Key4/Int", "Config/Key5/Bool")) {
+                assertEquals(saved.getString(key), xmlConfiguration.getString(key), key);
+            }
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        Files.copy(Paths.get("src/test/resources/xmlConfigTest/xmlConfigTest.xml"), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile(tempFile)
+            .build();
+
+        assertTrue(xmlConfiguration.reload().isEmpty());
+
+        String content = Files.readString(tempFile.toPath())
+            .replace("SubValue1", "Changed")
+            .replace("type=\"sub\"", "type=\"other\"")
+            .replace("<Int>100</Int>", "");
+        Files.writeString(tempFile.toPath(), content);
+
+        Set<String> changed = xmlConfiguration.reload();
+        assertEquals(Set.of("Config/Key2/SubKey1", "Config/Key2/type", "Config/Key4/Int"), changed);
+        assertEquals("Changed", xmlConfiguration.getString("Config/Key2/SubKey1"));
+        assertNull(xmlConfiguration.getString("Config/Key4/Int"));
+
+        tempFile.delete();
+    }
+
+    @Test
+    public void testConcurrentReload() throws Exception {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        String original = Files.readString(Paths.get("src/test/resources/xmlConfigTest/xmlConfigTest.xml"));
+        Files.writeString(tempFile.toPath(), original);
+        try {
+            XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile(tempFile)
+                .build();
+
+            List<String> reported = new CopyOnWriteArrayList<>();
+            xmlConfiguration.addChangeListener((config, keys) -> {
+                if (keys.contains("Config/Key4/Int")) {
+                    reported.add(config.getString("Config/Key4/Int"));
+                }
+            });
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                for (int i = 1; i <= 20; i++) {
+                    Files.writeString(tempFile.toPath(), original.replace("<Int>100</Int>", "<Int>" + i + "</Int>"));
+                    List<Future<Set<String>>> reloads = new ArrayList<>();
+                    for (int t = 0; t < 4; t++) {
+                        reloads.add(executor.submit(xmlConfiguration::reload));
+                    }
+                    for (Future<Set<String>> reload : reloads) {
+                        reload.get(30, TimeUnit.SECONDS);
+                    }
+                    assertEquals(i, xmlConfiguration.getInt("Config/Key4/Int", -1));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // every file version was activated exactly once, never an outdated one
+            List<String> expected = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                expected.add(String.valueOf(i));
+            }
+            assertEquals(expected, reported);
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testReloadOnChange() throws Exception {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        Files.copy(Paths.get("src/test/resources/xmlConfigTest/xmlConfigTest.xml"), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile(tempFile)
+            .setReloadOnChange(true)
+            .build();
+
+        try {
+            CompletableFuture<Set<String>> changedKeys = new CompletableFuture<>();
+            xmlConfiguration.addChangeListener((cfg, keys) -> changedKeys.complete(keys));
+
+            Files.writeString(tempFile.toPath(), Files.readString(tempFile.toPath()).replace(">Value1<", ">Reloaded<"));
+
+            assertEquals(Set.of("Config/Key1"), changedKeys.get(30, TimeUnit.SECONDS));
+            assertEquals("Reloaded", xmlConfiguration.getString("Config/Key1"));
+        } finally {
+            xmlConfiguration.stopReloadOnChange();
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testBinaryCache() throws IOException {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        File imageFile = new File(tempFile.getPath() + ".bin");
+        Files.copy(Paths.get("src/test/resources/xmlConfigTest/xmlConfigTest.xml"), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        try {
+            XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile(tempFile)
+                .setBinaryCache(true)
+                .build();
+
+            assertFileExists(imageFile);
+            assertEquals("SubValue1", xmlConfiguration.getString("Config/Key2/SubKey1"));
+
+            // change content without changing size and modification time, so the image is still considered valid
+            long lastModified = tempFile.lastModified();
+            Files.writeString(tempFile.toPath(), Files.readString(tempFile.toPath()).replace(">Value1<", ">VALUE1<"));
+            assertTrue(tempFile.setLastModified(lastModified));
+
+            xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile(tempFile)
+                .setBinaryCache(true)
+                .build();
+
+            // values read from image
+            assertEquals("Value1", xmlConfiguration.getString("Config/Key1"));
+            assertEquals("SubValue1", xmlConfiguration.getString("Config/Key2/SubKey1/"));
+            assertEquals("SubValue1", xmlConfiguration.getString("Config/Unknown/Key2/SubKey1"));
+            assertEquals("sub", xmlConfiguration.getString("Config/Key2/type"));
+            assertEquals("default", xmlConfiguration.getString("Config/Key2/Unknown", "default"));
+            assertEquals(100, xmlConfiguration.getInt("Config/Key4/Int", -1));
+            assertEquals(16, xmlConfiguration.keyCount());
+
+            // modification requires the document, which is parsed from the XML file
+            xmlConfiguration.setString("Config/Key4/Int", false, "200");
+            assertEquals(200, xmlConfiguration.getInt("Config/Key4/Int", -1));
+            assertEquals("VALUE1", xmlConfiguration.getString("Config/Key1"));
+            assertEquals(4, xmlConfiguration.getStringList("Config/Key3/SubKeyList/SubListEntry").size());
+        } finally {
+            tempFile.delete();
+            imageFile.delete();
+        }
+    }
+
+    @Test
+    public void testStreamingKeyPrefixes() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .setStreamingKeyPrefixes("Config/Key2", "Config/Key3/SubKeyList/")
+            .build();
+
+        assertEquals("SubValue1", xmlConfiguration.getString("Config/Key2/SubKey1"));
+        assertEquals("sub", xmlConfiguration.getString("Config/Key2/type"));
+        assertEquals(4, xmlConfiguration.getStringList("Config/Key3/SubKeyList/SubListEntry").size());
+        assertEquals(4, xmlConfiguration.getStringList("Config/Key3/SubKeyList").size());
+
+        // not selected
+        assertNull(xmlConfiguration.getString("Config/Key1"));
+        assertEquals(-1, xmlConfiguration.getInt("Config/Key4/Int", -1));
+        // Config, Key2, SubKey1, Key3, SubKeyList and 4 SubListEntry elements
+        assertEquals(9, xmlConfiguration.keyCount());
+
+        assertThrows(IOException.class, () -> xmlConfiguration.save());
+    }
+
+    @Test
+    public void testStreamingKeyPrefixesSaveKeepsOutputFile() throws IOException {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        Files.copy(Paths.get("src/test/resources/xmlConfigTest/xmlConfigTest.xml"), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        byte[] original = Files.readAllBytes(tempFile.toPath());
+
+        try {
+            XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+                .setInputFile(tempFile)
+                .setOutputFile(tempFile)
+                .setStreamingKeyPrefixes("Config/Key2")
+                .build();
+
+            assertThrows(IOException.class, () -> xmlConfiguration.save());
+            assertArrayEquals(original, Files.readAllBytes(tempFile.toPath()));
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testStreamingKeyPrefixesSkipRoot() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .setSkipRoot(true)
+            .setKeyDelimiter("::")
+            .setStreamingKeyPrefixes("Key4")
+            .build();
+
+        assertEquals(100, xmlConfiguration.getInt("Key4::Int", -1));
+        assertEquals("A", xmlConfiguration.getString("Key4::NotInt"));
+        assertNull(xmlConfiguration.getString("Key5::Bool"));
+        assertEquals(3, xmlConfiguration.keyCount());
+    }
+
+    @Test
+    public void testBind() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .build();
+
+        BoundConfig bound = xmlConfiguration.bind(BoundConfig.class);
+        assertEquals("Value1", bound.key1);
+        assertEquals(100, bound.intValue);
+        assertTrue(bound.boolValue);
+        assertEquals(BoundType.sub, bound.type);
+        assertEquals(List.of("SubListEntry1", "SubListEntry2", "SubListEntry3", "SubListEntry3"), bound.list);
+        assertEquals(Set.of("SubListEntry1", "SubListEntry2", "SubListEntry3"), bound.set);
+        assertEquals("keep", bound.optional);
+        assertThrows(UnsupportedOperationException.class, () -> bound.list.add("x"));
+    }
+
+    @Test
+    public void testBindReportsAllErrors() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .build();
+
+        ConfigurationException ex = assertThrows(ConfigurationException.class, () -> xmlConfiguration.bind(InvalidBoundConfig.class));
+        assertTrue(ex.getMessage().contains("notInt"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("missing"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("notBool"), ex.getMessage());
+    }
+
+    @Test
+    public void testBindRejectsInvalidBoolean() {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .build();
+
+        ConfigurationException ex = assertThrows(ConfigurationException.class, () -> xmlConfiguration.bind(InvalidBooleanConfig.class));
+        assertTrue(ex.getMessage().contains("'bla'"), ex.getMessage());
+
+        xmlConfiguration.setString("Config/Key5/NotBool", false, "No");
+        assertFalse(xmlConfiguration.bind(InvalidBooleanConfig.class).notBool);
+        xmlConfiguration.setString("Config/Key5/NotBool", false, " 1 ");
+        assertTrue(xmlConfiguration.bind(InvalidBooleanConfig.class).notBool);
+    }
+
+    @Test
+    public void testSaveAsync() throws Exception {
+        File tempFile = File.createTempFile(getClass().getSimpleName() + getShortTestMethodName(), ".xml");
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .setOutputFile(tempFile)
+            .setSaveDelay(200, TimeUnit.MILLISECONDS)
+            .build();
+
+        try {
+            xmlConfiguration.setString("Config/Key1", false, "Async1");
+            CompletableFuture<Void> save1 = xmlConfiguration.saveAsync();
+            xmlConfiguration.setString("Config/Key4/Int", false, "42");
+            CompletableFuture<Void> save2 = xmlConfiguration.saveAsync();
+
+            // both calls are combined to one write
+            assertSame(save1, save2);
+            save1.get(30, TimeUnit.SECONDS);
+
+            XmlConfiguration saved = new XmlConfigBuilder().setInputFile(tempFile).build();
+            assertEquals("Async1", saved.getString("Config/Key1"));
+            assertEquals(42, saved.getInt("Config/Key4/Int", -1));
+
+            // a new call after the write requires a new save
+            CompletableFuture<Void> save3 = xmlConfiguration.saveAsync();
+            assertNotSame(save1, save3);
+            save3.get(30, TimeUnit.SECONDS);
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentSetString() throws Exception {
+        XmlConfiguration xmlConfiguration = new XmlConfigBuilder()
+            .setInputFile("src/test/resources/xmlConfigTest/xmlConfigTest.xml")
+            .build();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String key = t % 2 == 0 ? "Config/Key4/Int" : "Config/Key5/Bool";
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 500; i++) {
+                    xmlConfiguration.setString(key, false, String.valueOf(i));
+                    xmlConfiguration.setValues(Map.of(key, String.valueOf(i)), true);
+                    assertNotNull(xmlConfiguration.getString(key));
+                    assertFalse(xmlConfiguration.getStringList("Config/Key3/SubKeyList").isEmpty());
+                }
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+
+        assertEquals(499, xmlConfiguration.getInt("Config/Key4/Int", -1));
+        assertEquals("499", xmlConfiguration.getString("Config/Key5/Bool/Bool"));
+    }
+
+    enum BoundType {
+        sub, main
+    }
+
+    static class BoundConfig {
+        @XmlConfigKey("Config/Key1")
+        private String       key1;
+        @XmlConfigKey("Config/Key4/Int")
+        private int          intValue = -1;
+        @XmlConfigKey("Config/Key5/Bool")
+        private boolean      boolValue;
+        @XmlConfigKey("Config/Key2/type")
+        private BoundType    type;
+        @XmlConfigKey("Config/Key3/SubKeyList/SubListEntry")
+        private List<String> list;
+        @XmlConfigKey("Config/Key3/SubKeyList")
+        private Set<String>  set;
+        @XmlConfigKey(value = "Config/Unknown", required = false)
+        private String       optional = "keep";
+    }
+
+    static class InvalidBoundConfig {
+        @XmlConfigKey("Config/Key4/NotInt")
+        private int       notInt;
+        @XmlConfigKey("Config/Key5/NotBool")
+        private BoundType notBool;
+        @XmlConfigKey("Config/Key4/Missing")
+        private String    missing;
+    }
+
+    static class InvalidBooleanConfig {
+        @XmlConfigKey("Config/Key5/NotBool")
+        private boolean notBool;
+    }
 }
@@ -0,0 +1,48 @@
+package com.github.hypfvieh.db;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.util.SystemUtil;
+
+public class HyperSqlUtilTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testCopyFromTemplate() throws Exception {
+        File target1 = new File(SystemUtil.getTempDir(), "HyperSqlUtilTest-1");
+        File target2 = new File(SystemUtil.getTempDir(), "HyperSqlUtilTest-2");
+
+        HyperSqlUtil util1 = new HyperSqlUtil("HyperSqlUtilTest/testdb", target1, true).copyHsqlDbFiles();
+        HyperSqlUtil util2 = new HyperSqlUtil("HyperSqlUtilTest/testdb", target2, true).copyHsqlDbFiles();
+
+        File script1 = assertFileExists(new File(target1, "testdb.script"));
+        File script2 = assertFileExists(new File(target2, "testdb.script"));
+        assertFileExists(new File(target1, "testdb.properties"));
+        assertFileExists(new File(target2, "testdb.properties"));
+
+        assertEquals(Files.readString(script1.toPath()), Files.readString(script2.toPath()));
+        assertContains(Files.readString(script1.toPath()), "CREATE MEMORY TABLE PUBLIC.TEST");
+
+        // modifying the copy must not change other instances
+        Files.writeString(new File(target1, "testdb.properties").toPath(), "modified=yes");
+        assertContains(Files.readString(new File(target2, "testdb.properties").toPath()), "modified=no");
+
+        util1.cleanupTargetDirAsync().get(10, TimeUnit.SECONDS);
+        util2.cleanupTargetDirAsync().get(10, TimeUnit.SECONDS);
+
+        assertFileNotExists(target1);
+        assertFileNotExists(target2);
+    }
+
+    @Test
+    public void testMissingScriptFile() {
+        HyperSqlUtil util = new HyperSqlUtil("HyperSqlUtilTest/doesnotexist", new File(SystemUtil.getTempDir(), "HyperSqlUtilTest-3"), true);
+        assertThrows(RuntimeException.class, util::copyHsqlDbFiles);
+        util.cleanupTargetDir();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.github.hypfvieh.db.persistence;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.db.persistence.BulkPersister.BulkPersistStatistics;
+
+import jakarta.persistence.PersistenceException;
+
+public class BulkPersisterTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testPersistSequential() throws Exception {
+        EntityManagerFixture fixture = new EntityManagerFixture();
+
+        BulkPersistStatistics stats = new BulkPersister(fixture::createEntityManager)
+            .withTransactionSize(100)
+            .withFlushSize(10)
+            .persist(IntStream.range(0, 250).boxed());
+
+        assertEquals(250, stats.getEntities());
+        assertEquals(3, stats.getTransactions());
+        assertEquals(250, fixture.count("persist"));
+        assertEquals(3, fixture.count("commit"));
+        assertEquals(25, fixture.count("flush"));
+        assertEquals(1, fixture.count("close"));
+    }
+
+    @Test
+    public void testFlushCountedPerTransaction() throws Exception {
+        EntityManagerFixture fixture = new EntityManagerFixture();
+
+        new BulkPersister(fixture::createEntityManager)
+            .withTransactionSize(15)
+            .withFlushSize(10)
+            .persist(IntStream.range(0, 30).boxed());
+
+        // flushed after the 10th entity of each transaction, the remaining 5 are flushed by commit
+        assertEquals(2, fixture.count("commit"));
+        assertEquals(2, fixture.count("flush"));
+    }
+
+    @Test
+    public void testPersistParallel() throws Exception {
+        EntityManagerFixture fixture = new EntityManagerFixture();
+
+        BulkPersistStatistics stats = new BulkPersister(fixture::createEntityManager)
+            .withTransactionSize(100)
+            .withThreads(4)
+            .persist(IntStream.range(0, 1050).boxed().iterator());
+
+        assertEquals(1050, stats.getEntities());
+        assertEquals(11, stats.getTransactions());
+        assertEquals(1050, fixture.count("persist"));
+        assertEquals(11, fixture.count("commit"));
+        assertTrue(fixture.count("close") <= 4);
+    }
+
+    @Test
+    public void testPersistFailure() {
+        EntityManagerFixture fixture = new EntityManagerFixture().failOn(42);
+
+        BulkPersister persister = new BulkPersister(fixture::createEntityManager).withTransactionSize(10);
+
+        assertThrows(PersistenceException.class, () -> persister.persist(List.of(1, 2, 42, 4).iterator()));
+        assertEquals(1, fixture.count("rollback"));
+        assertEquals(0, fixture.count("commit"));
+    }
+}
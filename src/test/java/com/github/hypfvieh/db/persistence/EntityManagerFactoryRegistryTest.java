@@ -0,0 +1,125 @@
+package com.github.hypfvieh.db.persistence;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.db.persistence.EntityManagerFactoryRegistry.FactoryKey;
+
+import jakarta.persistence.EntityManagerFactory;
+
+public class EntityManagerFactoryRegistryTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testSharedAcquisition() throws Exception {
+        FactoryKey key = createKey(getShortTestMethodName());
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+
+        EntityManagerFactory emf1 = EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        EntityManagerFactory emf2 = EntityManagerFactoryRegistry.acquire(createKey(getShortTestMethodName()), () -> createFactory(created, closed));
+        EntityManagerFactory other = EntityManagerFactoryRegistry.acquire(createKey("other"), () -> createFactory(created, closed));
+
+        try {
+            assertSame(emf1, emf2);
+            assertNotSame(emf1, other);
+            assertEquals(2, created.get());
+        } finally {
+            EntityManagerFactoryRegistry.release(key);
+            EntityManagerFactoryRegistry.release(key);
+            EntityManagerFactoryRegistry.release(createKey("other"));
+        }
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testReleaseToZeroClosesFactory() throws Exception {
+        FactoryKey key = createKey(getShortTestMethodName());
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+
+        EntityManagerFactory emf = EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+
+        EntityManagerFactoryRegistry.release(key);
+        assertTrue(emf.isOpen());
+        assertEquals(0, closed.get());
+
+        EntityManagerFactoryRegistry.release(key);
+        assertFalse(emf.isOpen());
+        assertEquals(1, closed.get());
+
+        // next acquisition creates a new factory
+        EntityManagerFactory emf2 = EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        assertNotSame(emf, emf2);
+        assertEquals(2, created.get());
+        EntityManagerFactoryRegistry.release(key);
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testDoubleRelease() throws Exception {
+        FactoryKey key = createKey(getShortTestMethodName());
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+
+        EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        EntityManagerFactoryRegistry.release(key);
+        EntityManagerFactoryRegistry.release(key);
+        assertEquals(1, closed.get());
+
+        // a later acquisition must not be affected by the superfluous release
+        EntityManagerFactory emf = EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        assertTrue(emf.isOpen());
+        EntityManagerFactoryRegistry.release(key);
+        assertFalse(emf.isOpen());
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testFailedCreationReleasesReference() throws Exception {
+        FactoryKey key = createKey(getShortTestMethodName());
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> EntityManagerFactoryRegistry.acquire(key, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        EntityManagerFactory emf = EntityManagerFactoryRegistry.acquire(key, () -> createFactory(created, closed));
+        EntityManagerFactoryRegistry.release(key);
+        assertFalse(emf.isOpen());
+    }
+
+    private static FactoryKey createKey(String _unitName) {
+        return new FactoryKey("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:test", _unitName, Map.of("hibernate.show_sql", "false"), new byte[] {1, 2, 3});
+    }
+
+    private static EntityManagerFactory createFactory(AtomicInteger _created, AtomicInteger _closed) {
+        _created.incrementAndGet();
+        AtomicBoolean open = new AtomicBoolean(true);
+
+        return (EntityManagerFactory) Proxy.newProxyInstance(EntityManagerFactoryRegistryTest.class.getClassLoader(),
+            new Class<?>[] {EntityManagerFactory.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isOpen":
+                        return open.get();
+                    case "close":
+                        if (open.compareAndSet(true, false)) {
+                            _closed.incrementAndGet();
+                        }
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+}
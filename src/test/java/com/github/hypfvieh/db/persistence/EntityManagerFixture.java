@@ -0,0 +1,113 @@
+package com.github.hypfvieh.db.persistence;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Creates proxy based {@link EntityManager}s for tests which do not need a database.
+ * <p>
+ * All method calls on the created {@link EntityManager}s and their {@link EntityTransaction}s are counted by method name.
+ * </p>
+ */
+final class EntityManagerFixture {
+    private final Map<String, AtomicInteger> calls   = new ConcurrentHashMap<>();
+    private final AtomicInteger              created = new AtomicInteger();
+    private Object                           failOn;
+
+    /**
+     * Let {@link EntityManager#persist(Object)} throw a {@link PersistenceException} for the given entity.
+     *
+     * @param _entity entity
+     * @return this
+     */
+    EntityManagerFixture failOn(Object _entity) {
+        failOn = _entity;
+        return this;
+    }
+
+    /**
+     * Number of calls of the given method on all created {@link EntityManager}s and transactions.
+     *
+     * @param _method method name
+     * @return int
+     */
+    int count(String _method) {
+        AtomicInteger cnt = calls.get(_method);
+        return cnt == null ? 0 : cnt.get();
+    }
+
+    /**
+     * Number of {@link EntityManager}s created by this fixture.
+     *
+     * @return int
+     */
+    int getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Creates a new {@link EntityManager} proxy with its own {@link EntityTransaction}.
+     *
+     * @return {@link EntityManager}
+     */
+    EntityManager createEntityManager() {
+        created.incrementAndGet();
+        AtomicBoolean open = new AtomicBoolean(true);
+        AtomicBoolean active = new AtomicBoolean();
+
+        EntityTransaction tx = (EntityTransaction) Proxy.newProxyInstance(EntityManagerFixture.class.getClassLoader(),
+            new Class<?>[] {EntityTransaction.class}, (proxy, method, args) -> {
+                record(method.getName());
+                switch (method.getName()) {
+                    case "begin":
+                        active.set(true);
+                        return null;
+                    case "commit":
+                    case "rollback":
+                        active.set(false);
+                        return null;
+                    case "isActive":
+                        return active.get();
+                    default:
+                        return null;
+                }
+            });
+
+        return (EntityManager) Proxy.newProxyInstance(EntityManagerFixture.class.getClassLoader(),
+            new Class<?>[] {EntityManager.class}, (proxy, method, args) -> {
+                record(method.getName());
+                switch (method.getName()) {
+                    case "persist":
+                        if (failOn != null && Objects.equals(args[0], failOn)) {
+                            throw new PersistenceException("Failed on " + failOn);
+                        }
+                        return null;
+                    case "isOpen":
+                        return open.get();
+                    case "close":
+                        open.set(false);
+                        return null;
+                    case "getTransaction":
+                        return tx;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    private void record(String _method) {
+        calls.computeIfAbsent(_method, k -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.hypfvieh.db.persistence;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+import jakarta.persistence.EntityManager;
+
+public class EntityManagerPoolTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testCheckoutAndCheckin() throws Exception {
+        EntityManagerFixture fixture = new EntityManagerFixture();
+
+        try (EntityManagerPool pool = new EntityManagerPool(fixture::createEntityManager, 2)) {
+            EntityManager em1 = pool.checkout();
+            EntityManager em2 = pool.checkout();
+            assertNotSame(em1, em2);
+            assertEquals(2, fixture.getCreated());
+
+            assertNull(pool.checkout(10, TimeUnit.MILLISECONDS));
+            assertEquals(1, pool.getStatistics().getWaits());
+
+            pool.checkin(em1);
+            assertEquals(1, fixture.count("clear"));
+
+            EntityManager em3 = pool.checkout();
+            assertSame(em1, em3);
+            assertEquals(2, fixture.getCreated());
+
+            pool.checkin(em2);
+            pool.checkin(em3);
+
+            assertEquals(3, pool.getStatistics().getCheckouts());
+            assertEquals(2, pool.getStatistics().getIdle());
+        }
+    }
+
+    @Test
+    public void testWaitForFreeEntityManager() throws Exception {
+        try (EntityManagerPool pool = new EntityManagerPool(new EntityManagerFixture()::createEntityManager, 1)) {
+            EntityManager em = pool.checkout();
+            CountDownLatch latch = new CountDownLatch(1);
+
+            Thread t = new Thread(() -> {
+                try {
+                    EntityManager other = pool.checkout();
+                    pool.checkin(other);
+                    latch.countDown();
+                } catch (Exception _ex) {
+                    throw new RuntimeException(_ex);
+                }
+            });
+            t.start();
+
+            assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+            pool.checkin(em);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, pool.getStatistics().getWaits());
+            assertTrue(pool.getStatistics().getMaxWaitNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testCheckinForeignEntityManager() throws Exception {
+        try (EntityManagerPool pool = new EntityManagerPool(new EntityManagerFixture()::createEntityManager, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> pool.checkin(new EntityManagerFixture().createEntityManager()));
+        }
+    }
+
+    @Test
+    public void testDoubleCheckin() throws Exception {
+        try (EntityManagerPool pool = new EntityManagerPool(new EntityManagerFixture()::createEntityManager, 1)) {
+            EntityManager em = pool.checkout();
+            pool.checkin(em);
+            assertThrows(IllegalArgumentException.class, () -> pool.checkin(em));
+
+            // the second checkin must not have released another permit
+            EntityManager em2 = pool.checkout();
+            assertNull(pool.checkout(10, TimeUnit.MILLISECONDS));
+            pool.checkin(em2);
+        }
+    }
+}
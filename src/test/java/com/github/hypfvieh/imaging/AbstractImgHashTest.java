@@ -0,0 +1,49 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class AbstractImgHashTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testCalculateSubsampling() {
+        assertEquals(1, AbstractImgHash.calculateSubsampling(100, 100, 32, 32));
+        assertEquals(2, AbstractImgHash.calculateSubsampling(1082, 720, 32, 32));
+        assertEquals(11, AbstractImgHash.calculateSubsampling(1082, 720, 8, 8));
+        assertEquals(1, AbstractImgHash.calculateSubsampling(4000, 10, 8, 8));
+    }
+
+    @Test
+    public void testReadImageSubsampled() throws IOException {
+        BufferedImage image = AbstractImgHash.readImage(new File("src/test/resources/imaging/compare.jpg"), 32, 32);
+        // 1082 x 720 read with subsampling factor 2
+        assertEquals(541, image.getWidth());
+        assertEquals(360, image.getHeight());
+    }
+
+    @Test
+    public void testSubsampledHashCloseToFullDecode() throws IOException {
+        // hash values of the test images computed from the fully decoded images
+        File[] images = {new File("src/test/resources/imaging/compare.jpg"), new File("src/test/resources/imaging/nocompare.jpg")};
+        long[] fullAHash = {0xdfb8f8070f8f87a6L, 0xe0838f0f8ff8b8deL};
+        long[] fullDHash = {0x10f023e5b158a8b8L, 0x954acb61f684c76aL};
+        long[] fullPHash = {0x8ce38e0d09090000L, 0xda48c0b863de0000L};
+
+        for (int i = 0; i < images.length; i++) {
+            assertTrue(ImageCompare.hammingDistance(fullAHash[i], ImgAHash.computeHashValue(images[i])) <= 1);
+            assertTrue(ImageCompare.hammingDistance(fullDHash[i], ImgDHash.computeHashValue(images[i])) <= 4);
+            assertEquals(fullPHash[i], ImgPHash.computeHashValue(images[i]));
+        }
+    }
+
+    @Test
+    public void testReadInvalidImage() {
+        assertThrows(IOException.class, () -> AbstractImgHash.readImage(new File("src/test/resources/imaging/missing.jpg"), 8, 8));
+        assertThrows(IOException.class, () -> AbstractImgHash.readImage(new File("pom.xml"), 8, 8));
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.imaging.BatchImageHasher.BatchHashResult;
+
+public class BatchImageHasherTest extends AbstractBaseUtilTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory(getClass().getSimpleName());
+        Path sub = Files.createDirectories(tempDir.resolve("images/sub"));
+        Files.copy(Paths.get("src/test/resources/imaging/compare.jpg"), tempDir.resolve("images/compare.jpg"));
+        Files.copy(Paths.get("src/test/resources/imaging/nocompare.jpg"), sub.resolve("nocompare.jpg"));
+        Files.writeString(sub.resolve("broken.jpg"), "no image");
+        Files.writeString(sub.resolve("readme.txt"), "ignored");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testHashDirectory() throws IOException {
+        Path images = tempDir.resolve("images");
+        BatchHashResult result = BatchImageHasher.pHash().withThreads(2).hashDirectory(images);
+
+        assertEquals(2, result.getHashes().size());
+        assertEquals(2, result.getHashedFiles());
+        assertEquals(0, result.getCachedFiles());
+        assertEquals(1, result.getFailures().size());
+        assertTrue(result.getFailures().containsKey(images.toAbsolutePath().resolve("sub/broken.jpg")));
+
+        Path compare = images.toAbsolutePath().resolve("compare.jpg");
+        assertEquals(ImgPHash.computeHashValue(compare.toFile()), result.getHashes().get(compare));
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path images = tempDir.resolve("images");
+        Path cacheFile = tempDir.resolve("hashes.cache");
+
+        BatchHashResult first = BatchImageHasher.dHash().withCacheFile(cacheFile).hashDirectory(images);
+        assertEquals(2, first.getHashedFiles());
+        assertFileExists(cacheFile.toFile());
+
+        BatchHashResult second = BatchImageHasher.dHash().withCacheFile(cacheFile).hashDirectory(images);
+        assertEquals(0, second.getHashedFiles());
+        assertEquals(2, second.getCachedFiles());
+        assertEquals(first.getHashes(), second.getHashes());
+
+        // changed file has to be hashed again
+        Path changed = images.resolve("sub/nocompare.jpg");
+        Files.setLastModifiedTime(changed, FileTime.fromMillis(Files.getLastModifiedTime(changed).toMillis() - 10000));
+        BatchHashResult third = BatchImageHasher.dHash().withCacheFile(cacheFile).hashDirectory(images);
+        assertEquals(1, third.getHashedFiles());
+        assertEquals(1, third.getCachedFiles());
+
+        // cache created by other algorithm is ignored
+        BatchHashResult other = BatchImageHasher.aHash().withCacheFile(cacheFile).hashDirectory(images);
+        assertEquals(2, other.getHashedFiles());
+
+        // replaced file is detected and removed files are dropped from cache
+        Files.copy(Paths.get("src/test/resources/imaging/compare.jpg"), changed, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(images.resolve("compare.jpg"));
+        BatchHashResult last = BatchImageHasher.aHash().withCacheFile(cacheFile).hashDirectory(images);
+        assertEquals(1, last.getHashedFiles());
+        assertEquals(0, last.getCachedFiles());
+        assertEquals(1, ImageHashCache.load(cacheFile, "AHash").size());
+    }
+
+    @Test
+    public void testFilesRemovedWhileWalking() throws IOException {
+        Path images = tempDir.resolve("images").toAbsolutePath();
+        Path sub = images.resolve("sub");
+        AtomicBoolean removed = new AtomicBoolean();
+
+        // the first file visited in sub removes all other files of sub before they are visited
+        BatchHashResult result = BatchImageHasher.dHash().withThreads(1).withFileFilter(p -> {
+            if (p.getParent().equals(sub) && removed.compareAndSet(false, true)) {
+                try (Stream<Path> files = Files.list(sub)) {
+                    files.filter(f -> !f.equals(p)).forEach(f -> f.toFile().delete());
+                } catch (IOException _ex) {
+                    throw new UncheckedIOException(_ex);
+                }
+            }
+            return p.toString().endsWith(".jpg");
+        }).hashDirectory(images);
+
+        assertTrue(result.getHashes().containsKey(images.resolve("compare.jpg")));
+        // the two removed files have been reported instead of aborting the walk
+        assertTrue(result.getFailures().values().stream().filter(NoSuchFileException.class::isInstance).count() >= 2, result.getFailures().toString());
+    }
+
+    @Test
+    public void testUnreadableDirectory() throws IOException {
+        Path images = tempDir.resolve("images").toAbsolutePath();
+        Path sub = images.resolve("sub");
+        Assumptions.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"), "POSIX file system required");
+        Files.setPosixFilePermissions(sub, PosixFilePermissions.fromString("---------"));
+        try {
+            Assumptions.assumeFalse(Files.isReadable(sub), "Directory permissions are not enforced for this user");
+
+            BatchHashResult result = BatchImageHasher.dHash().hashDirectory(images);
+            assertEquals(1, result.getHashes().size());
+            assertTrue(result.getFailures().containsKey(sub), result.getFailures().toString());
+        } finally {
+            Files.setPosixFilePermissions(sub, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    @Test
+    public void testCacheSavedOnAbort() throws IOException {
+        Path images = tempDir.resolve("images");
+        Path cacheFile = tempDir.resolve("hashes.cache");
+
+        assertThrows(IllegalStateException.class, () -> BatchImageHasher.dHash().withCacheFile(cacheFile).withFileFilter(p -> {
+            throw new IllegalStateException("aborted");
+        }).hashDirectory(images));
+        assertFileExists(cacheFile.toFile());
+    }
+}
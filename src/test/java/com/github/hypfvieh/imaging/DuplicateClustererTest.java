@@ -0,0 +1,117 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.imaging.DuplicateClusterer.HashCluster;
+
+public class DuplicateClustererTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testChainedCluster() {
+        Map<String, Long> hashes = new LinkedHashMap<>();
+        hashes.put("a", 0b0000L);
+        hashes.put("b", 0b0011L);
+        hashes.put("c", 0b1111L);
+        hashes.put("d", -1L);
+        hashes.put("e", -1L ^ 1L);
+
+        List<HashCluster<String>> clusters = new DuplicateClusterer(2).cluster(hashes);
+        assertEquals(2, clusters.size());
+
+        // a-b and b-c are within distance, a-c is not
+        assertEquals(List.of("a", "b", "c"), clusters.get(0).getMembers());
+        assertEquals("b", clusters.get(0).getRepresentative());
+        assertEquals(0b0011L, clusters.get(0).getRepresentativeHash());
+        assertEquals(List.of("d", "e"), clusters.get(1).getMembers());
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random rnd = new Random(815);
+        Map<Integer, Long> hashes = new LinkedHashMap<>();
+        long base = 0;
+        for (int i = 0; i < 5000; i++) {
+            base = i % 7 == 0 ? rnd.nextLong() : base ^ (1L << rnd.nextInt(64)) ^ (1L << rnd.nextInt(64)) ^ (1L << rnd.nextInt(64));
+            hashes.put(i, base);
+        }
+
+        List<HashCluster<Integer>> clusters = new DuplicateClusterer(5).withThreads(4).cluster(hashes);
+
+        Set<Set<Integer>> expected = bruteForce(hashes, 5);
+        Set<Set<Integer>> actual = clusters.stream().map(c -> new HashSet<>(c.getMembers())).collect(Collectors.toSet());
+        assertEquals(expected, actual);
+        for (HashCluster<Integer> cluster : clusters) {
+            assertTrue(cluster.getMembers().contains(cluster.getRepresentative()));
+            assertEquals(hashes.get(cluster.getRepresentative()), cluster.getRepresentativeHash());
+            long minSum = cluster.getMembers().stream().mapToLong(m -> distanceSum(hashes.get(m), cluster.getMembers(), hashes)).min().getAsLong();
+            assertEquals(minSum, distanceSum(cluster.getRepresentativeHash(), cluster.getMembers(), hashes));
+        }
+    }
+
+    private static long distanceSum(long _hash, List<Integer> _members, Map<Integer, Long> _hashes) {
+        return _members.stream().mapToLong(m -> Long.bitCount(_hash ^ _hashes.get(m))).sum();
+    }
+
+    @Test
+    public void testClusterDirectory() throws IOException {
+        Path dir = Files.createTempDirectory(getClass().getSimpleName());
+        try {
+            Files.copy(Paths.get("src/test/resources/imaging/compare.jpg"), dir.resolve("a.jpg"));
+            Files.copy(Paths.get("src/test/resources/imaging/compare.jpg"), dir.resolve("b.jpg"));
+            Files.copy(Paths.get("src/test/resources/imaging/nocompare.jpg"), dir.resolve("c.jpg"));
+
+            List<HashCluster<Path>> clusters = new DuplicateClusterer(4).clusterDirectory(BatchImageHasher.pHash(), dir);
+            assertEquals(1, clusters.size());
+            assertEquals(List.of(dir.toAbsolutePath().resolve("a.jpg"), dir.toAbsolutePath().resolve("b.jpg")), clusters.get(0).getMembers());
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static Set<Set<Integer>> bruteForce(Map<Integer, Long> _hashes, int _distance) {
+        int n = _hashes.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (Long.bitCount(_hashes.get(i) ^ _hashes.get(j)) <= _distance) {
+                    parent[find(parent, i)] = find(parent, j);
+                }
+            }
+        }
+        Map<Integer, Set<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new HashSet<>()).add(i);
+        }
+        return groups.values().stream().filter(s -> s.size() > 1).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static int find(int[] _parent, int _i) {
+        int i = _i;
+        while (_parent[i] != i) {
+            i = _parent[i];
+        }
+        return i;
+    }
+}
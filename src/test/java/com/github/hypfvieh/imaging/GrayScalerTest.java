@@ -0,0 +1,83 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class GrayScalerTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testImageTypesProduceSameResult() {
+        BufferedImage reference = createRandomImage(BufferedImage.TYPE_INT_RGB, 123, 77);
+        double[] expected = new GrayScaler().scale(reference, 8, 8, null, 1);
+
+        int[] types = {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_USHORT_565_RGB};
+
+        GrayScaler scaler = new GrayScaler();
+        for (int type : types) {
+            BufferedImage img = new BufferedImage(reference.getWidth(), reference.getHeight(), type);
+            img.getGraphics().drawImage(reference, 0, 0, null);
+
+            double[] result = scaler.scale(img, 8, 8, new double[64], 1);
+            double tolerance = type == BufferedImage.TYPE_USHORT_565_RGB ? 8 : 0.0001;
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], result[i], tolerance, "Image type " + type + ", pixel " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testSubImage() {
+        BufferedImage reference = createRandomImage(BufferedImage.TYPE_3BYTE_BGR, 100, 100);
+        BufferedImage sub = reference.getSubimage(10, 20, 50, 40);
+
+        BufferedImage copy = new BufferedImage(50, 40, BufferedImage.TYPE_INT_RGB);
+        copy.getGraphics().drawImage(sub, 0, 0, null);
+
+        assertArrayEquals(new GrayScaler().scale(copy, 9, 8, null, 1), new GrayScaler().scale(sub, 9, 8, null, 1), 0.0001);
+    }
+
+    @Test
+    public void testAverageAndUpscale() {
+        BufferedImage img = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        img.setRGB(0, 0, 0xFFFFFF);
+        img.setRGB(1, 0, 0x000000);
+
+        assertArrayEquals(new double[] {127.5}, new GrayScaler().scale(img, 1, 1, null, 1), 0.0001);
+        assertArrayEquals(new double[] {255, 255, 0, 0}, new GrayScaler().scale(img, 4, 1, null, 1), 0.0001);
+    }
+
+    @Test
+    public void testSubsampling() {
+        int step = 3;
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_USHORT_565_RGB};
+        for (int type : types) {
+            BufferedImage img = createRandomImage(type, 100, 80);
+
+            // every third pixel of every third row, starting with the first one (34 x 27 pixels)
+            BufferedImage sampled = new BufferedImage(34, 27, type);
+            for (int y = 0; y < sampled.getHeight(); y++) {
+                for (int x = 0; x < sampled.getWidth(); x++) {
+                    sampled.setRGB(x, y, img.getRGB(x * step, y * step));
+                }
+            }
+
+            assertArrayEquals(new GrayScaler().scale(sampled, 9, 8, null, 1), new GrayScaler().scale(img, 9, 8, null, step), 0.0001, "Image type " + type);
+        }
+    }
+
+    private static BufferedImage createRandomImage(int _type, int _width, int _height) {
+        Random rnd = new Random(42);
+        BufferedImage img = new BufferedImage(_width, _height, _type);
+        for (int y = 0; y < _height; y++) {
+            for (int x = 0; x < _width; x++) {
+                img.setRGB(x, y, 0xFF000000 | rnd.nextInt(0x1000000));
+            }
+        }
+        return img;
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.hypfvieh.imaging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.imaging.HammingIndex.Match;
+import com.github.hypfvieh.util.SystemUtil;
+
+public class HammingIndexTest extends AbstractBaseUtilTest {
+
+    @Test
+    public void testQueryMatchesBruteForce() {
+        Random rnd = new Random(4711);
+        long[] hashes = createHashes(rnd, 20000);
+        long[] ids = new long[hashes.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+
+        HammingIndex built = HammingIndex.build(hashes, ids);
+        HammingIndex inserted = new HammingIndex();
+        for (int i = 0; i < hashes.length; i++) {
+            inserted.insert(hashes[i], ids[i]);
+        }
+        assertEquals(hashes.length, built.size());
+        assertEquals(hashes.length, inserted.size());
+
+        for (int q = 0; q < 50; q++) {
+            long query = hashes[rnd.nextInt(hashes.length)] ^ (1L << rnd.nextInt(64));
+            for (int distance : new int[] {0, 3, 8, 13}) {
+                List<Long> expected = bruteForce(hashes, query, distance);
+                assertEquals(expected, toIds(built.query(query, distance)), "distance " + distance);
+                assertEquals(expected, toIds(inserted.query(query, distance)), "distance " + distance);
+            }
+        }
+    }
+
+    @Test
+    public void testInsertRemove() {
+        HammingIndex index = new HammingIndex();
+        index.insert(0L, 1);
+        index.insert(0L, 2);
+        index.insert(0xFFL, 3);
+
+        assertEquals(2, index.query(0L, 0).size());
+        assertEquals(3, index.query(0L, 8).size());
+
+        assertTrue(index.remove(0L, 1));
+        assertFalse(index.remove(0L, 1));
+        assertFalse(index.remove(1L, 2));
+        assertEquals(2, index.size());
+
+        List<Match> result = index.query(1L, 8);
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getId());
+        assertEquals(1, result.get(0).getDistance());
+        assertEquals(3, result.get(1).getId());
+        assertEquals(7, result.get(1).getDistance());
+
+        // freed slot is reused
+        index.insert(0x0FL, 4);
+        assertEquals(3, index.size());
+        assertEquals(4, index.query(0x0FL, 0).get(0).getId());
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException {
+        Random rnd = new Random(42);
+        HammingIndex index = new HammingIndex();
+        long[] hashes = createHashes(rnd, 1000);
+        for (int i = 0; i < hashes.length; i++) {
+            index.insert(hashes[i], i);
+        }
+        index.remove(hashes[10], 10);
+
+        Path file = Files.createTempFile(getClass().getSimpleName(), ".idx");
+        try {
+            index.save(file);
+            HammingIndex loaded = HammingIndex.load(file);
+            assertEquals(999, loaded.size());
+            assertTrue(loaded.query(hashes[10], 0).stream().noneMatch(m -> m.getId() == 10));
+            for (int i = 0; i < 20; i++) {
+                assertEquals(toIds(index.query(hashes[i * 7], 10)), toIds(loaded.query(hashes[i * 7], 10)));
+            }
+
+            Files.write(file, new byte[] {1, 2, 3});
+            assertThrows(IOException.class, () -> HammingIndex.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSaveReplacesExistingFile() throws IOException {
+        HammingIndex index = new HammingIndex();
+        index.insert(0x0FL, 1);
+        index.insert(0xF0L, 2);
+
+        Path dir = Files.createTempDirectory(getClass().getSimpleName());
+        Path file = dir.resolve("hashes.idx");
+        try {
+            Files.write(file, new byte[4096]);
+            index.save(file);
+            assertEquals(2 * 2 * Long.BYTES + 2 * Long.BYTES, Files.size(file));
+            assertEquals(2, HammingIndex.load(file).size());
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(List.of(file), files.collect(Collectors.toList()));
+            }
+        } finally {
+            SystemUtil.deleteRecursivelyQuiet(dir.toString());
+        }
+    }
+
+    /**
+     * Creates random hashes in groups of similar hashes (like near duplicate images).
+     */
+    private static long[] createHashes(Random _rnd, int _count) {
+        long[] result = new long[_count];
+        for (int i = 0; i < _count; i++) {
+            if (i % 5 == 0) {
+                result[i] = _rnd.nextLong();
+            } else {
+                result[i] = result[i - 1] ^ (1L << _rnd.nextInt(64)) ^ (1L << _rnd.nextInt(64));
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> bruteForce(long[] _hashes, long _query, int _distance) {
+        List<long[]> matches = new ArrayList<>();
+        for (int i = 0; i < _hashes.length; i++) {
+            int d = Long.bitCount(_hashes[i] ^ _query);
+            if (d <= _distance) {
+                matches.add(new long[] {d, i});
+            }
+        }
+        matches.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        return matches.stream().map(m -> m[1]).collect(Collectors.toList());
+    }
+
+    private static List<Long> toIds(List<Match> _matches) {
+        return _matches.stream().map(Match::getId).collect(Collectors.toList());
+    }
+}
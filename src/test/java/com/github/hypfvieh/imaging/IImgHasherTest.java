@@ -0,0 +1,72 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class IImgHasherTest extends AbstractBaseUtilTest {
+
+    private static final File IMAGE = new File("src/test/resources/imaging/compare.jpg");
+
+    @Test
+    public void testAllSourcesProduceSameHash() throws IOException {
+        byte[] data = Files.readAllBytes(IMAGE.toPath());
+
+        for (IImgHasher hasher : new IImgHasher[] {ImgAHash.forCurrentThread(), ImgDHash.forCurrentThread(), ImgPHash.forCurrentThread()}) {
+            long expected = hasher.hash(IMAGE);
+
+            assertEquals(expected, hasher.hash(data));
+            try (InputStream in = Files.newInputStream(IMAGE.toPath())) {
+                assertEquals(expected, hasher.hash(in));
+            }
+
+            ByteBuffer heap = ByteBuffer.allocate(data.length + 10);
+            heap.position(10);
+            heap.put(data).position(10);
+            assertEquals(expected, hasher.hash(heap.slice()));
+            assertEquals(10, heap.position());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+            direct.put(data).flip();
+            assertEquals(expected, hasher.hash(direct));
+            assertEquals(0, direct.position());
+
+            BufferedImage subsampled = AbstractImgHash.readImage(IMAGE, hasher.getTargetWidth(), hasher.getTargetHeight());
+            assertEquals(expected, hasher.hash(subsampled));
+        }
+
+        assertEquals(ImgPHash.computeHashValue(IMAGE), ImgPHash.forCurrentThread().hash(data));
+    }
+
+    @Test
+    public void testFullImageSameHash() throws IOException {
+        BufferedImage full = ImageIO.read(IMAGE);
+        for (IImgHasher hasher : new IImgHasher[] {ImgAHash.forCurrentThread(), ImgDHash.forCurrentThread(), ImgPHash.forCurrentThread()}) {
+            assertEquals(hasher.hash(IMAGE), hasher.hash(full), hasher.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testInvalidData() {
+        assertThrows(IOException.class, () -> ImgAHash.forCurrentThread().hash(new byte[] {1, 2, 3}));
+        assertThrows(IOException.class, () -> ImgAHash.forCurrentThread().hash(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    public void testInstancePerThread() throws Exception {
+        ImgPHash hasher = ImgPHash.forCurrentThread();
+        assertSame(hasher, ImgPHash.forCurrentThread());
+        assertNotSame(hasher, CompletableFuture.supplyAsync(ImgPHash::forCurrentThread).get());
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.hypfvieh.imaging;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +18,7 @@ public class ImageCompareTest extends AbstractBaseUtilTest {
     @Test
     public void testCompareDHashUnEqual() {
         int score = ImageCompare.compareWith(ImgDHash::computeHash, new File("src/test/resources/imaging/compare.jpg"), new File("src/test/resources/imaging/nocompare.jpg"));
-        assertEquals(13, score);
+        assertEquals(16, score);
     }
 
     @Test
@@ -29,7 +30,7 @@ public class ImageCompareTest extends AbstractBaseUtilTest {
     @Test
     public void testCompareAHashUnEqual() {
         int score = ImageCompare.compareWith(ImgAHash::computeHash, new File("src/test/resources/imaging/compare.jpg"), new File("src/test/resources/imaging/nocompare.jpg"));
-        assertEquals(15, score);
+        assertEquals(14, score);
     }
 
     @Test
@@ -41,6 +42,46 @@ public class ImageCompareTest extends AbstractBaseUtilTest {
     @Test
     public void testComparePHashUnEqual() {
         int score = ImageCompare.compareWith(ImgPHash::computeHash, new File("src/test/resources/imaging/compare.jpg"), new File("src/test/resources/imaging/nocompare.jpg"));
-        assertEquals(11, score);
+        assertEquals(12, score);
+    }
+
+    @Test
+    public void testPHashValues() throws Exception {
+        assertEquals("8ce38e0d09090000", ImgPHash.computeHash(new File("src/test/resources/imaging/compare.jpg")));
+        assertEquals("da48c0b863de0000", ImgPHash.computeHash(new File("src/test/resources/imaging/nocompare.jpg")));
+    }
+
+    @Test
+    public void testCompareValuesWith() throws IOException {
+        File img1 = new File("src/test/resources/imaging/compare.jpg");
+        File img2 = new File("src/test/resources/imaging/nocompare.jpg");
+        assertEquals(0, ImageCompare.compareValuesWith(ImgDHash::computeHashValue, img1, img1));
+        assertEquals(38, ImageCompare.compareValuesWith(ImgDHash::computeHashValue, img1, img2));
+        assertEquals(36, ImageCompare.compareValuesWith(ImgAHash::computeHashValue, img1, img2));
+        assertEquals(28, ImageCompare.compareValuesWith(ImgPHash::computeHashValue, img1, img2));
+        assertEquals(ImageCompare.calcBitDistance(ImgDHash.computeHash(img1), ImgDHash.computeHash(img2)), ImageCompare.compareValuesWith(ImgDHash::computeHashValue, img1, img2));
+        assertEquals(ImageCompare.calcBitDistance(ImgAHash.computeHash(img1), ImgAHash.computeHash(img2)), ImageCompare.compareValuesWith(ImgAHash::computeHashValue, img1, img2));
+        assertEquals(ImageCompare.calcBitDistance(ImgPHash.computeHash(img1), ImgPHash.computeHash(img2)), ImageCompare.compareValuesWith(ImgPHash::computeHashValue, img1, img2));
+    }
+
+    @Test
+    public void testHashValueAndString() throws Exception {
+        File img = new File("src/test/resources/imaging/compare.jpg");
+        assertEquals(ImgDHash.computeHash(img), AbstractImgHash.toHex(ImgDHash.computeHashValue(img)));
+        assertEquals(String.format("%016x", ImgAHash.computeHashValue(img)), ImgAHash.computeHash(img));
+        assertEquals("0000000000000001", AbstractImgHash.toHex(1L));
+        assertEquals("ffffffffffffffff", AbstractImgHash.toHex(-1L));
+    }
+
+    @Test
+    public void testHammingDistance() {
+        assertEquals(0, ImageCompare.hammingDistance(0x1234L, 0x1234L));
+        assertEquals(64, ImageCompare.hammingDistance(0L, -1L));
+        assertEquals(4, ImageCompare.hammingDistance(new long[] {1L, 0L}, new long[] {0L, 7L << 60}));
+        assertThrows(IllegalArgumentException.class, () -> ImageCompare.hammingDistance(new long[1], new long[2]));
+
+        assertEquals(4, ImageCompare.calcBitDistance("0f", "00"));
+        assertEquals(1, ImageCompare.calcHammingDistance("0f", "00"));
+        assertThrows(IllegalArgumentException.class, () -> ImageCompare.calcBitDistance("0g", "00"));
     }
 }
@@ -0,0 +1,227 @@
+package com.github.hypfvieh.imaging;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import com.github.hypfvieh.function.IThrowingSupplier;
+
+/**
+ * Measures the stages of image hashing separately: decoding, resize/grayscale, hashing and distance calculation.
+ * <p>
+ * Images are generated in memory in different sizes and encoded as JPEG, PNG (RGB) and PNG (ARGB, with alpha).
+ * For each stage the average time and the average number of bytes allocated per operation are printed
+ * (allocation is only reported if the JVM supports thread allocation counters).
+ * </p>
+ * <p>
+ * Not executed as unit test, run main method manually.
+ * Optional arguments: minimum measuring time per benchmark in milliseconds (default 1000).
+ * </p>
+ */
+public final class ImagingBenchmark {
+
+    private static final int[][]     SIZES            = {{640, 480}, {1920, 1080}, {4000, 3000}};
+    private static final String[][]  FORMATS          = {{"jpg", "RGB"}, {"png", "RGB"}, {"png", "ARGB"}};
+
+    private static final ThreadMXBean THREAD_BEAN     = ManagementFactory.getThreadMXBean();
+    private static final Method       ALLOCATED_BYTES = findAllocatedBytesMethod();
+
+    /** Batches of calls between two time checks are only enlarged while they are faster than this. */
+    private static final long         MAX_BATCH_NANOS  = 1_000_000L;
+    private static final int          MAX_BATCH_SIZE   = 1 << 20;
+
+    /** Receives all results, prevents the JIT from removing the measured code. */
+    private static volatile Object    sink;
+
+    private static long               minMillis;
+
+    private ImagingBenchmark() {
+
+    }
+
+    public static void main(String[] _args) throws Exception {
+        minMillis = _args.length > 0 ? Long.parseLong(_args[0]) : 1000;
+
+        System.out.printf("%-10s %-24s %-36s %12s %14s%n", "Stage", "Benchmark", "Image", "us/op", "bytes/op");
+
+        for (int[] size : SIZES) {
+            for (String[] format : FORMATS) {
+                boolean alpha = "ARGB".equals(format[1]);
+                BufferedImage source = createImage(size[0], size[1], alpha);
+                byte[] encoded = encode(source, format[0]);
+                String name = size[0] + "x" + size[1] + " " + format[0] + (alpha ? "+alpha" : "");
+
+                benchmarkDecode(name, encoded);
+                benchmarkResize(name, ImageIO.read(new ByteArrayInputStream(encoded)));
+            }
+        }
+
+        benchmarkHash();
+        benchmarkDistance();
+    }
+
+    private static void benchmarkDecode(String _name, byte[] _encoded) throws Exception {
+        run("decode", "ImageIO.read (full)", _name, () -> ImageIO.read(new ByteArrayInputStream(_encoded)));
+        run("decode", "subsampled for 8x8", _name, () -> readSubsampled(_encoded, 8));
+        run("decode", "subsampled for 32x32", _name, () -> readSubsampled(_encoded, 32));
+    }
+
+    private static BufferedImage readSubsampled(byte[] _encoded, int _targetSize) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(_encoded))) {
+            return AbstractImgHash.readImage(input, "benchmark", _targetSize, _targetSize);
+        }
+    }
+
+    private static void benchmarkResize(String _name, BufferedImage _decoded) throws Exception {
+        GrayScaler scaler = new GrayScaler();
+        double[] small = new double[8 * 8];
+        double[] large = new double[32 * 32];
+        String name = _name + " (" + typeName(_decoded.getType()) + ")";
+        run("resize", "GrayScaler 8x8", name, () -> scaler.scale(_decoded, 8, 8, small, 1));
+        run("resize", "GrayScaler 32x32", name, () -> scaler.scale(_decoded, 32, 32, large, 1));
+    }
+
+    /**
+     * Hash stage only: input is already scaled to the target size of the algorithm.
+     */
+    private static void benchmarkHash() throws Exception {
+        for (IImgHasher hasher : new IImgHasher[] {ImgAHash.forCurrentThread(), ImgDHash.forCurrentThread(), ImgPHash.forCurrentThread()}) {
+            BufferedImage scaled = createImage(hasher.getTargetWidth(), hasher.getTargetHeight(), false);
+            String size = hasher.getTargetWidth() + "x" + hasher.getTargetHeight();
+            run("hash", hasher.getClass().getSimpleName() + ".hash", size, () -> hasher.hash(scaled));
+        }
+    }
+
+    private static void benchmarkDistance() throws Exception {
+        Random rnd = new Random(1);
+        long[] hashes = new long[1024];
+        String[] hexHashes = new String[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = rnd.nextLong();
+            hexHashes[i] = AbstractImgHash.toHex(hashes[i]);
+        }
+
+        int[] idx = new int[1];
+        run("distance", "hammingDistance(long)", "64 bit", () -> {
+            int i = idx[0]++ & (hashes.length - 1);
+            return ImageCompare.hammingDistance(hashes[i], hashes[(i + 1) & (hashes.length - 1)]);
+        });
+        run("distance", "calcBitDistance(hex)", "64 bit", () -> {
+            int i = idx[0]++ & (hashes.length - 1);
+            return ImageCompare.calcBitDistance(hexHashes[i], hexHashes[(i + 1) & (hashes.length - 1)]);
+        });
+        run("distance", "toHex", "64 bit", () -> AbstractImgHash.toHex(hashes[idx[0]++ & (hashes.length - 1)]));
+    }
+
+    /**
+     * Runs the given operation until the minimum time is reached (once for warm up, once for measuring)
+     * and prints time and allocation per operation.
+     */
+    private static void run(String _stage, String _benchmark, String _image, IThrowingSupplier<Object, Exception> _operation) throws Exception {
+        measure(_operation); // warm up
+        long[] result = measure(_operation);
+        long ops = result[0];
+        String allocation = result[2] < 0 ? "n/a" : String.valueOf(result[2] / ops);
+        System.out.printf("%-10s %-24s %-36s %12.3f %14s%n", _stage, _benchmark, _image, result[1] / 1000d / ops, allocation);
+    }
+
+    /**
+     * @return operations, elapsed nanos, allocated bytes (-1 if unknown)
+     */
+    private static long[] measure(IThrowingSupplier<Object, Exception> _operation) throws Exception {
+        long deadline = System.nanoTime() + minMillis * 1_000_000L;
+        long ops = 0;
+        int batch = 1;
+        long allocStart = allocatedBytes();
+        long start = System.nanoTime();
+        long now = start;
+        do {
+            long batchStart = now;
+            for (int i = 0; i < batch; i++) {
+                sink = _operation.get();
+            }
+            ops += batch;
+            now = System.nanoTime();
+
+            // double the batch size for fast operations to keep the timer overhead low,
+            // slow operations keep checking the time after every call so the minimum time is not exceeded much
+            long batchNanos = now - batchStart;
+            if (batchNanos < MAX_BATCH_NANOS && batchNanos * 2 < deadline - now && batch < MAX_BATCH_SIZE) {
+                batch *= 2;
+            }
+        } while (now < deadline);
+        long allocEnd = allocatedBytes();
+        return new long[] {ops, now - start, allocStart < 0 ? -1 : allocEnd - allocStart};
+    }
+
+    private static Method findAllocatedBytesMethod() {
+        try {
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            return method.getDeclaringClass().isInstance(THREAD_BEAN) ? method : null;
+        } catch (ReflectiveOperationException | RuntimeException _ex) {
+            return null;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (long) ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException _ex) {
+            return -1;
+        }
+    }
+
+    private static BufferedImage createImage(int _width, int _height, boolean _alpha) {
+        BufferedImage image = new BufferedImage(_width, _height, _alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(20, 60, 200, 255), _width, _height, new Color(250, 200, 30, _alpha ? 120 : 255)));
+        g.fillRect(0, 0, _width, _height);
+        Random rnd = new Random(_width * 31L + _height);
+        for (int i = 0; i < 50; i++) {
+            g.setColor(new Color(rnd.nextInt(256), rnd.nextInt(256), rnd.nextInt(256), _alpha ? rnd.nextInt(256) : 255));
+            g.fillOval(rnd.nextInt(_width), rnd.nextInt(_height), 1 + rnd.nextInt(_width / 4 + 1), 1 + rnd.nextInt(_height / 4 + 1));
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage _image, String _format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(_image, _format, out)) {
+            throw new IOException("No writer for format " + _format);
+        }
+        return out.toByteArray();
+    }
+
+    private static String typeName(int _type) {
+        switch (_type) {
+            case BufferedImage.TYPE_INT_RGB:
+                return "INT_RGB";
+            case BufferedImage.TYPE_INT_ARGB:
+                return "INT_ARGB";
+            case BufferedImage.TYPE_3BYTE_BGR:
+                return "3BYTE_BGR";
+            case BufferedImage.TYPE_4BYTE_ABGR:
+                return "4BYTE_ABGR";
+            case BufferedImage.TYPE_BYTE_GRAY:
+                return "BYTE_GRAY";
+            default:
+                return "type " + _type;
+        }
+    }
+}
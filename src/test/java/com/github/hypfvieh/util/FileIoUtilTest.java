@@ -5,12 +5,22 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 import com.github.hypfvieh.AbstractBaseUtilTest;
@@ -308,4 +318,81 @@ public class FileIoUtilTest extends AbstractBaseUtilTest {
         assertEquals("\r", macOs9LineFeed);
 
     }
+
+    @Test
+    public void testWriteFileAtomic() throws IOException {
+        Path dir = Files.createTempDirectory(getClass().getSimpleName());
+        Path file = dir.resolve("file.txt");
+        try {
+            FileIoUtil.writeFileAtomic(file, out -> out.write("first".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("first", Files.readString(file));
+
+            FileIoUtil.writeFileAtomic(file, out -> out.write("second".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("second", Files.readString(file));
+
+            assertThrows(IOException.class, () -> FileIoUtil.writeFileAtomic(file, out -> {
+                out.write("partial".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("failed");
+            }));
+            assertEquals("second", Files.readString(file));
+
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(1, files.count(), "temporary file not removed");
+            }
+        } finally {
+            SystemUtil.deleteRecursivelyQuiet(dir.toString());
+        }
+    }
+
+    @Test
+    public void testWriteChannelAtomic() throws IOException {
+        Path dir = Files.createTempDirectory(getClass().getSimpleName());
+        Path file = dir.resolve("file.txt");
+        try {
+            Files.writeString(file, "original");
+
+            assertThrows(IOException.class, () -> FileIoUtil.writeChannelAtomic(file, channel -> {
+                channel.write(ByteBuffer.wrap("partial".getBytes(StandardCharsets.UTF_8)));
+                throw new IOException("failed");
+            }));
+            assertEquals("original", Files.readString(file));
+
+            // writer closing the stream must not prevent forcing the content to disk
+            FileIoUtil.writeFileAtomic(file, out -> {
+                try (OutputStream closing = out) {
+                    closing.write("closed".getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            assertEquals("closed", Files.readString(file));
+
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(1, files.count(), "temporary file not removed");
+            }
+        } finally {
+            SystemUtil.deleteRecursivelyQuiet(dir.toString());
+        }
+    }
+
+    @Test
+    public void testWriteFileAtomicKeepsPermissionsAndLinks() throws IOException {
+        Assumptions.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"), "POSIX file system required");
+
+        Path dir = Files.createTempDirectory(getClass().getSimpleName());
+        Path file = dir.resolve("file.txt");
+        Path link = dir.resolve("link.txt");
+        try {
+            Files.writeString(file, "old");
+            Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+            Files.setPosixFilePermissions(file, permissions);
+            Files.createSymbolicLink(link, file.getFileName());
+
+            FileIoUtil.writeFileAtomic(link, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+
+            assertTrue(Files.isSymbolicLink(link));
+            assertEquals("new", Files.readString(file));
+            assertEquals(permissions, Files.getPosixFilePermissions(file));
+        } finally {
+            SystemUtil.deleteRecursivelyQuiet(dir.toString());
+        }
+    }
 }
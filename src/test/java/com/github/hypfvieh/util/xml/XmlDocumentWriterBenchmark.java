@@ -0,0 +1,95 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.github.hypfvieh.util.TimeMeasure;
+
+/**
+ * Compares {@link XmlDocumentWriter} with the JAXP transformer previously used by {@link XmlUtil#printDocument(Node, OutputStream)}.
+ * <p>
+ * Not executed as unit test, run main method manually.
+ * Optional arguments: number of entries in generated config (default 200000), iterations (default 10).
+ * </p>
+ */
+public final class XmlDocumentWriterBenchmark {
+
+    private XmlDocumentWriterBenchmark() {
+
+    }
+
+    public static void main(String[] _args) throws Exception {
+        int entries = _args.length > 0 ? Integer.parseInt(_args[0]) : 200_000;
+        int iterations = _args.length > 1 ? Integer.parseInt(_args[1]) : 10;
+
+        Document document = createDocument(entries);
+        XmlDocumentWriter writer = new XmlDocumentWriter();
+
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            printWithTransformer(document, new ByteArrayOutputStream());
+            writer.write(document, new ByteArrayOutputStream());
+        }
+
+        long size = 0;
+        TimeMeasure tm = new TimeMeasure();
+        for (int i = 0; i < iterations; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            printWithTransformer(document, out);
+            size = out.size();
+        }
+        long transformerMillis = tm.getElapsedMillis();
+        System.out.printf("Transformer:       %6d ms/iteration (%d bytes)%n", transformerMillis / iterations, size);
+
+        tm.reset();
+        for (int i = 0; i < iterations; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.write(document, out);
+            size = out.size();
+        }
+        long writerMillis = tm.getElapsedMillis();
+        System.out.printf("XmlDocumentWriter: %6d ms/iteration (%d bytes)%n", writerMillis / iterations, size);
+    }
+
+    private static Document createDocument(int _entries) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element root = document.createElement("Config");
+        document.appendChild(root);
+        Element group = null;
+        for (int i = 0; i < _entries; i++) {
+            if (i % 100 == 0) {
+                group = document.createElement("Group");
+                group.setAttribute("id", String.valueOf(i / 100));
+                root.appendChild(group);
+            }
+            Element entry = document.createElement("Entry");
+            entry.setAttribute("name", "key" + i);
+            entry.setTextContent("value " + i + " & more");
+            group.appendChild(entry);
+        }
+        return document;
+    }
+
+    private static void printWithTransformer(Node _docOrNode, OutputStream _outStream) throws Exception {
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        transformer.transform(new DOMSource(_docOrNode), new StreamResult(new OutputStreamWriter(_outStream, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+
+public class XmlDocumentWriterTest extends AbstractBaseUtilTest {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<Config>\n"
+        + "\t<!-- comment -->\n"
+        + "\t<Key1 attr=\"a &amp; &quot;b&quot;\">Value &lt;1&gt; &amp; more</Key1>\n"
+        + "\t<Key2><Sub1>SubValue1</Sub1><Empty/></Key2>\n"
+        + "\t<Mixed>text <b>bold</b> text</Mixed>\n"
+        + "\t<CData><![CDATA[<raw>]]></CData>\n"
+        + "</Config>";
+
+    @Test
+    public void testPrintDocument() throws IOException {
+        Document document = XmlUtil.parseXmlString(XML, false, false);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XmlUtil.printDocument(document, output);
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<Config>\n"
+            + "    <!-- comment -->\n"
+            + "    <Key1 attr=\"a &amp; &quot;b&quot;\">Value &lt;1&gt; &amp; more</Key1>\n"
+            + "    <Key2>\n"
+            + "        <Sub1>SubValue1</Sub1>\n"
+            + "        <Empty/>\n"
+            + "    </Key2>\n"
+            + "    <Mixed>text <b>bold</b> text</Mixed>\n"
+            + "    <CData><![CDATA[<raw>]]></CData>\n"
+            + "</Config>\n";
+
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Document document = XmlUtil.parseXmlString(XML, false, false);
+
+        StringWriter writer = new StringWriter();
+        new XmlDocumentWriter().withIndent(0).withXmlDeclaration(false).write(document, writer);
+
+        Document reparsed = XmlUtil.parseXmlString(writer.toString(), false, false);
+        assertEquals(document.getDocumentElement().getTextContent().replaceAll("\\s+", ""),
+            reparsed.getDocumentElement().getTextContent().replaceAll("\\s+", ""));
+        assertEquals("a & \"b\"", XmlUtil.toElement(reparsed.getElementsByTagName("Key1").item(0)).getAttribute("attr"));
+        assertFalse(writer.toString().startsWith("<?xml"));
+    }
+
+    @Test
+    public void testWriteXmlStreamWriter() throws Exception {
+        Document document = XmlUtil.parseXmlString(XML, false, false);
+
+        StringWriter writer = new StringWriter();
+        XMLStreamWriter xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+        new XmlDocumentWriter().write(document, xmlWriter);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XmlUtil.printDocument(document, output);
+
+        Document reparsed = XmlUtil.parseXmlString(writer.toString(), false, false);
+        Document expected = XmlUtil.parseXmlString(output.toString(StandardCharsets.UTF_8), false, false);
+        assertTrue(expected.getDocumentElement().isEqualNode(reparsed.getDocumentElement()));
+    }
+
+    @Test
+    public void testWriteNode() throws IOException {
+        Document document = XmlUtil.parseXmlString(XML, false, false);
+
+        StringWriter writer = new StringWriter();
+        new XmlDocumentWriter().withXmlDeclaration(false).withIndent(2).write(document.getElementsByTagName("Key2").item(0), writer);
+
+        assertEquals("<Key2>\n  <Sub1>SubValue1</Sub1>\n  <Empty/>\n</Key2>\n", writer.toString());
+        assertThrows(IOException.class, () -> new XmlDocumentWriter().write(null, writer));
+    }
+
+    @Test
+    public void testUnencodableCharacters() throws IOException {
+        Document document = XmlUtil.parseXmlString("<a attr=\"\u00e9\u20ac\">\u00e9\u20ac \uD834\uDD1E</a>", false, false);
+        document.getDocumentElement().appendChild(document.createCDATASection("x\u20acy"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new XmlDocumentWriter().withXmlDeclaration(false).withIndent(0).withEncoding(StandardCharsets.ISO_8859_1).write(document, output);
+
+        String written = output.toString(StandardCharsets.ISO_8859_1);
+        assertEquals("<a attr=\"\u00e9&#8364;\">\u00e9&#8364; &#119070;<![CDATA[x]]>&#8364;<![CDATA[y]]></a>", written);
+
+        Document reparsed = XmlUtil.parseXmlString(written, false, false);
+        assertEquals("\u00e9\u20ac \uD834\uDD1Ex\u20acy", reparsed.getDocumentElement().getTextContent());
+        assertEquals("\u00e9\u20ac", reparsed.getDocumentElement().getAttribute("attr"));
+    }
+
+    @Test
+    public void testDeclaresWriterEncoding() throws Exception {
+        Document document = XmlUtil.parseXmlString("<a>\u00e9\u20ac</a>", false, false);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new XmlDocumentWriter().withIndent(0).write(document, new OutputStreamWriter(output, StandardCharsets.ISO_8859_1));
+
+        String written = output.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(written.startsWith("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"), written);
+
+        // parser has to decode the bytes using the declared encoding
+        Document reparsed = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals("\u00e9\u20ac", reparsed.getDocumentElement().getTextContent());
+
+        StringWriter writer = new StringWriter();
+        new XmlDocumentWriter().withIndent(0).write(document, writer);
+        assertTrue(writer.toString().startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"), writer.toString());
+    }
+
+    @Test
+    public void testCdataContainingEndMarker() throws IOException {
+        Document document = XmlUtil.parseXmlString("<a/>", false, false);
+        document.getDocumentElement().appendChild(document.createCDATASection("a]]>b]]>"));
+
+        StringWriter writer = new StringWriter();
+        new XmlDocumentWriter().withXmlDeclaration(false).withIndent(0).write(document, writer);
+
+        assertEquals("<a><![CDATA[a]]]]><![CDATA[>b]]]]><![CDATA[>]]></a>", writer.toString());
+        assertEquals("a]]>b]]>", XmlUtil.parseXmlString(writer.toString(), false, false).getDocumentElement().getTextContent());
+    }
+
+    @Test
+    public void testInvalidComment() throws IOException {
+        for (String comment : new String[] {"a--b", "a-"}) {
+            Document document = XmlUtil.parseXmlString("<a/>", false, false);
+            document.getDocumentElement().appendChild(document.createComment(comment));
+
+            assertThrows(IOException.class, () -> new XmlDocumentWriter().write(document, new StringWriter()), comment);
+        }
+
+        Document document = XmlUtil.parseXmlString("<a><!-- \u20ac --></a>", false, false);
+        assertThrows(IOException.class, () -> new XmlDocumentWriter().withEncoding(StandardCharsets.US_ASCII).write(document, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.util.xml.XmlStreamExtractor.Match;
+
+public class XmlStreamExtractorTest extends AbstractBaseUtilTest {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<feed>"
+        + "<record id=\"1\" type=\"book\"><title>First &amp; <b>bold</b></title><price>10</price></record>"
+        + "<record id=\"2\" type=\"cd\"><title>Second</title><price>20</price></record>"
+        + "<other><title>Not a record</title></other>"
+        + "<record type=\"book\"><title><![CDATA[Third]]></title></record>"
+        + "</feed>";
+
+    @Test
+    public void testExtract() throws IOException {
+        XmlStreamExtractor extractor = XmlStreamExtractor.compile("/feed/record/title", "/feed/record/@id",
+            "/feed/record[@type='book']/price", "/feed/*/title", "/feed/record[@id][@type=\"cd\"]/title");
+
+        List<String> result = new ArrayList<>();
+        extractor.extract(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)),
+            m -> result.add(m.getExpressionIndex() + "=" + m.getValue()));
+
+        assertEquals(List.of(
+            "1=1", "0=First & bold", "3=First & bold", "2=10",
+            "1=2", "0=Second", "3=Second", "4=Second",
+            "3=Not a record",
+            "0=Third", "3=Third"), result);
+    }
+
+    @Test
+    public void testExtractByteBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(XML.getBytes(StandardCharsets.UTF_8));
+        XmlStreamExtractor extractor = XmlStreamExtractor.compile("/feed/record/@type");
+
+        List<String> result = new ArrayList<>();
+        extractor.extract(buffer, m -> result.add(m.getValue()));
+        assertEquals(List.of("book", "cd", "book"), result);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        XmlStreamExtractor extractor = XmlStreamExtractor.compile("/feed/record/price");
+
+        try (Stream<Match> stream = extractor.stream(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("10", "20"), stream.map(Match::getValue).collect(Collectors.toList()));
+        }
+
+        // stream is lazy, reading stops after first match
+        try (Stream<Match> stream = extractor.stream(new ByteArrayInputStream((XML.substring(0, XML.indexOf("<record id=\"2\""))).getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals("10", stream.findFirst().map(Match::getValue).orElse(null));
+        }
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("feed/record"));
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("//record"));
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("/feed/@id/record"));
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("/feed/record[@id=1]"));
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("/feed/record[position()=1]"));
+        assertThrows(IllegalArgumentException.class, () -> XmlStreamExtractor.compile("/feed/record[@id='1'"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.hypfvieh.util.xml;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import javax.xml.xpath.XPathExpression;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import com.github.hypfvieh.AbstractBaseUtilTest;
+import com.github.hypfvieh.util.xml.XmlErrorHandlers.XmlErrorHandlerRuntimeException;
+import com.github.hypfvieh.util.xml.XmlUtil.CacheStatistics;
+
+public class XmlUtilTest extends AbstractBaseUtilTest {
+
+    private static final String XML = "<Config><Entry name=\"a\">1</Entry><Entry name=\"b\">2</Entry></Config>";
+
+    @Test
+    public void testXpathCache() throws IOException {
+        Document document = XmlUtil.parseXmlString(XML, false, false);
+        String expression = "/Config/Entry[@name='" + getShortTestMethodName() + "' or @name='b']";
+
+        CacheStatistics before = XmlUtil.getCacheStatistics();
+        for (int i = 0; i < 10; i++) {
+            NodeList result = XmlUtil.applyXpathExpressionToDocument(expression, document);
+            assertEquals(1, result.getLength());
+            assertEquals("2", result.item(0).getTextContent());
+        }
+        CacheStatistics after = XmlUtil.getCacheStatistics();
+
+        assertTrue(after.getXpathMisses() - before.getXpathMisses() >= 1);
+        assertTrue(after.getXpathHits() - before.getXpathHits() >= 9);
+
+        XPathExpression expr = XmlUtil.compileXpathExpression(expression);
+        assertSame(expr, XmlUtil.compileXpathExpression(expression));
+        assertThrows(IOException.class, () -> XmlUtil.compileXpathExpression("/Config/["));
+    }
+
+    @Test
+    public void testDocumentBuilderReuse() throws IOException {
+        XmlUtil.parseXmlString(XML, false, true);
+
+        CacheStatistics before = XmlUtil.getCacheStatistics();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Config", XmlUtil.parseXmlString(XML, false, true).getDocumentElement().getNodeName());
+        }
+        CacheStatistics after = XmlUtil.getCacheStatistics();
+
+        assertTrue(after.getBuilderHits() - before.getBuilderHits() >= 5);
+        assertThrows(IOException.class, () -> XmlUtil.parseXmlString("<Config>", false, true));
+        // builder is still usable after failure
+        assertEquals("Config", XmlUtil.parseXmlString(XML, false, true).getDocumentElement().getNodeName());
+    }
+
+    @Test
+    public void testParseWithSchema() throws IOException {
+        URL schemaUrl = new File("src/test/resources/XmlUtilTest/config.xsd").toURI().toURL();
+
+        Document document = XmlUtil.parseXmlStringWithSchema(XML, schemaUrl, true, new XmlErrorHandlerRuntimeException());
+        assertEquals(2, document.getElementsByTagName("Entry").getLength());
+
+        assertSame(XmlUtil.getSchema(schemaUrl), XmlUtil.getSchema(schemaUrl));
+
+        String invalid = "<Config><Entry name=\"a\">not a number</Entry></Config>";
+        assertThrows(IOException.class, () -> XmlUtil.parseXmlStringWithSchema(invalid, schemaUrl, true, new XmlErrorHandlerRuntimeException()));
+    }
+}